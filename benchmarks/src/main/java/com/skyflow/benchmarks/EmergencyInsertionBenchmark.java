@@ -0,0 +1,65 @@
+package com.skyflow.benchmarks;
+
+import com.skyflow.controller.SchedulingController;
+import com.skyflow.model.Flight;
+import com.skyflow.model.FlightId;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The pass that follows a mayday: a critical arrival due in the middle of a busy day joins the queue with the
+// rest of the traffic, takes its slot on the best-scoring runway ahead of everyone else, and the day is
+// sequenced around it. Compare with ScheduleFlightsBenchmark at the same sizes for the cost of the emergency.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EmergencyInsertionBenchmark {
+    @Param({"100", "1000", "10000"})
+    public int flights;
+
+    @Param({"6", "20", "50"})
+    public int runways;
+
+    private SchedulingController scheduler;
+    private List<Flight> traffic;
+
+    @Setup(Level.Trial)
+    public void createDay() {
+        Traffic.fixClock();
+        scheduler = Traffic.scheduler(Traffic.runways(runways));
+        traffic = new ArrayList<>(Traffic.flights(flights, Traffic.SEED));
+
+        Flight emergency = new Flight(FlightId.next(), "MAYDAY1", "El Al Israel Airlines", "Boeing 787-9",
+                Flight.WakeTurbulenceCategory.HEAVY, Flight.FlightType.ARRIVAL,
+                Traffic.DAY_START.plus(Traffic.DAY.dividedBy(2)), Flight.EmergencyStatus.CRITICAL);
+        emergency.setFuelLevel(8);
+        traffic.add(emergency);
+    }
+
+    @Setup(Level.Iteration)
+    public void requeue() {
+        Traffic.resetSchedule(scheduler, traffic);
+    }
+
+    @Benchmark
+    public List<Flight> scheduleWithEmergency() {
+        return scheduler.scheduleFlights();
+    }
+}
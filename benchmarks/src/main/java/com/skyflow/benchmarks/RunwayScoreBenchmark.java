@@ -0,0 +1,56 @@
+package com.skyflow.benchmarks;
+
+import com.skyflow.model.Flight;
+import com.skyflow.model.Runway;
+import com.skyflow.model.Weather;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Runway.calculateScore, called once per runway for every flight the scheduler places. Walks a seeded mix of
+// flights and a ring of runways so neither the aircraft nor the wind angle is the same from call to call.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RunwayScoreBenchmark {
+    private static final int FLIGHTS = 1024; // Power of two, for the index mask
+
+    @Param({"SUNNY", "RAINY", "THUNDERSTORM"})
+    public Weather.WeatherCondition condition;
+
+    private Flight[] flights;
+    private Runway[] runways;
+    private Weather weather;
+    private int flightIndex;
+    private int runwayIndex;
+
+    @Setup
+    public void setUp() {
+        Traffic.fixClock();
+        flights = Traffic.flights(FLIGHTS, Traffic.SEED).toArray(new Flight[0]);
+        runways = Traffic.runways(6).toArray(new Runway[0]);
+        weather = new Weather(25.0, 240, 6.0, condition);
+    }
+
+    @Benchmark
+    public double calculateScore() {
+        Flight flight = flights[flightIndex++ & (FLIGHTS - 1)];
+        Runway runway = runways[runwayIndex];
+        runwayIndex = runwayIndex + 1 == runways.length ? 0 : runwayIndex + 1;
+        return runway.calculateScore(weather, flight);
+    }
+}
@@ -0,0 +1,68 @@
+package com.skyflow.benchmarks;
+
+import com.skyflow.model.Flight;
+import com.skyflow.model.SafetySeparation;
+import com.skyflow.util.SyntheticTrafficGenerator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Wake separation lookups, done for every conflict check in a pass. Leader/follower pairs follow the synthetic
+// traffic mix (mostly medium, some heavy), so the lookups hit the matrix the way a real day does.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SafetySeparationBenchmark {
+    private static final int PAIRS = 1024; // Power of two, for the index mask
+
+    private SafetySeparation separation;
+    private Flight.WakeTurbulenceCategory[] leading;
+    private Flight.WakeTurbulenceCategory[] following;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        separation = new SafetySeparation();
+        leading = new Flight.WakeTurbulenceCategory[PAIRS];
+        following = new Flight.WakeTurbulenceCategory[PAIRS];
+
+        SplittableRandom random = new SplittableRandom(Traffic.SEED);
+        for (int i = 0; i < PAIRS; i++) {
+            leading[i] = SyntheticTrafficGenerator.randomCategory(random);
+            following[i] = SyntheticTrafficGenerator.randomCategory(random);
+        }
+    }
+
+    @Benchmark
+    public int pairSeparation() {
+        int i = index++ & (PAIRS - 1);
+        return separation.getSeparationTimeSeconds(leading[i], following[i]);
+    }
+
+    @Benchmark
+    public int baseSeparation() {
+        int i = index++ & (PAIRS - 1);
+        return separation.getSeparationTimeSeconds(leading[i]);
+    }
+
+    // The weather-adjusted form the scheduler uses when it places a flight
+    @Benchmark
+    public int adjustedSeparation() {
+        int i = index++ & (PAIRS - 1);
+        return separation.getAdjustedSeparationTime(leading[i], following[i], 1.3);
+    }
+}
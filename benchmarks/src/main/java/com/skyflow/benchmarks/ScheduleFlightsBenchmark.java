@@ -0,0 +1,60 @@
+package com.skyflow.benchmarks;
+
+import com.skyflow.controller.SchedulingController;
+import com.skyflow.model.Flight;
+import com.skyflow.model.Runway;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// One full scheduling pass over a day of traffic: every flight queued, runways free, scheduleFlights() places
+// them all. The pass is quadratic in flights (conflict and runway-load scans over the schedule built so far),
+// so the 100k cases take minutes per pass; narrow them with -p flights=... -p runways=... when iterating.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ScheduleFlightsBenchmark {
+    @Param({"100", "1000", "10000", "100000"})
+    public int flights;
+
+    @Param({"6", "20", "50"})
+    public int runways;
+
+    private SchedulingController scheduler;
+    private List<Flight> traffic;
+
+    @Setup(Level.Trial)
+    public void createDay() {
+        Traffic.fixClock();
+        List<Runway> airport = Traffic.runways(runways);
+        scheduler = Traffic.scheduler(airport);
+        traffic = Traffic.flights(flights, Traffic.SEED);
+    }
+
+    // Not measured: put the whole day back in the queue so every iteration runs the same pass
+    @Setup(Level.Iteration)
+    public void requeue() {
+        Traffic.resetSchedule(scheduler, traffic);
+    }
+
+    @Benchmark
+    public List<Flight> scheduleFlights() {
+        return scheduler.scheduleFlights();
+    }
+}
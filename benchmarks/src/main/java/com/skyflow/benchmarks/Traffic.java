@@ -0,0 +1,79 @@
+package com.skyflow.benchmarks;
+
+import com.skyflow.controller.SchedulingController;
+import com.skyflow.model.Flight;
+import com.skyflow.model.FlightId;
+import com.skyflow.model.FlightSpec;
+import com.skyflow.model.Runway;
+import com.skyflow.model.ScheduleClock;
+import com.skyflow.service.AircraftPool;
+import com.skyflow.util.SyntheticTrafficGenerator;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+// Repeatable inputs for the benchmarks: seeded synthetic traffic for one day, an airport with a given number of
+// runways, and a fixed schedule clock so priorities (which depend on "now") are the same on every run.
+final class Traffic {
+    // Override with -Dskyflow.benchmark.seed=... (pass it to the forks with -jvmArgsAppend)
+    static final long SEED = Long.getLong("skyflow.benchmark.seed", 20240601L);
+
+    static final LocalDateTime DAY_START = LocalDateTime.of(2024, 6, 1, 0, 0);
+    static final Duration DAY = Duration.ofHours(24);
+
+    private Traffic() {
+    }
+
+    // Pin the schedule clock to the start of the benchmark day
+    static void fixClock() {
+        ScheduleClock.setClock(Clock.fixed(DAY_START.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+    }
+
+    // A day of traffic from the built-in aircraft and airlines, the same for the same seed
+    static List<FlightSpec> specs(int count, long seed) {
+        SyntheticTrafficGenerator generator = new SyntheticTrafficGenerator(new AircraftPool(List.of()), List.of(), seed);
+        return generator.generate(count, DAY_START, DAY);
+    }
+
+    static List<Flight> flights(int count, long seed) {
+        List<Flight> flights = new ArrayList<>(count);
+        for (FlightSpec spec : specs(count, seed)) {
+            Flight flight = new Flight(FlightId.next(), spec.flightNumber(), spec.airline(), spec.aircraft(),
+                    spec.category(), spec.type(), spec.scheduledTime(), spec.emergencyStatus());
+            flight.setFuelLevel(spec.fuelLevel());
+            flights.add(flight);
+        }
+        return flights;
+    }
+
+    // Headings spread around the compass and a mix of lengths, so runway choice depends on wind and aircraft
+    static List<Runway> runways(int count) {
+        List<Runway> runways = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int heading = 10 + i * 340 / count;
+            int length = 2000 + (i % 5) * 500;
+            runways.add(new Runway(String.format("%02dL", i + 1), heading, length));
+        }
+        return runways;
+    }
+
+    static SchedulingController scheduler(List<Runway> runways) {
+        SchedulingController scheduler = new SchedulingController();
+        for (Runway runway : runways) {
+            scheduler.addRunway(runway);
+        }
+        return scheduler;
+    }
+
+    // Undo the previous pass: runways free from the start of the day and every flight back in the queue
+    static void resetSchedule(SchedulingController scheduler, List<Flight> flights) {
+        for (Runway runway : scheduler.getRunways()) {
+            runway.setNextAvailableTime(DAY_START);
+        }
+        scheduler.requeueFlights(flights);
+    }
+}
@@ -0,0 +1,75 @@
+package com.skyflow.benchmarks;
+
+import com.skyflow.controller.SchedulingController;
+import com.skyflow.model.Flight;
+import com.skyflow.model.Runway;
+import com.skyflow.model.Weather;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Rescheduling a day that is already scheduled after the wind swings round: the new weather is published,
+// every flight is pulled back into the queue (its runway choice may no longer be the best one) and placed again.
+// The wind alternates between two opposite directions, so each iteration really moves traffic between runways.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class WeatherChangeBenchmark {
+    @Param({"100", "1000", "10000"})
+    public int flights;
+
+    @Param({"6", "20", "50"})
+    public int runways;
+
+    private SchedulingController scheduler;
+    private List<Flight> traffic;
+    private final Weather easterly = new Weather(35.0, 90, 8.0, Weather.WeatherCondition.RAINY);
+    private final Weather westerly = new Weather(35.0, 270, 8.0, Weather.WeatherCondition.RAINY);
+    private Weather next;
+
+    @Setup(Level.Trial)
+    public void scheduleDay() {
+        Traffic.fixClock();
+        scheduler = Traffic.scheduler(Traffic.runways(runways));
+        traffic = Traffic.flights(flights, Traffic.SEED);
+
+        scheduler.updateWeather(westerly);
+        scheduler.addFlights(traffic);
+        scheduler.scheduleFlights();
+        next = easterly;
+    }
+
+    // Not measured: free the runways again, keeping the assignments from the last pass
+    @Setup(Level.Iteration)
+    public void freeRunways() {
+        for (Runway runway : scheduler.getRunways()) {
+            runway.setNextAvailableTime(Traffic.DAY_START);
+        }
+    }
+
+    @Benchmark
+    public List<Flight> windShift() {
+        Weather weather = next;
+        next = weather == easterly ? westerly : easterly;
+
+        scheduler.updateWeather(weather);
+        scheduler.requeueFlights(traffic);
+        return scheduler.scheduleFlights();
+    }
+}
@@ -0,0 +1,57 @@
+package com.skyflow.controller;
+
+import com.skyflow.model.Flight;
+import com.skyflow.model.Runway;
+import com.skyflow.model.Weather;
+
+import java.util.Collection;
+import java.util.List;
+
+// Receives every state-changing command as it starts, inside its ScheduleClock tick, plus the outcome of every
+// scheduling pass. Commands arrive before the passes they trigger, so a log replayed in order reproduces them.
+public interface CommandLog {
+    CommandLog NONE = new CommandLog() {
+    };
+
+    default void flightCreated(Flight flight) {
+    }
+
+    // A batch from createFlights: new flights, and known flights whose scheduled time was refreshed
+    default void flightsCreated(List<Flight> created, List<Flight> updated) {
+    }
+
+    default void flightsRemoved(Collection<String> icao24s) {
+    }
+
+    default void flightDeleted(Flight flight) {
+    }
+
+    default void emergencyStatusChanged(Flight flight, Flight.EmergencyStatus status) {
+    }
+
+    default void fuelLevelChanged(Flight flight, int fuelLevel) {
+    }
+
+    default void runwayCreated(Runway runway) {
+    }
+
+    default void runwayDeleted(Runway runway) {
+    }
+
+    default void runwayActiveChanged(Runway runway, boolean active) {
+    }
+
+    default void weatherChanged(Weather weather) {
+    }
+
+    default void scheduleReset() {
+    }
+
+    // Flights retired from the live working set because their slot has passed
+    default void flightsCompleted(List<Flight> flights) {
+    }
+
+    // A scheduling pass finished; nested when it ran as part of another command
+    default void schedulePassed(List<Flight> schedule, boolean nested) {
+    }
+}
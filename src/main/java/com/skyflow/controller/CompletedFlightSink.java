@@ -0,0 +1,14 @@
+package com.skyflow.controller;
+
+import com.skyflow.model.Flight;
+
+import java.util.List;
+
+// Receives flights as they are retired from the live working set (e.g. to archive them).
+// Called on the thread doing the scheduling, once per batch.
+public interface CompletedFlightSink {
+    CompletedFlightSink NONE = flights -> {
+    };
+
+    void flightsCompleted(List<Flight> flights);
+}
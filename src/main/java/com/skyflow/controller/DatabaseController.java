@@ -1,26 +1,53 @@
 package com.skyflow.controller;
 
+import com.skyflow.model.AircraftType;
+import com.skyflow.model.Airline;
 import com.skyflow.model.Flight;
+import com.skyflow.model.FlightSnapshot;
+import com.skyflow.model.Runway;
+import com.skyflow.model.WeatherPreset;
 
+import java.nio.file.Paths;
 import java.sql.*;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.IntConsumer;
 
-public class DatabaseController {
-    private Connection connection;
-    private static final String DB_URL = "jdbc:sqlite:skyflow.db";
+// SQLite-backed repository (WAL, pooled connections, versioned schema)
+public class DatabaseController implements Repository {
+    private SqliteDataSource dataSource;
+    private final String storageId;
+    public static final String DEFAULT_DB_FILE = "skyflow.db";
+
+    // Stay well below SQLite's bound-parameter limit when building IN (...) lists
+    private static final int MAX_IN_CLAUSE_PARAMETERS = 500;
+
+    // Rows per executeBatch during bulk upserts; progress is reported after each batch
+    private static final int UPSERT_BATCH_SIZE = 1000;
 
     // Constructor
     public DatabaseController() {
-        try {
-            // Create a connection to the database
-            connection = DriverManager.getConnection(DB_URL);
+        this(DEFAULT_DB_FILE);
+    }
 
-            // Create tables if they don't exist
-            createTablesIfNotExist();
-            createWeatherPresetsTable();
+    // Open (creating if needed) the given database file
+    public DatabaseController(String dbFile) {
+        this.storageId = Paths.get(dbFile).toAbsolutePath().normalize().toString();
+        try {
+            // Open the connection pool (WAL mode, one writer plus read connections)
+            dataSource = new SqliteDataSource("jdbc:sqlite:" + dbFile);
+
+            // Bring the schema up to date (one transaction for all pending migrations)
+            int fromVersion = SchemaMigrations.migrate(dataSource);
+            if (fromVersion < SchemaMigrations.CURRENT_VERSION) {
+                System.out.println("Database schema upgraded from version " + fromVersion
+                        + " to " + SchemaMigrations.CURRENT_VERSION);
+            }
 
             System.out.println("Database connection established successfully.");
         } catch (SQLException e) {
@@ -29,334 +56,362 @@ public class DatabaseController {
         }
     }
 
-    // Create the database tables if they don't already exist
-    private void createTablesIfNotExist() {
-        try (Statement statement = connection.createStatement()) {
-            // Create Airlines table
-            statement.execute(
-                    "CREATE TABLE IF NOT EXISTS airlines (" +
-                            "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                            "name TEXT NOT NULL, " +
-                            "code TEXT NOT NULL UNIQUE" +
-                            ")"
-            );
-
-            // Create Aircrafts table
-            statement.execute(
-                    "CREATE TABLE IF NOT EXISTS aircrafts (" +
-                            "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                            "name TEXT NOT NULL, " +
-                            "fuel_capacity INTEGER NOT NULL, " +
-                            "weight INTEGER NOT NULL, " +
-                            "aircraft_type TEXT NOT NULL, " +
-                            "turbulence_category TEXT NOT NULL, " +
-                            "CONSTRAINT unique_aircraft_name UNIQUE (name)" +
-                            ")"
-            );
-
-            System.out.println("Database tables initialized successfully.");
+    // The database file's absolute path
+    @Override
+    public String getStorageId() {
+        return storageId;
+    }
+
+    // Current version of the reference data, or -1 if it cannot be read
+    @Override
+    public long getReferenceDataVersion() {
+        try {
+            Long version = queryOne("SELECT value FROM reference_meta WHERE key = 'reference_version'",
+                    resultSet -> resultSet.getLong(1));
+            if (version != null) {
+                return version;
+            }
         } catch (SQLException e) {
-            System.err.println("Error creating tables: " + e.getMessage());
-            e.printStackTrace();
+            System.err.println("Error reading reference data version: " + e.getMessage());
         }
+
+        return -1;
     }
 
     // Get all airlines from the database
-    public List<Map<String, String>> getAllAirlines() {
-        List<Map<String, String>> airlines = new ArrayList<>();
-
-        try (Statement statement = connection.createStatement();
-             ResultSet resultSet = statement.executeQuery("SELECT icao_code, airline_name FROM airlines ORDER BY airline_name")) {
-
-            while (resultSet.next()) {
-                Map<String, String> airline = new HashMap<>();
-                airline.put("code", resultSet.getString("icao_code"));
-                airline.put("name", resultSet.getString("airline_name"));
-                airlines.add(airline);
-            }
+    @Override
+    public List<Airline> getAllAirlines() {
+        try {
+            return queryList("SELECT icao_code, airline_name FROM airlines ORDER BY airline_name", RowMappers.AIRLINE);
         } catch (SQLException e) {
             System.err.println("Error retrieving airlines: " + e.getMessage());
             e.printStackTrace();
+            return new ArrayList<>();
         }
-
-        return airlines;
     }
 
     // Get all aircraft from the database
-    public List<Map<String, Object>> getAllAircraft() {
-        List<Map<String, Object>> aircraft = new ArrayList<>();
-
-        try (Statement statement = connection.createStatement();
-             ResultSet resultSet = statement.executeQuery("SELECT * FROM aircrafts ORDER BY name")) {
-
-            while (resultSet.next()) {
-                Map<String, Object> aircraftDetails = new HashMap<>();
-                aircraftDetails.put("id", resultSet.getInt("id"));
-                aircraftDetails.put("name", resultSet.getString("name"));
-                aircraftDetails.put("fuelCapacity", resultSet.getInt("fuel_capacity"));
-                aircraftDetails.put("weight", resultSet.getInt("weight"));
-                aircraftDetails.put("aircraftType", resultSet.getString("aircraft_type"));
-                aircraftDetails.put("turbulenceCategory", resultSet.getString("turbulence_category"));
-                aircraft.add(aircraftDetails);
-            }
+    @Override
+    public List<AircraftType> getAllAircraft() {
+        try {
+            return queryList("SELECT * FROM aircrafts ORDER BY name", RowMappers.AIRCRAFT_TYPE);
         } catch (SQLException e) {
             System.err.println("Error retrieving aircraft: " + e.getMessage());
             e.printStackTrace();
+            return new ArrayList<>();
         }
-
-        return aircraft;
     }
 
     // Get aircraft by name
-    public Map<String, Object> getAircraftByName(String name) {
-        try (PreparedStatement statement = connection.prepareStatement(
-                "SELECT * FROM aircrafts WHERE name = ?")) {
-
-            statement.setString(1, name);
-            ResultSet resultSet = statement.executeQuery();
-
-            if (resultSet.next()) {
-                Map<String, Object> aircraft = new HashMap<>();
-                aircraft.put("id", resultSet.getInt("id"));
-                aircraft.put("name", resultSet.getString("name"));
-                aircraft.put("fuel_capacity", resultSet.getInt("fuel_capacity"));
-                aircraft.put("weight", resultSet.getInt("weight"));
-                aircraft.put("aircraft_type", resultSet.getString("aircraft_type"));
-                aircraft.put("turbulence_category", resultSet.getString("turbulence_category"));
-                return aircraft;
-            }
-
-            resultSet.close();
+    @Override
+    public AircraftType getAircraftByName(String name) {
+        try {
+            return queryOne("SELECT * FROM aircrafts WHERE name = ?", RowMappers.AIRCRAFT_TYPE, name);
         } catch (SQLException e) {
-            System.err.println("Error retrieving aircraft by name: " + e.getMessage());
+            throw new RepositoryException("Error retrieving aircraft by name", e);
         }
-
-        return null;
     }
 
     // Get airline by code
-    public Map<String, String> getAirlineByCode(String code) {
-        try (PreparedStatement statement = connection.prepareStatement(
-                "SELECT icao_code, airline_name FROM airlines WHERE icao_code = ?")) {
-
-            statement.setString(1, code);
-            ResultSet resultSet = statement.executeQuery();
-
-            if (resultSet.next()) {
-                Map<String, String> airline = new HashMap<>();
-                airline.put("code", resultSet.getString("icao_code"));
-                airline.put("name", resultSet.getString("airline_name"));
-                return airline;
-            }
-
-            resultSet.close();
+    @Override
+    public Airline getAirlineByCode(String code) {
+        try {
+            return queryOne("SELECT icao_code, airline_name FROM airlines WHERE icao_code = ?", RowMappers.AIRLINE, code);
         } catch (SQLException e) {
-            System.err.println("Error retrieving airline by code: " + e.getMessage());
+            throw new RepositoryException("Error retrieving airline by code", e);
         }
-
-        return null;
     }
 
-    // Get airline by name
-    public Map<String, String> getAirlineByName(String name) {
-        try (PreparedStatement statement = connection.prepareStatement(
-                "SELECT name, code FROM airlines WHERE name = ?")) {
-
-            statement.setString(1, name);
-            ResultSet resultSet = statement.executeQuery();
-
-            if (resultSet.next()) {
-                Map<String, String> airline = new HashMap<>();
-                airline.put("name", resultSet.getString("name"));
-                airline.put("code", resultSet.getString("code"));
-                return airline;
+    // Get all airlines matching any of the given codes, keyed by code - one IN (...) query per chunk
+    @Override
+    public Map<String, Airline> getAirlinesByCodes(Collection<String> codes) {
+        Map<String, Airline> airlines = new HashMap<>();
+        List<String> codeList = new ArrayList<>(codes);
+
+        for (int start = 0; start < codeList.size(); start += MAX_IN_CLAUSE_PARAMETERS) {
+            List<String> chunk = codeList.subList(start, Math.min(codeList.size(), start + MAX_IN_CLAUSE_PARAMETERS));
+
+            try {
+                for (Airline airline : queryList(
+                        "SELECT icao_code, airline_name FROM airlines WHERE icao_code IN (" + placeholders(chunk.size()) + ")",
+                        RowMappers.AIRLINE, chunk.toArray(new String[0]))) {
+                    airlines.put(airline.icaoCode(), airline);
+                }
+            } catch (SQLException e) {
+                throw new RepositoryException("Error retrieving airlines by codes", e);
             }
-
-            resultSet.close();
-        } catch (SQLException e) {
-            System.err.println("Error retrieving airline by name: " + e.getMessage());
-            e.printStackTrace();
         }
 
-        return null;
+        return airlines;
     }
 
-    // Get aircraft by turbulence category
-    public List<Map<String, Object>> getAircraftByCategory(Flight.WakeTurbulenceCategory category) {
-        List<Map<String, Object>> aircraft = new ArrayList<>();
-
-        try (PreparedStatement statement = connection.prepareStatement(
-                "SELECT * FROM aircrafts WHERE turbulence_category = ? ORDER BY name")) {
-
-            statement.setString(1, category.name());
-            ResultSet resultSet = statement.executeQuery();
-
-            while (resultSet.next()) {
-                Map<String, Object> aircraftDetails = new HashMap<>();
-                aircraftDetails.put("id", resultSet.getInt("id"));
-                aircraftDetails.put("name", resultSet.getString("name"));
-                aircraftDetails.put("fuel_capacity", resultSet.getInt("fuel_capacity"));
-                aircraftDetails.put("weight", resultSet.getInt("weight"));
-                aircraftDetails.put("aircraft_type", resultSet.getString("aircraft_type"));
-                aircraftDetails.put("turbulence_category", resultSet.getString("turbulence_category"));
-                aircraft.add(aircraftDetails);
+    // Get all aircraft matching any of the given names, keyed by name - one IN (...) query per chunk
+    @Override
+    public Map<String, AircraftType> getAircraftByNames(Collection<String> names) {
+        Map<String, AircraftType> aircraftByName = new HashMap<>();
+        List<String> nameList = new ArrayList<>(names);
+
+        for (int start = 0; start < nameList.size(); start += MAX_IN_CLAUSE_PARAMETERS) {
+            List<String> chunk = nameList.subList(start, Math.min(nameList.size(), start + MAX_IN_CLAUSE_PARAMETERS));
+
+            try {
+                for (AircraftType aircraft : queryList(
+                        "SELECT * FROM aircrafts WHERE name IN (" + placeholders(chunk.size()) + ")",
+                        RowMappers.AIRCRAFT_TYPE, chunk.toArray(new String[0]))) {
+                    aircraftByName.put(aircraft.name(), aircraft);
+                }
+            } catch (SQLException e) {
+                throw new RepositoryException("Error retrieving aircraft by names", e);
             }
-
-            resultSet.close();
-        } catch (SQLException e) {
-            System.err.println("Error retrieving aircraft by category: " + e.getMessage());
         }
 
-        return aircraft;
+        return aircraftByName;
     }
 
-    // Get random aircraft of specific category
-    public Map<String, Object> getRandomAircraftByCategory(Flight.WakeTurbulenceCategory category) {
-        try (PreparedStatement statement = connection.prepareStatement(
-                "SELECT * FROM aircrafts WHERE turbulence_category = ? ORDER BY RANDOM() LIMIT 1")) {
-
-            statement.setString(1, category.name());
-            ResultSet resultSet = statement.executeQuery();
-
-            if (resultSet.next()) {
-                Map<String, Object> aircraft = new HashMap<>();
-                aircraft.put("id", resultSet.getInt("id"));
-                aircraft.put("name", resultSet.getString("name"));
-                aircraft.put("fuelCapacity", resultSet.getInt("fuel_capacity"));
-                aircraft.put("weight", resultSet.getInt("weight"));
-                aircraft.put("aircraftType", resultSet.getString("aircraft_type"));
-                aircraft.put("turbulenceCategory", resultSet.getString("turbulence_category"));
-                return aircraft;
+    // "?, ?, ?" for an IN clause with the given number of parameters
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    // Run a query with string parameters on a pooled read connection and map every row.
+    // The prepared statement stays cached on the connection; only the ResultSet is closed.
+    private <T> List<T> queryList(String sql, RowMapper<T> mapper, String... parameters) throws SQLException {
+        return dataSource.read(connection -> {
+            PreparedStatement statement = connection.prepare(sql);
+            bindStrings(statement, parameters);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                List<T> rows = new ArrayList<>();
+                while (resultSet.next()) {
+                    rows.add(mapper.map(resultSet));
+                }
+                return rows;
+            }
+        });
+    }
+
+    // Run a query with string parameters and map the first row, or return null when there is none
+    private <T> T queryOne(String sql, RowMapper<T> mapper, String... parameters) throws SQLException {
+        return dataSource.read(connection -> {
+            PreparedStatement statement = connection.prepare(sql);
+            bindStrings(statement, parameters);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? mapper.map(resultSet) : null;
             }
+        });
+    }
 
-            resultSet.close();
+    private static void bindStrings(PreparedStatement statement, String... values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            statement.setString(i + 1, values[i]);
+        }
+    }
+
+    // Get airline by name
+    @Override
+    public Airline getAirlineByName(String name) {
+        try {
+            return queryOne("SELECT icao_code, airline_name FROM airlines WHERE airline_name = ?", RowMappers.AIRLINE, name);
         } catch (SQLException e) {
-            System.err.println("Error retrieving random aircraft: " + e.getMessage());
+            System.err.println("Error retrieving airline by name: " + e.getMessage());
             e.printStackTrace();
+            return null;
         }
-
-        return null;
     }
 
-    // Close database connection
-    public void shutdown() {
+    // Get aircraft by turbulence category. Random picks by category no longer query the database (the old
+    // ORDER BY RANDOM() getRandomAircraftByCategory); they come from DatabaseService's in-memory AircraftPool.
+    @Override
+    public List<AircraftType> getAircraftByCategory(Flight.WakeTurbulenceCategory category) {
         try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                System.out.println("Database connection closed.");
-            }
+            return queryList("SELECT * FROM aircrafts WHERE turbulence_category = ? ORDER BY name",
+                    RowMappers.AIRCRAFT_TYPE, category.name());
         } catch (SQLException e) {
-            System.err.println("[:] Closing database connection: " + e.getMessage());
-            e.printStackTrace();
+            System.err.println("Error retrieving aircraft by category: " + e.getMessage());
+            return new ArrayList<>();
         }
     }
 
+    // Insert or update airlines by ICAO code in one transaction; progress receives the running row count
+    @Override
+    public int upsertAirlines(List<Airline> airlines, IntConsumer progress) throws SQLException {
+        return dataSource.transaction(connection -> {
+            PreparedStatement statement = connection.prepare(
+                    "INSERT INTO airlines (icao_code, airline_name) VALUES (?, ?) " +
+                            "ON CONFLICT (icao_code) DO UPDATE SET airline_name = excluded.airline_name");
+
+            int written = 0;
+            for (Airline airline : airlines) {
+                statement.setString(1, airline.icaoCode());
+                statement.setString(2, airline.name());
+                statement.addBatch();
+                written++;
+
+                if (written % UPSERT_BATCH_SIZE == 0) {
+                    statement.executeBatch();
+                    progress.accept(written);
+                }
+            }
+            statement.executeBatch();
+            progress.accept(written);
+            return written;
+        });
+    }
 
-    // Methods for managing weather presets in the database
-    public void createWeatherPresetsTable() {
-        try (Statement statement = connection.createStatement()) {
-            // Create Weather Presets table
-            statement.execute(
-                    "CREATE TABLE IF NOT EXISTS weather_presets (" +
-                            "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                            "name TEXT NOT NULL UNIQUE, " +
-                            "wind_speed REAL NOT NULL, " +
-                            "wind_direction INTEGER NOT NULL, " +
-                            "visibility REAL NOT NULL, " +
-                            "condition TEXT NOT NULL" +
-                            ")"
-            );
-
-            // Check if table is empty and populate with default presets
-            ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM weather_presets");
-            if (resultSet.next() && resultSet.getInt(1) == 0) {
-                populateDefaultWeatherPresets();
+    // Insert or update aircraft types by name in one transaction; progress receives the running row count.
+    // Types without a name or wake category cannot be stored (both columns are NOT NULL) and are skipped, so the
+    // returned count can be lower than the list size.
+    @Override
+    public int upsertAircraft(List<AircraftType> aircraftTypes, IntConsumer progress) throws SQLException {
+        return dataSource.transaction(connection -> {
+            PreparedStatement statement = connection.prepare(
+                    "INSERT INTO aircrafts (name, fuel_capacity, weight, aircraft_type, turbulence_category) " +
+                            "VALUES (?, ?, ?, ?, ?) " +
+                            "ON CONFLICT (name) DO UPDATE SET fuel_capacity = excluded.fuel_capacity, " +
+                            "weight = excluded.weight, aircraft_type = excluded.aircraft_type, " +
+                            "turbulence_category = excluded.turbulence_category");
+
+            int written = 0;
+            for (AircraftType aircraft : aircraftTypes) {
+                if (aircraft.name() == null || aircraft.turbulenceCategory() == null) {
+                    continue;
+                }
+                statement.setString(1, aircraft.name());
+                statement.setInt(2, aircraft.fuelCapacity());
+                statement.setInt(3, aircraft.weight());
+                statement.setString(4, aircraft.aircraftType());
+                statement.setString(5, aircraft.turbulenceCategory().name());
+                statement.addBatch();
+                written++;
+
+                if (written % UPSERT_BATCH_SIZE == 0) {
+                    statement.executeBatch();
+                    progress.accept(written);
+                }
             }
-            resultSet.close();
+            statement.executeBatch();
+            progress.accept(written);
+            return written;
+        });
+    }
 
-            System.out.println("Weather presets table initialized successfully.");
+    // Write changed flights and their runway assignments, then delete removed flights, in one transaction
+    @Override
+    public void saveFlights(Collection<FlightSnapshot> changed, Collection<String> removedIds) throws SQLException {
+        dataSource.transaction(connection -> {
+            PreparedStatement upsertFlight = connection.prepare(
+                    "INSERT INTO flights (id, flight_number, airline, aircraft, category, type, scheduled_time, " +
+                            "emergency_status, fuel_level, icao24) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+                            "ON CONFLICT (id) DO UPDATE SET flight_number = excluded.flight_number, " +
+                            "airline = excluded.airline, aircraft = excluded.aircraft, category = excluded.category, " +
+                            "type = excluded.type, scheduled_time = excluded.scheduled_time, " +
+                            "emergency_status = excluded.emergency_status, fuel_level = excluded.fuel_level, " +
+                            "icao24 = excluded.icao24");
+            PreparedStatement upsertAssignment = connection.prepare(
+                    "INSERT INTO flight_assignments (flight_id, runway_id, actual_time) VALUES (?, ?, ?) " +
+                            "ON CONFLICT (flight_id) DO UPDATE SET runway_id = excluded.runway_id, " +
+                            "actual_time = excluded.actual_time");
+            PreparedStatement deleteAssignment = connection.prepare("DELETE FROM flight_assignments WHERE flight_id = ?");
+
+            int batched = 0;
+            for (FlightSnapshot flight : changed) {
+                upsertFlight.setString(1, flight.id());
+                upsertFlight.setString(2, flight.flightNumber());
+                upsertFlight.setString(3, flight.airline());
+                upsertFlight.setString(4, flight.aircraft());
+                upsertFlight.setString(5, flight.category().name());
+                upsertFlight.setString(6, flight.type().name());
+                upsertFlight.setString(7, flight.scheduledTime().toString());
+                upsertFlight.setString(8, flight.emergencyStatus().name());
+                upsertFlight.setInt(9, flight.fuelLevel());
+                upsertFlight.setString(10, flight.icao24());
+                upsertFlight.addBatch();
+
+                if (flight.isAssigned()) {
+                    upsertAssignment.setString(1, flight.id());
+                    upsertAssignment.setString(2, flight.runwayId());
+                    upsertAssignment.setString(3, flight.actualTime().toString());
+                    upsertAssignment.addBatch();
+                } else {
+                    deleteAssignment.setString(1, flight.id());
+                    deleteAssignment.addBatch();
+                }
+
+                if (++batched % UPSERT_BATCH_SIZE == 0) {
+                    upsertFlight.executeBatch();
+                    upsertAssignment.executeBatch();
+                    deleteAssignment.executeBatch();
+                }
+            }
+            upsertFlight.executeBatch();
+            upsertAssignment.executeBatch();
+            deleteAssignment.executeBatch();
+
+            // Deletes go last: a flight changed and then removed before the flush must stay removed
+            PreparedStatement delete = connection.prepare("DELETE FROM flights WHERE id = ?");
+            for (String id : removedIds) {
+                delete.setString(1, id);
+                delete.addBatch();
+            }
+            delete.executeBatch();
+            return null;
+        });
+    }
+
+    // Read every stored flight with its assignment in one query; runway ids are resolved against the given runways
+    @Override
+    public List<Flight> loadFlights(Map<String, Runway> runwaysById) {
+        try {
+            return queryList(
+                    "SELECT f.*, a.runway_id, a.actual_time FROM flights f " +
+                            "LEFT JOIN flight_assignments a ON a.flight_id = f.id",
+                    resultSet -> {
+                        Flight flight = RowMappers.FLIGHT.map(resultSet);
+                        String runwayId = resultSet.getString("runway_id");
+                        String actualTime = resultSet.getString("actual_time");
+                        if (runwayId != null && actualTime != null) {
+                            flight.setAssignedRunway(runwaysById.get(runwayId));
+                            flight.setActualTime(LocalDateTime.parse(actualTime));
+                        }
+                        return flight;
+                    });
         } catch (SQLException e) {
-            System.err.println("Error creating weather presets table: " + e.getMessage());
+            System.err.println("Error loading flights: " + e.getMessage());
             e.printStackTrace();
+            return new ArrayList<>();
         }
     }
 
-    // Populate default weather presets
-    private void populateDefaultWeatherPresets() {
-        try (Statement statement = connection.createStatement()) {
-            // Insert default weather presets
-            statement.execute("INSERT INTO weather_presets (name, wind_speed, wind_direction, visibility, condition) " +
-                    "VALUES ('Clear Day', 5.0, 90, 25.0, 'SUNNY')");
-            statement.execute("INSERT INTO weather_presets (name, wind_speed, wind_direction, visibility, condition) " +
-                    "VALUES ('Light Breeze', 10.0, 180, 20.0, 'SUNNY')");
-            statement.execute("INSERT INTO weather_presets (name, wind_speed, wind_direction, visibility, condition) " +
-                    "VALUES ('Cloudy Morning', 7.5, 270, 15.0, 'CLOUDY')");
-            statement.execute("INSERT INTO weather_presets (name, wind_speed, wind_direction, visibility, condition) " +
-                    "VALUES ('Rainy Afternoon', 12.0, 45, 8.0, 'RAINY')");
-            statement.execute("INSERT INTO weather_presets (name, wind_speed, wind_direction, visibility, condition) " +
-                    "VALUES ('Heavy Fog', 3.0, 135, 2.5, 'FOGGY')");
-            statement.execute("INSERT INTO weather_presets (name, wind_speed, wind_direction, visibility, condition) " +
-                    "VALUES ('Winter Storm', 15.0, 315, 5.0, 'SNOWY')");
-            statement.execute("INSERT INTO weather_presets (name, wind_speed, wind_direction, visibility, condition) " +
-                    "VALUES ('Summer Storm', 25.0, 225, 4.0, 'THUNDERSTORM')");
-
-            System.out.println("Default weather presets added successfully.");
-        } catch (SQLException e) {
-            System.err.println("Error populating weather presets: " + e.getMessage());
-            e.printStackTrace();
+    // Close database connection
+    @Override
+    public void shutdown() {
+        if (dataSource != null) {
+            dataSource.close();
+            dataSource = null;
+            System.out.println("Database connection closed.");
         }
     }
 
     // Get all weather presets from the database
-    public List<Map<String, Object>> getAllWeatherPresets() {
-        List<Map<String, Object>> presets = new ArrayList<>();
-
-        try (Statement statement = connection.createStatement();
-             ResultSet resultSet = statement.executeQuery("SELECT * FROM weather_presets ORDER BY name")) {
-
-            while (resultSet.next()) {
-                Map<String, Object> preset = new HashMap<>();
-                preset.put("id", resultSet.getInt("id"));
-                preset.put("name", resultSet.getString("name"));
-                preset.put("windSpeed", resultSet.getDouble("wind_speed"));
-                preset.put("windDirection", resultSet.getInt("wind_direction"));
-                preset.put("visibility", resultSet.getDouble("visibility"));
-                preset.put("condition", resultSet.getString("condition"));
-                presets.add(preset);
-            }
+    @Override
+    public List<WeatherPreset> getAllWeatherPresets() {
+        try {
+            return queryList("SELECT * FROM weather_presets ORDER BY name", RowMappers.WEATHER_PRESET);
         } catch (SQLException e) {
             System.err.println("Error retrieving weather presets: " + e.getMessage());
             e.printStackTrace();
+            return new ArrayList<>();
         }
-
-        return presets;
     }
 
     // Get weather preset by name
-    public Map<String, Object> getWeatherPresetByName(String name) {
-        try (PreparedStatement statement = connection.prepareStatement(
-                "SELECT * FROM weather_presets WHERE name = ?")) {
-
-            statement.setString(1, name);
-            ResultSet resultSet = statement.executeQuery();
-
-            if (resultSet.next()) {
-                Map<String, Object> preset = new HashMap<>();
-                preset.put("id", resultSet.getInt("id"));
-                preset.put("name", resultSet.getString("name"));
-                preset.put("windSpeed", resultSet.getDouble("wind_speed"));
-                preset.put("windDirection", resultSet.getInt("wind_direction"));
-                preset.put("visibility", resultSet.getDouble("visibility"));
-                preset.put("condition", resultSet.getString("condition"));
-                return preset;
-            }
-
-            resultSet.close();
+    @Override
+    public WeatherPreset getWeatherPresetByName(String name) {
+        try {
+            return queryOne("SELECT * FROM weather_presets WHERE name = ?", RowMappers.WEATHER_PRESET, name);
         } catch (SQLException e) {
             System.err.println("Error retrieving weather preset by name: " + e.getMessage());
             e.printStackTrace();
+            return null;
         }
-
-        return null;
     }
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.skyflow.controller;
+
+import com.skyflow.model.Flight;
+
+// Notified when a flight's state or runway assignment changes, or when it leaves the system.
+// Called on the thread doing the change (usually the scheduling tick), so implementations must be cheap.
+public interface FlightChangeListener {
+    FlightChangeListener NONE = new FlightChangeListener() {
+        @Override
+        public void flightChanged(Flight flight) {
+        }
+
+        @Override
+        public void flightRemoved(Flight flight) {
+        }
+    };
+
+    void flightChanged(Flight flight);
+
+    void flightRemoved(Flight flight);
+}
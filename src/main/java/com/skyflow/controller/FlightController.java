@@ -1,22 +1,41 @@
 package com.skyflow.controller;
 
 import com.skyflow.model.Flight;
+import com.skyflow.model.FlightId;
+import com.skyflow.model.FlightSpec;
+import com.skyflow.model.ScheduleClock;
 import com.skyflow.service.DatabaseService;
+import com.skyflow.util.FlightIndex;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
+import java.util.Set;
 
 public class FlightController {
-    private List<Flight> flights;
+    private ArrayList<Flight> flights;
+    private FlightIndex flightsById;
+    private Map<String, Flight> flightsByIcao24;
     private SchedulingController schedulingController;
     private DatabaseService databaseService;
+    private FlightChangeListener changeListener = FlightChangeListener.NONE;
+    private CommandLog commandLog = CommandLog.NONE;
+    private CompletedFlightSink completedFlightSink = CompletedFlightSink.NONE;
+
+    // How long a flight stays in the live set after its slot, so it is still visible right after landing or takeoff
+    public static final Duration COMPLETION_GRACE = Duration.ofMinutes(5);
 
     // Constructor with database service
     public FlightController(SchedulingController schedulingController, DatabaseService databaseService) {
         this.flights = new ArrayList<>();
+        this.flightsById = new FlightIndex();
+        this.flightsByIcao24 = new HashMap<>();
         this.schedulingController = schedulingController;
         this.databaseService = databaseService;
     }
@@ -27,20 +46,246 @@ public class FlightController {
                                Flight.FlightType type,
                                LocalDateTime scheduledTime,
                                Flight.EmergencyStatus emergencyStatus) {
-        // Generate a unique ID for the flight
-        String id = UUID.randomUUID().toString();
+        return ScheduleClock.call(() -> {
+            // Create new flight with the next id for this node
+            Flight flight = new Flight(FlightId.next(), flightNumber, airline, aircraft,
+                    category, type, scheduledTime, emergencyStatus);
+            commandLog.flightCreated(flight);
 
-        // Create new flight
-        Flight flight = new Flight(id, flightNumber, airline, aircraft,
-                category, type, scheduledTime, emergencyStatus);
+            addFlight(flight);
+            return flight;
+        });
+    }
 
+    // Add a flight that was built elsewhere (e.g. replayed from the journal) with its id already set
+    public void addFlight(Flight flight) {
         // Add to local list
         flights.add(flight);
+        flightsById.put(flight);
+        if (flight.getIcao24() != null) {
+            flightsByIcao24.put(flight.getIcao24(), flight);
+        }
+        changeListener.flightChanged(flight);
 
         // Add to scheduling queue
         schedulingController.addFlight(flight);
+    }
+
+    // Create a batch of flights (day-schedule loads, feed bursts) with one queue rebuild and one scheduling pass.
+    // Specs carrying an icao24 that is already known update that flight in place instead of adding a duplicate.
+    public List<Flight> createFlights(Collection<FlightSpec> specs) {
+        List<Flight> result = new ArrayList<>(specs.size());
+        if (specs.isEmpty()) {
+            return result;
+        }
+
+        return ScheduleClock.call(() -> createFlightBatch(specs, result));
+    }
+
+    private List<Flight> createFlightBatch(Collection<FlightSpec> specs, List<Flight> result) {
+        // Size the list and id index up front (each only grows when it is short); the icao24 map grows as usual
+        flights.ensureCapacity(flights.size() + specs.size());
+        flightsById.ensureCapacity(flightsById.size() + specs.size());
+
+        List<Flight> created = new ArrayList<>();
+        Set<Flight> touched = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Flight> updated = new ArrayList<>();
+
+        for (FlightSpec spec : specs) {
+            Flight existing = spec.icao24() != null ? flightsByIcao24.get(spec.icao24()) : null;
 
-        return flight;
+            if (existing != null) {
+                // Same aircraft seen again: refresh its time, which also recalculates its priority
+                existing.setScheduledTime(spec.scheduledTime());
+                if (touched.add(existing)) {
+                    updated.add(existing);
+                    result.add(existing);
+                }
+                continue;
+            }
+
+            Flight flight = new Flight(FlightId.next(), spec.flightNumber(), spec.airline(), spec.aircraft(),
+                    spec.category(), spec.type(), spec.scheduledTime(), spec.emergencyStatus());
+            flight.setFuelLevel(spec.fuelLevel());
+            flight.setIcao24(spec.icao24());
+
+            created.add(flight);
+            touched.add(flight);
+            result.add(flight);
+            flightsById.put(flight);
+            if (spec.icao24() != null) {
+                flightsByIcao24.put(spec.icao24(), flight);
+            }
+        }
+
+        commandLog.flightsCreated(created, updated);
+        commitBatch(created, updated);
+        return result;
+    }
+
+    // Apply a batch replayed from the journal: updated flights already carry their new scheduled times
+    public void replayFlightBatch(List<Flight> created, List<Flight> updated) {
+        flights.ensureCapacity(flights.size() + created.size());
+        flightsById.ensureCapacity(flightsById.size() + created.size());
+        for (Flight flight : created) {
+            flightsById.put(flight);
+            if (flight.getIcao24() != null) {
+                flightsByIcao24.put(flight.getIcao24(), flight);
+            }
+        }
+        commitBatch(created, updated);
+    }
+
+    private void commitBatch(List<Flight> created, List<Flight> updated) {
+        flights.addAll(created);
+        created.forEach(changeListener::flightChanged);
+        updated.forEach(changeListener::flightChanged);
+
+        // Heapify new flights into the queue, re-prioritise updated ones, and schedule once
+        if (!created.isEmpty()) {
+            schedulingController.addFlights(created);
+        }
+        if (!updated.isEmpty()) {
+            schedulingController.requeueFlights(updated);
+        }
+        schedulingController.scheduleFlights();
+    }
+
+    // Put back flights loaded from persistent storage (no change notifications - they are already stored)
+    public void restoreFlights(List<Flight> restored) {
+        if (restored.isEmpty()) {
+            return;
+        }
+
+        flights.ensureCapacity(flights.size() + restored.size());
+        flightsById.ensureCapacity(flightsById.size() + restored.size());
+        for (Flight flight : restored) {
+            flights.add(flight);
+            flightsById.put(flight);
+            if (flight.getIcao24() != null) {
+                flightsByIcao24.put(flight.getIcao24(), flight);
+            }
+        }
+
+        schedulingController.addFlights(restored);
+    }
+
+    // Replace all flights with a saved set (journal snapshots); the scheduler is restored separately
+    public void resetFlights(List<Flight> restored) {
+        Set<Flight> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+        kept.addAll(restored);
+        for (Flight flight : flights) {
+            if (!kept.contains(flight)) {
+                flight.release();
+            }
+        }
+
+        flights = new ArrayList<>(restored);
+        flightsById = new FlightIndex(restored.size());
+        flightsByIcao24 = new HashMap<>();
+        for (Flight flight : restored) {
+            flightsById.put(flight);
+            if (flight.getIcao24() != null) {
+                flightsByIcao24.put(flight.getIcao24(), flight);
+            }
+        }
+    }
+
+    // Receive creation, update and removal of flights (e.g. for persistence)
+    public void setChangeListener(FlightChangeListener changeListener) {
+        this.changeListener = changeListener != null ? changeListener : FlightChangeListener.NONE;
+    }
+
+    // Receive every state-changing command (e.g. for the journal)
+    public void setCommandLog(CommandLog commandLog) {
+        this.commandLog = commandLog != null ? commandLog : CommandLog.NONE;
+    }
+
+    // Receive flights as they complete (e.g. for the archive)
+    public void setCompletedFlightSink(CompletedFlightSink completedFlightSink) {
+        this.completedFlightSink = completedFlightSink != null ? completedFlightSink : CompletedFlightSink.NONE;
+    }
+
+    // Retire every ACTIVE flight whose slot is more than COMPLETION_GRACE in the past; returns them
+    public List<Flight> archiveCompletedFlights() {
+        return ScheduleClock.call(() -> {
+            LocalDateTime cutoff = ScheduleClock.now().minus(COMPLETION_GRACE);
+            List<Flight> completed = new ArrayList<>();
+            for (Flight flight : flights) {
+                if (flight.getStatus() == Flight.Status.ACTIVE && flight.getActualTime() != null
+                        && flight.getActualTime().isBefore(cutoff)) {
+                    completed.add(flight);
+                }
+            }
+
+            if (!completed.isEmpty()) {
+                commandLog.flightsCompleted(completed);
+                completeFlights(completed);
+            }
+            return completed;
+        });
+    }
+
+    // Mark flights COMPLETED, hand them to the sink and drop them from this controller and the scheduler
+    // (also used when replaying the journal, which records which flights completed)
+    public void completeFlights(List<Flight> completed) {
+        Set<Flight> completedSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        completedSet.addAll(completed);
+
+        for (Flight flight : completed) {
+            flight.markCompleted();
+            flightsById.remove(flight);
+            if (flight.getIcao24() != null) {
+                flightsByIcao24.remove(flight.getIcao24(), flight);
+            }
+            changeListener.flightRemoved(flight);
+        }
+        flights.removeIf(completedSet::contains);
+        schedulingController.removeFlights(completedSet);
+        completedFlightSink.flightsCompleted(completed);
+        releaseAll(completed);
+    }
+
+    // Remove imported flights that disappeared from the feed, from both this controller and the scheduler
+    public List<Flight> removeFlightsByIcao24(Collection<String> icao24s) {
+        return ScheduleClock.call(() -> {
+            commandLog.flightsRemoved(icao24s);
+            return removeByIcao24(icao24s);
+        });
+    }
+
+    private List<Flight> removeByIcao24(Collection<String> icao24s) {
+        List<Flight> removed = new ArrayList<>(icao24s.size());
+        for (String icao24 : icao24s) {
+            Flight flight = flightsByIcao24.remove(icao24);
+            if (flight != null) {
+                flightsById.remove(flight);
+                removed.add(flight);
+                changeListener.flightRemoved(flight);
+            }
+        }
+
+        if (!removed.isEmpty()) {
+            Set<Flight> removedSet = Collections.newSetFromMap(new IdentityHashMap<>());
+            removedSet.addAll(removed);
+            flights.removeIf(removedSet::contains);
+            schedulingController.removeFlights(removedSet);
+            releaseAll(removed);
+        }
+
+        return removed;
+    }
+
+    // Return the store rows of flights that have left the system
+    private static void releaseAll(Collection<Flight> gone) {
+        for (Flight flight : gone) {
+            flight.release();
+        }
+    }
+
+    // Get the imported flight for an OpenSky icao24 address
+    public Flight getFlightByIcao24(String icao24) {
+        return flightsByIcao24.get(icao24);
     }
 
 
@@ -51,35 +296,55 @@ public class FlightController {
         schedulingController.scheduleFlights();
     }
 
-    // Delete a flight
+    // Delete a flight from this controller and the scheduler, and give back its store row
     public void deleteFlight(Flight flight) {
-        flights.remove(flight);
+        ScheduleClock.during(() -> {
+            commandLog.flightDeleted(flight);
+            if (!flights.remove(flight)) {
+                return;
+            }
+            flightsById.remove(flight);
+            if (flight.getIcao24() != null) {
+                flightsByIcao24.remove(flight.getIcao24(), flight);
+            }
+            changeListener.flightRemoved(flight);
+            schedulingController.removeFlights(List.of(flight));
+            flight.release();
+        });
     }
 
     // Set emergency status for a flight
     public void setEmergencyStatus(Flight flight, Flight.EmergencyStatus status) {
-        flight.setEmergencyStatus(status);
+        ScheduleClock.during(() -> {
+            commandLog.emergencyStatusChanged(flight, status);
+            flight.setEmergencyStatus(status);
+            changeListener.flightChanged(flight);
 
-        // Update flight
-        updateFlight(flight);
+            // Update flight
+            updateFlight(flight);
 
-        // If setting to emergency, trigger immediate rescheduling
-        if (status != Flight.EmergencyStatus.NONE) {
-            schedulingController.scheduleFlights();
-        }
+            // If setting to emergency, trigger immediate rescheduling
+            if (status != Flight.EmergencyStatus.NONE) {
+                schedulingController.scheduleFlights();
+            }
+        });
     }
 
     // Update fuel level for a flight
     public void updateFuelLevel(Flight flight, int fuelLevel) {
-        flight.setFuelLevel(fuelLevel);
+        ScheduleClock.during(() -> {
+            commandLog.fuelLevelChanged(flight, fuelLevel);
+            flight.setFuelLevel(fuelLevel);
+            changeListener.flightChanged(flight);
 
-        // Update flight
-        updateFlight(flight);
+            // Update flight
+            updateFlight(flight);
 
-        // Low fuel might change priority significantly
-        if (fuelLevel < 20) {
-            schedulingController.scheduleFlights();
-        }
+            // Low fuel might change priority significantly
+            if (fuelLevel < 20) {
+                schedulingController.scheduleFlights();
+            }
+        });
     }
 
     // Get all flights
@@ -89,16 +354,19 @@ public class FlightController {
 
     // Get flight by ID
     public Flight getFlightById(String id) {
-        for (Flight flight : flights) {
-            if (flight.getId().equals(id)) {
-                return flight;
-            }
-        }
-        return null;
+        return flightsById.get(id);
+    }
+
+    public Flight getFlightByKey(long key) {
+        return flightsById.get(key);
     }
 
     public DatabaseService getDatabaseService() {
         return this.databaseService;
     }
 
+    public SchedulingController getSchedulingController() {
+        return this.schedulingController;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.skyflow.controller;
+
+import com.skyflow.model.Flight;
+import com.skyflow.model.FlightSnapshot;
+import com.skyflow.model.Runway;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+// Operational flight state: flights with their runway assignments, written behind by FlightPersistence
+public interface FlightRepository {
+    // Write changed flights and their runway assignments, then delete removed flights (a removal wins over a
+    // change to the same flight), all or nothing
+    void saveFlights(Collection<FlightSnapshot> changed, Collection<String> removedIds) throws SQLException;
+
+    // Every stored flight; runway ids are resolved against the given runways
+    List<Flight> loadFlights(Map<String, Runway> runwaysById);
+}
@@ -0,0 +1,200 @@
+package com.skyflow.controller;
+
+import com.skyflow.model.AircraftType;
+import com.skyflow.model.Airline;
+import com.skyflow.model.Flight;
+import com.skyflow.model.FlightSnapshot;
+import com.skyflow.model.Runway;
+import com.skyflow.model.Weather;
+import com.skyflow.model.WeatherPreset;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+// Heap-only repository with the same behaviour as the SQLite one: it starts with the default weather presets
+// and no airlines, aircraft or flights, and everything is gone when the process exits. No disk I/O, and no
+// database file shared between runs, so simulations can run side by side.
+public class InMemoryRepository implements Repository {
+    private final Map<String, Airline> airlines = new HashMap<>();
+    private final Map<String, AircraftType> aircraft = new HashMap<>();
+    private final Map<String, WeatherPreset> weatherPresets = new HashMap<>();
+    // Flights as they were when saved; loading builds a fresh Flight, like reading the row back from SQLite
+    private final Map<String, FlightSnapshot> flights = new LinkedHashMap<>();
+    private long referenceVersion = 1;
+    private int nextAircraftId = 1;
+
+    // Constructor
+    public InMemoryRepository() {
+        // Same presets as schema migration 3
+        addPreset("Clear Day", 5.0, 90, 25.0, Weather.WeatherCondition.SUNNY);
+        addPreset("Light Breeze", 10.0, 180, 20.0, Weather.WeatherCondition.SUNNY);
+        addPreset("Cloudy Morning", 7.5, 270, 15.0, Weather.WeatherCondition.CLOUDY);
+        addPreset("Rainy Afternoon", 12.0, 45, 8.0, Weather.WeatherCondition.RAINY);
+        addPreset("Heavy Fog", 3.0, 135, 2.5, Weather.WeatherCondition.FOGGY);
+        addPreset("Winter Storm", 15.0, 315, 5.0, Weather.WeatherCondition.SNOWY);
+        addPreset("Summer Storm", 25.0, 225, 4.0, Weather.WeatherCondition.THUNDERSTORM);
+        System.out.println("Using in-memory repository; nothing will be saved to disk.");
+    }
+
+    private void addPreset(String name, double windSpeed, int windDirection, double visibility,
+                           Weather.WeatherCondition condition) {
+        weatherPresets.put(name, new WeatherPreset(weatherPresets.size() + 1, name, windSpeed, windDirection,
+                visibility, condition));
+    }
+
+    @Override
+    public synchronized long getReferenceDataVersion() {
+        return referenceVersion;
+    }
+
+    @Override
+    public synchronized List<Airline> getAllAirlines() {
+        return sorted(airlines.values(), Comparator.comparing(Airline::name));
+    }
+
+    @Override
+    public synchronized Airline getAirlineByCode(String code) {
+        return airlines.get(code);
+    }
+
+    @Override
+    public synchronized Airline getAirlineByName(String name) {
+        for (Airline airline : airlines.values()) {
+            if (airline.name().equals(name)) {
+                return airline;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public synchronized Map<String, Airline> getAirlinesByCodes(Collection<String> codes) {
+        return pick(airlines, codes);
+    }
+
+    @Override
+    public synchronized List<AircraftType> getAllAircraft() {
+        return sorted(aircraft.values(), Comparator.comparing(AircraftType::name));
+    }
+
+    @Override
+    public synchronized AircraftType getAircraftByName(String name) {
+        return aircraft.get(name);
+    }
+
+    @Override
+    public synchronized Map<String, AircraftType> getAircraftByNames(Collection<String> names) {
+        return pick(aircraft, names);
+    }
+
+    @Override
+    public synchronized List<AircraftType> getAircraftByCategory(Flight.WakeTurbulenceCategory category) {
+        List<AircraftType> matching = new ArrayList<>();
+        for (AircraftType type : aircraft.values()) {
+            if (type.turbulenceCategory() == category) {
+                matching.add(type);
+            }
+        }
+        return sorted(matching, Comparator.comparing(AircraftType::name));
+    }
+
+    @Override
+    public synchronized List<WeatherPreset> getAllWeatherPresets() {
+        return sorted(weatherPresets.values(), Comparator.comparing(WeatherPreset::name));
+    }
+
+    @Override
+    public synchronized WeatherPreset getWeatherPresetByName(String name) {
+        return weatherPresets.get(name);
+    }
+
+    @Override
+    public synchronized int upsertAirlines(List<Airline> airlineList, IntConsumer progress) {
+        for (Airline airline : airlineList) {
+            airlines.put(airline.icaoCode(), airline);
+        }
+        referenceVersion++;
+        progress.accept(airlineList.size());
+        return airlineList.size();
+    }
+
+    // Existing names keep their id, new ones get the next id, as with SQLite's autoincrement key.
+    // Types without a name or wake category are skipped, as the database does.
+    @Override
+    public synchronized int upsertAircraft(List<AircraftType> aircraftTypes, IntConsumer progress) {
+        int written = 0;
+        for (AircraftType type : aircraftTypes) {
+            if (type.name() == null || type.turbulenceCategory() == null) {
+                continue;
+            }
+            written++;
+            AircraftType existing = aircraft.get(type.name());
+            int id = existing != null ? existing.id() : nextAircraftId++;
+            aircraft.put(type.name(), new AircraftType(id, type.name(), type.fuelCapacity(), type.weight(),
+                    type.aircraftType(), type.turbulenceCategory()));
+        }
+        referenceVersion++;
+        progress.accept(written);
+        return written;
+    }
+
+    @Override
+    public boolean isPersistent() {
+        return false;
+    }
+
+    @Override
+    public synchronized void saveFlights(Collection<FlightSnapshot> changed, Collection<String> removedIds) {
+        for (FlightSnapshot flight : changed) {
+            flights.put(flight.id(), flight);
+        }
+        for (String id : removedIds) {
+            flights.remove(id);
+        }
+    }
+
+    @Override
+    public synchronized List<Flight> loadFlights(Map<String, Runway> runwaysById) {
+        List<Flight> loaded = new ArrayList<>(flights.size());
+        for (FlightSnapshot stored : flights.values()) {
+            Flight flight = new Flight(stored.id(), stored.flightNumber(), stored.airline(), stored.aircraft(),
+                    stored.category(), stored.type(), stored.scheduledTime(), stored.emergencyStatus());
+            flight.setFuelLevel(stored.fuelLevel());
+            flight.setIcao24(stored.icao24());
+            if (stored.runwayId() != null) {
+                flight.setAssignedRunway(runwaysById.get(stored.runwayId()));
+                flight.setActualTime(stored.actualTime());
+            }
+            loaded.add(flight);
+        }
+        return loaded;
+    }
+
+    @Override
+    public synchronized void shutdown() {
+        flights.clear();
+    }
+
+    private static <T> List<T> sorted(Collection<T> values, Comparator<T> order) {
+        List<T> list = new ArrayList<>(values);
+        list.sort(order);
+        return list;
+    }
+
+    private static <T> Map<String, T> pick(Map<String, T> source, Collection<String> keys) {
+        Map<String, T> found = new HashMap<>();
+        for (String key : keys) {
+            T value = source.get(key);
+            if (value != null) {
+                found.put(key, value);
+            }
+        }
+        return found;
+    }
+}
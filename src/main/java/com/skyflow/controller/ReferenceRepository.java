@@ -0,0 +1,55 @@
+package com.skyflow.controller;
+
+import com.skyflow.model.AircraftType;
+import com.skyflow.model.Airline;
+import com.skyflow.model.Flight;
+import com.skyflow.model.WeatherPreset;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+// Airlines, aircraft types and weather presets. Lists come back ordered by name; lookups return null
+// (or leave the key out of the map) for unknown keys. The airline-by-code and aircraft-by-name lookups throw
+// RepositoryException when the store cannot be read, so a failure is never mistaken for an unknown key.
+public interface ReferenceRepository {
+    // Changes whenever any reference table changes, or -1 if it cannot be read
+    long getReferenceDataVersion();
+
+    List<Airline> getAllAirlines();
+
+    Airline getAirlineByCode(String code);
+
+    Airline getAirlineByName(String name);
+
+    Map<String, Airline> getAirlinesByCodes(Collection<String> codes);
+
+    List<AircraftType> getAllAircraft();
+
+    AircraftType getAircraftByName(String name);
+
+    Map<String, AircraftType> getAircraftByNames(Collection<String> names);
+
+    List<AircraftType> getAircraftByCategory(Flight.WakeTurbulenceCategory category);
+
+    List<WeatherPreset> getAllWeatherPresets();
+
+    WeatherPreset getWeatherPresetByName(String name);
+
+    // Insert or update by key; progress receives the running row count
+    int upsertAirlines(List<Airline> airlines, IntConsumer progress) throws SQLException;
+
+    int upsertAircraft(List<AircraftType> aircraftTypes, IntConsumer progress) throws SQLException;
+
+    // False when the data lives only as long as this process, so copies of it must not be cached on disk
+    default boolean isPersistent() {
+        return true;
+    }
+
+    // Where the data is stored (e.g. the database file), so copies cached on disk can tell databases apart
+    default String getStorageId() {
+        return null;
+    }
+}
@@ -0,0 +1,23 @@
+package com.skyflow.controller;
+
+// Everything SkyFlow stores, behind one backend chosen at startup with -Dskyflow.repository:
+// "sqlite" (the default) uses the database file named by -Dskyflow.db.file (default skyflow.db),
+// "memory" keeps everything on the heap, for simulations and benchmarks that must not touch the disk.
+public interface Repository extends ReferenceRepository, FlightRepository {
+    String SQLITE = "sqlite";
+    String MEMORY = "memory";
+
+    // Release connections and files; the repository cannot be used afterwards
+    void shutdown();
+
+    static Repository fromSystemProperties() {
+        String backend = System.getProperty("skyflow.repository", SQLITE);
+        if (backend.equalsIgnoreCase(MEMORY)) {
+            return new InMemoryRepository();
+        }
+        if (!backend.equalsIgnoreCase(SQLITE)) {
+            System.err.println("Unknown repository '" + backend + "', using " + SQLITE);
+        }
+        return new DatabaseController(System.getProperty("skyflow.db.file", DatabaseController.DEFAULT_DB_FILE));
+    }
+}
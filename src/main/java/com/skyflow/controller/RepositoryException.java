@@ -0,0 +1,8 @@
+package com.skyflow.controller;
+
+// A repository lookup failed (the store could not be read), as opposed to finding nothing
+public class RepositoryException extends RuntimeException {
+    public RepositoryException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,10 @@
+package com.skyflow.controller;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// Builds one object from the current row of a ResultSet
+@FunctionalInterface
+public interface RowMapper<T> {
+    T map(ResultSet resultSet) throws SQLException;
+}
@@ -0,0 +1,64 @@
+package com.skyflow.controller;
+
+import com.skyflow.model.AircraftType;
+import com.skyflow.model.Airline;
+import com.skyflow.model.Flight;
+import com.skyflow.model.Weather;
+import com.skyflow.model.WeatherPreset;
+
+import java.time.LocalDateTime;
+
+// Row mappers for the reference tables - each fills a record straight from the ResultSet columns
+public final class RowMappers {
+    public static final RowMapper<Airline> AIRLINE = resultSet -> new Airline(
+            resultSet.getString("icao_code"),
+            resultSet.getString("airline_name"));
+
+    public static final RowMapper<AircraftType> AIRCRAFT_TYPE = resultSet -> new AircraftType(
+            resultSet.getInt("id"),
+            resultSet.getString("name"),
+            resultSet.getInt("fuel_capacity"),
+            resultSet.getInt("weight"),
+            resultSet.getString("aircraft_type"),
+            turbulenceCategory(resultSet.getString("turbulence_category")));
+
+    public static final RowMapper<WeatherPreset> WEATHER_PRESET = resultSet -> new WeatherPreset(
+            resultSet.getInt("id"),
+            resultSet.getString("name"),
+            resultSet.getDouble("wind_speed"),
+            resultSet.getInt("wind_direction"),
+            resultSet.getDouble("visibility"),
+            Weather.WeatherCondition.valueOf(resultSet.getString("condition")));
+
+    // Stored flight without its runway assignment (see DatabaseController.loadFlights)
+    public static final RowMapper<Flight> FLIGHT = resultSet -> {
+        Flight flight = new Flight(
+                resultSet.getString("id"),
+                resultSet.getString("flight_number"),
+                resultSet.getString("airline"),
+                resultSet.getString("aircraft"),
+                Flight.WakeTurbulenceCategory.valueOf(resultSet.getString("category")),
+                Flight.FlightType.valueOf(resultSet.getString("type")),
+                LocalDateTime.parse(resultSet.getString("scheduled_time")),
+                Flight.EmergencyStatus.valueOf(resultSet.getString("emergency_status")));
+        flight.setFuelLevel(resultSet.getInt("fuel_level"));
+        flight.setIcao24(resultSet.getString("icao24"));
+        return flight;
+    };
+
+    private RowMappers() {
+    }
+
+    // Parse a stored turbulence category; unknown or empty values map to null
+    public static Flight.WakeTurbulenceCategory turbulenceCategory(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return Flight.WakeTurbulenceCategory.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid turbulence category in database: " + value);
+            return null;
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package com.skyflow.controller;
 
 import com.skyflow.model.Runway;
+import com.skyflow.model.ScheduleClock;
+
 import java.util.ArrayList;
 import java.util.List;
 
 public class RunwayController {
     private List<Runway> runways;
     private SchedulingController schedulingController;
+    private CommandLog commandLog = CommandLog.NONE;
 
     // Constructor
     public RunwayController(SchedulingController schedulingController) {
@@ -34,16 +37,19 @@ public class RunwayController {
 
     // Create a new runway and add it to the system
     public Runway createRunway(String id, int heading, int length) {
-        // Create new runway
-        Runway runway = new Runway(id, heading, length);
+        return ScheduleClock.call(() -> {
+            // Create new runway
+            Runway runway = new Runway(id, heading, length);
+            commandLog.runwayCreated(runway);
 
-        // Add to local list
-        runways.add(runway);
+            // Add to local list
+            runways.add(runway);
 
-        // Add to scheduling controller
-        schedulingController.addRunway(runway);
+            // Add to scheduling controller
+            schedulingController.addRunway(runway);
 
-        return runway;
+            return runway;
+        });
     }
 
     // Update an existing runway
@@ -54,18 +60,34 @@ public class RunwayController {
 
     // Delete a runway
     public void deleteRunway(Runway runway) {
-        runways.remove(runway);
+        ScheduleClock.during(() -> {
+            commandLog.runwayDeleted(runway);
+            runways.remove(runway);
+        });
     }
 
     // Activate or deactivate a runway
     public void setRunwayActive(Runway runway, boolean active) {
-        runway.setActive(active);
+        ScheduleClock.during(() -> {
+            commandLog.runwayActiveChanged(runway, active);
+            runway.setActive(active);
 
-        // Update runway
-        updateRunway(runway);
+            // Update runway
+            updateRunway(runway);
 
-        // Trigger rescheduling as runway availability changed
-        schedulingController.scheduleFlights();
+            // Trigger rescheduling as runway availability changed
+            schedulingController.scheduleFlights();
+        });
+    }
+
+    // Replace the runway list with a saved one (journal snapshots)
+    public void restoreRunways(List<Runway> restored) {
+        runways = new ArrayList<>(restored);
+    }
+
+    // Receive every state-changing command (e.g. for the journal)
+    public void setCommandLog(CommandLog commandLog) {
+        this.commandLog = commandLog != null ? commandLog : CommandLog.NONE;
     }
 
     // Get all runways
@@ -1,25 +1,30 @@
 package com.skyflow.controller;
 
 import com.skyflow.model.*;
-import com.skyflow.util.FlightComparator;
+import com.skyflow.util.FlightPriorityQueue;
+import com.skyflow.util.LongHashSet;
 
 import java.time.LocalDateTime;
 import java.time.Duration;
 import java.util.*;
 
 public class SchedulingController {
-    private PriorityQueue<Flight> flightQueue;
+    private FlightPriorityQueue flightQueue;
     private List<Flight> scheduledFlights;
     private List<Runway> runways;
     private Weather currentWeather;
     private SafetySeparation safetyMatrix;
+    private List<ProximityAlert> proximityAlerts;
+    private FlightChangeListener changeListener = FlightChangeListener.NONE;
+    private CommandLog commandLog = CommandLog.NONE;
 
     // Constructor
     public SchedulingController() {
-        this.flightQueue = new PriorityQueue<>(new FlightComparator());
+        this.flightQueue = new FlightPriorityQueue();
         this.scheduledFlights = new ArrayList<>();
         this.runways = new ArrayList<>();
         this.safetyMatrix = new SafetySeparation();
+        this.proximityAlerts = new ArrayList<>();
 
         // Initialize with default weather
         this.currentWeather = new Weather(
@@ -31,6 +36,39 @@ public class SchedulingController {
         flightQueue.offer(flight);
     }
 
+    // Add a batch of flights to the scheduling queue with a single heap rebuild
+    public void addFlights(Collection<Flight> flights) {
+        flightQueue.addAll(flights);
+    }
+
+    // Re-prioritise flights whose times or state changed in place: pull them out of the queue and
+    // the current schedule, then put them back as one batch so the next pass places them again
+    public void requeueFlights(Collection<Flight> flights) {
+        // Insertion-ordered (Flight has identity equality) so the requeue order - and the schedule - is repeatable
+        Set<Flight> changed = new LinkedHashSet<>();
+        changed.addAll(flights);
+
+        flightQueue.removeAll(changed);
+        scheduledFlights.removeIf(changed::contains);
+
+        // Their old slots are stale, so release them and let the next pass place them from scratch
+        for (Flight flight : changed) {
+            flight.setAssignedRunway(null);
+            flight.updatePriority();
+            changeListener.flightChanged(flight);
+        }
+        flightQueue.addAll(changed);
+    }
+
+    // Drop flights from the queue and the current schedule
+    public void removeFlights(Collection<Flight> flights) {
+        Set<Flight> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+        removed.addAll(flights);
+
+        flightQueue.removeAll(removed);
+        scheduledFlights.removeIf(removed::contains);
+    }
+
     // Add a runway to the available runways
     public void addRunway(Runway runway) {
         runways.add(runway);
@@ -51,15 +89,44 @@ public class SchedulingController {
         return timeDifference > 30;
     }
 
+    // Receive every runway assignment change (e.g. for persistence)
+    public void setChangeListener(FlightChangeListener changeListener) {
+        this.changeListener = changeListener != null ? changeListener : FlightChangeListener.NONE;
+    }
+
+    // Receive every scheduling pass and reset (e.g. for the journal)
+    public void setCommandLog(CommandLog commandLog) {
+        this.commandLog = commandLog != null ? commandLog : CommandLog.NONE;
+    }
+
+    // Replace the airborne proximity alerts published alongside the schedule
+    public void updateProximityAlerts(List<ProximityAlert> alerts) {
+        this.proximityAlerts = new ArrayList<>(alerts);
+    }
+
+    public List<ProximityAlert> getProximityAlerts() {
+        return new ArrayList<>(proximityAlerts);
+    }
+
     public List<Flight> scheduleFlights() {
         // prevent unnecessary rescheduling
         if (flightQueue.isEmpty()) {
             return new ArrayList<>(scheduledFlights);
         }
 
-        Set<String> processedFlightIds = new HashSet<>();
-        PriorityQueue<Flight> workingQueue = new PriorityQueue<>(new FlightComparator());
-        workingQueue.addAll(flightQueue);
+        // One pinned time for the whole pass, shared with the command that triggered it (if any)
+        try (ScheduleClock.Tick tick = ScheduleClock.tick()) {
+            List<Flight> schedule = runSchedulingPass();
+            commandLog.schedulePassed(schedule, tick.isNested());
+            return schedule;
+        }
+    }
+
+    private List<Flight> runSchedulingPass() {
+        LongHashSet processedFlightIds = new LongHashSet(flightQueue.size());
+        // Priorities may have drifted since the flights were queued, so copy and re-heapify once
+        FlightPriorityQueue workingQueue = new FlightPriorityQueue(flightQueue);
+        workingQueue.heapify();
         flightQueue.clear();
 
         List<Flight> unscheduledFlights = new ArrayList<>();
@@ -69,8 +136,7 @@ public class SchedulingController {
             Flight currentFlight = workingQueue.poll();
 
             // process each flight only once
-            if (!processedFlightIds.contains(currentFlight.getId())) {
-                processedFlightIds.add(currentFlight.getId());
+            if (processedFlightIds.add(currentFlight.getKey())) {
 
                 // emergency flights get special handling
                 if (currentFlight.getEmergencyStatus() != Flight.EmergencyStatus.NONE) {
@@ -92,6 +158,7 @@ public class SchedulingController {
 
                         currentFlight.setAssignedRunway(bestRunway);
                         currentFlight.setActualTime(earliestTime);
+                        changeListener.flightChanged(currentFlight);
                         bestRunway.updateNextAvailableTime(
                                 earliestTime,
                                 currentFlight.getCategory(),
@@ -135,7 +202,7 @@ public class SchedulingController {
 
         if (bestRunway != null) {
             // Get the current time and respect scheduled time if possible
-            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime now = ScheduleClock.now();
             LocalDateTime baseTime = emergency.getScheduledTime();
             if (baseTime.isBefore(now)) {
                 // If scheduled time is in the past, use now
@@ -213,6 +280,7 @@ public class SchedulingController {
                     newTime = newTime.plusSeconds(30);
 
                     conflict.setActualTime(newTime);
+                    changeListener.flightChanged(conflict);
 
                     // Update runway's next available time
                     alternateRunway.updateNextAvailableTime(
@@ -291,6 +359,7 @@ public class SchedulingController {
             // Assign the runway and time to emergency flight
             emergency.setAssignedRunway(bestRunway);
             emergency.setActualTime(earliestAvailableTime);
+            changeListener.flightChanged(emergency);
 
             // Update runway's next available time
             bestRunway.updateNextAvailableTime(
@@ -309,7 +378,7 @@ public class SchedulingController {
                 Runway anyRunway = runways.get(0);
 
                 // Respect scheduled time if possible
-                LocalDateTime now = LocalDateTime.now();
+                LocalDateTime now = ScheduleClock.now();
                 LocalDateTime baseTime = emergency.getScheduledTime();
                 if (baseTime.isBefore(now)) {
                     // If scheduled time is in the past, use now
@@ -365,6 +434,7 @@ public class SchedulingController {
                 // Assign the runway to emergency flight
                 emergency.setAssignedRunway(anyRunway);
                 emergency.setActualTime(earliestAvailableTime);
+                changeListener.flightChanged(emergency);
 
                 // Update runway's next available time
                 anyRunway.updateNextAvailableTime(
@@ -404,12 +474,7 @@ public class SchedulingController {
 
                 // Add preference for distributing flights across runways
                 // Check how many flights are already assigned to this runway
-                int flightsOnRunway = 0;
-                for (Flight scheduledFlight : scheduledFlights) {
-                    if (scheduledFlight.getAssignedRunway() == runway) {
-                        flightsOnRunway++;
-                    }
-                }
+                int flightsOnRunway = countFlightsOnRunway(runway);
 
                 // Penalize runways with more flights (encourages distribution)
                 score -= flightsOnRunway * 5;
@@ -458,79 +523,69 @@ public class SchedulingController {
         return runwayAvailableTime;
     }
 
-    // Check for conflicts with already scheduled flights on the same runway
+    // Scheduled flights holding a slot on the runway, counted from the store's runway column
+    private int countFlightsOnRunway(Runway runway) {
+        int count = 0;
+        for (Flight scheduledFlight : scheduledFlights) {
+            FlightStore store = scheduledFlight.store();
+            if (store.runwayAt(store.runwayIndexAt(scheduledFlight.slot())) == runway) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Check for conflicts with already scheduled flights on the same runway. This runs for every flight in every
+    // pass, so it compares the store's time and runway columns instead of building LocalDateTimes.
     private List<Flight> checkForConflicts(LocalDateTime proposedTime, Runway runway) {
         List<Flight> conflicts = new ArrayList<>();
+        long proposed = FlightStore.toNanos(proposedTime);
 
         for (Flight scheduledFlight : scheduledFlights) {
-            // Only consider flights on the same runway
-            if (scheduledFlight.getAssignedRunway() == runway) {
-                LocalDateTime scheduledTime = scheduledFlight.getActualTime();
-                boolean conflictFound = false;
-
-                // EXACT time match is always a conflict
-                if (scheduledTime.equals(proposedTime)) {
-                    conflicts.add(scheduledFlight);
-                    conflictFound = true;
-                }
+            FlightStore store = scheduledFlight.store();
+            int slot = scheduledFlight.slot();
 
-                // If no exact time conflict was found, check for separation conflicts
-                if (!conflictFound) {
-                    // Is this a flight with higher priority (emergency)?
-                    boolean isHigherPriority = scheduledFlight.getEmergencyStatus() != Flight.EmergencyStatus.NONE &&
-                            scheduledFlight.getEmergencyStatus().getPriorityLevel() >
-                                    Flight.EmergencyStatus.NONE.getPriorityLevel();
+            // Only consider flights on the same runway
+            if (store.runwayAt(store.runwayIndexAt(slot)) != runway) {
+                continue;
+            }
+            long scheduledTime = store.actualTime(slot);
+            if (scheduledTime == FlightStore.NO_TIME) {
+                continue;
+            }
+            long difference = scheduledTime - proposed;
 
-                    // Check if the time difference is too small
-                    long timeDifferenceSeconds = Math.abs(
-                            Duration.between(proposedTime, scheduledTime).getSeconds()
-                    );
+            // EXACT time match is always a conflict
+            if (difference == 0) {
+                conflicts.add(scheduledFlight);
+                continue;
+            }
 
-                    // Get required separation based on aircraft categories
-                    int requiredSeparation;
+            // Otherwise check for separation conflicts: is the time difference too small? The leading and
+            // following categories are both the scheduled flight's for now.
+            Flight.WakeTurbulenceCategory category = store.category(slot);
+            int requiredSeparation = safetyMatrix.getSeparationTimeSeconds(category, category);
 
-                    // Determine leading and following aircraft based on time
-                    if (scheduledTime.isBefore(proposedTime)) {
-                        // Scheduled flight is leading
-                        requiredSeparation = safetyMatrix.getSeparationTimeSeconds(
-                                scheduledFlight.getCategory(),
-                                scheduledFlight.getCategory() // Using same category as placeholder (will be replaced)
-                        );
-                    } else {
-                        // New flight is leading
-                        requiredSeparation = safetyMatrix.getSeparationTimeSeconds(
-                                scheduledFlight.getCategory(), // Using same category as placeholder (will be replaced)
-                                scheduledFlight.getCategory()
-                        );
-                    }
-
-                    // Adjust for weather conditions
-                    requiredSeparation = (int)(requiredSeparation * currentWeather.getWeatherFactor());
+            // Adjust for weather conditions
+            requiredSeparation = (int)(requiredSeparation * currentWeather.getWeatherFactor());
 
-                    // If time difference is less than required separation, it's a conflict
-                    if (timeDifferenceSeconds < requiredSeparation) {
-                        conflicts.add(scheduledFlight);
-                    }
-                }
+            // Whole seconds, rounded like Duration.getSeconds()
+            long timeDifferenceSeconds = Math.abs(Math.floorDiv(difference, 1_000_000_000L));
+            if (timeDifferenceSeconds < requiredSeparation) {
+                conflicts.add(scheduledFlight);
             }
         }
 
-        // Add special checks to ensure no flights share exact same time
+        // Add special checks to ensure no flights share exact same time: a slot exactly a whole number of
+        // seconds (up to 15) away is a conflict too
         for (Flight scheduledFlight : scheduledFlights) {
-            if (scheduledFlight.getAssignedRunway() == runway &&
-                    scheduledFlight.getActualTime() != null) {
-
-                boolean nearbyConflictFound = false;
-                int i = -15;
-
-                // Check nearby times (+/- 15 seconds)
-                while (i <= 15 && !nearbyConflictFound) {
-                    LocalDateTime nearbyTime = proposedTime.plusSeconds(i);
-                    if (scheduledFlight.getActualTime().equals(nearbyTime)) {
-                        conflicts.add(scheduledFlight);
-                        nearbyConflictFound = true;
-                    }
-                    i++;
+            FlightStore store = scheduledFlight.store();
+            int slot = scheduledFlight.slot();
+            long scheduledTime = store.actualTime(slot);
+            if (store.runwayAt(store.runwayIndexAt(slot)) == runway && scheduledTime != FlightStore.NO_TIME) {
+                long difference = scheduledTime - proposed;
+                if (difference % 1_000_000_000L == 0 && Math.abs(difference / 1_000_000_000L) <= 15) {
+                    conflicts.add(scheduledFlight);
                 }
             }
         }
@@ -593,7 +648,7 @@ public class SchedulingController {
 
         for (Flight flight : scheduledFlights) {
             // Only consider flights in the future (that haven't happened yet)
-            if (flight.getActualTime().isAfter(LocalDateTime.now())) {
+            if (flight.getActualTime().isAfter(ScheduleClock.now())) {
                 // Only consider non-emergency flights
                 boolean isNonEmergency = flight.getEmergencyStatus() == Flight.EmergencyStatus.NONE;
 
@@ -628,7 +683,7 @@ public class SchedulingController {
 
                 // If no next flight, set to now
                 if (nextTime == null) {
-                    runway.setNextAvailableTime(LocalDateTime.now());
+                    runway.setNextAvailableTime(ScheduleClock.now());
                 } else {
                     runway.setNextAvailableTime(nextTime);
                 }
@@ -658,14 +713,30 @@ public class SchedulingController {
         return allFlights;
     }
 
+    // Flights waiting for a slot, in queue (heap array) order
+    public List<Flight> getQueuedFlights() {
+        return new ArrayList<>(flightQueue);
+    }
+
+    // Replace the whole scheduling state with a saved one (journal snapshots); the queue keeps its saved order
+    public void restoreState(List<Runway> restoredRunways, List<Flight> queued, List<Flight> scheduled, Weather weather) {
+        runways = new ArrayList<>(restoredRunways);
+        flightQueue.restore(queued);
+        scheduledFlights = new ArrayList<>(scheduled);
+        currentWeather = weather;
+    }
+
     // Clear all flights and reset the system
     public void reset() {
-        flightQueue.clear();
-        scheduledFlights.clear();
-
-        // Reset runways to be available now
-        for (Runway runway : runways) {
-            runway.setNextAvailableTime(LocalDateTime.now());
-        }
+        ScheduleClock.during(() -> {
+            commandLog.scheduleReset();
+            flightQueue.clear();
+            scheduledFlights.clear();
+
+            // Reset runways to be available now
+            for (Runway runway : runways) {
+                runway.setNextAvailableTime(ScheduleClock.now());
+            }
+        });
     }
 }
@@ -0,0 +1,218 @@
+package com.skyflow.controller;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+// Versioned schema for skyflow.db. The applied version is kept in PRAGMA user_version; at startup every
+// pending migration runs in order inside one transaction, so a database is either fully upgraded or untouched.
+// Add new steps at the end of MIGRATIONS - never edit one that has shipped.
+public final class SchemaMigrations {
+
+    // One schema step; statements run on the writer connection inside the upgrade transaction
+    @FunctionalInterface
+    interface MigrationStep {
+        void apply(Connection connection) throws SQLException;
+    }
+
+    record Migration(int version, String description, MigrationStep step) {
+    }
+
+    static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "Create reference tables", SchemaMigrations::createReferenceTables),
+            new Migration(2, "Rename legacy airline columns to icao_code/airline_name", SchemaMigrations::reconcileAirlineColumns),
+            new Migration(3, "Seed default weather presets", SchemaMigrations::seedWeatherPresets),
+            new Migration(4, "Track reference data version", SchemaMigrations::createReferenceMeta),
+            new Migration(5, "Add covering indexes for reference lookups", SchemaMigrations::createLookupIndexes),
+            new Migration(6, "Create flight and runway assignment tables", SchemaMigrations::createFlightTables)
+    );
+
+    public static final int CURRENT_VERSION = MIGRATIONS.get(MIGRATIONS.size() - 1).version();
+
+    private SchemaMigrations() {
+    }
+
+    // Bring the database up to CURRENT_VERSION; returns the version it started from
+    public static int migrate(SqliteDataSource dataSource) throws SQLException {
+        return dataSource.transaction(pooled -> {
+            Connection connection = pooled.getConnection();
+            int startVersion = getUserVersion(connection);
+
+            if (startVersion > CURRENT_VERSION) {
+                throw new SQLException("Database schema version " + startVersion
+                        + " is newer than this application supports (" + CURRENT_VERSION + ")");
+            }
+
+            for (Migration migration : MIGRATIONS) {
+                if (migration.version() > startVersion) {
+                    System.out.println("Applying schema migration " + migration.version() + ": " + migration.description());
+                    migration.step().apply(connection);
+                }
+            }
+
+            if (startVersion < CURRENT_VERSION) {
+                try (Statement statement = connection.createStatement()) {
+                    // Refresh planner statistics for the new indexes; user_version is part of the same transaction
+                    statement.execute("ANALYZE");
+                    statement.execute("PRAGMA user_version = " + CURRENT_VERSION);
+                }
+            }
+            return startVersion;
+        });
+    }
+
+    private static int getUserVersion(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("PRAGMA user_version")) {
+            return resultSet.next() ? resultSet.getInt(1) : 0;
+        }
+    }
+
+    private static boolean hasColumn(Connection connection, String table, String column) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (resultSet.next()) {
+                if (column.equalsIgnoreCase(resultSet.getString("name"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // 1: the reference tables as they exist in deployed databases
+    private static void createReferenceTables(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(
+                    "CREATE TABLE IF NOT EXISTS airlines (" +
+                            "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                            "icao_code CHAR(3) NOT NULL UNIQUE, " +
+                            "airline_name TEXT NOT NULL" +
+                            ")"
+            );
+
+            statement.execute(
+                    "CREATE TABLE IF NOT EXISTS aircrafts (" +
+                            "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                            "name TEXT NOT NULL, " +
+                            "fuel_capacity INTEGER NOT NULL, " +
+                            "weight INTEGER NOT NULL, " +
+                            "aircraft_type TEXT NOT NULL, " +
+                            "turbulence_category TEXT NOT NULL, " +
+                            "CONSTRAINT unique_aircraft_name UNIQUE (name)" +
+                            ")"
+            );
+
+            statement.execute(
+                    "CREATE TABLE IF NOT EXISTS weather_presets (" +
+                            "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                            "name TEXT NOT NULL UNIQUE, " +
+                            "wind_speed REAL NOT NULL, " +
+                            "wind_direction INTEGER NOT NULL, " +
+                            "visibility REAL NOT NULL, " +
+                            "condition TEXT NOT NULL" +
+                            ")"
+            );
+        }
+    }
+
+    // 2: databases created by older builds have airlines(name, code); the queries use icao_code/airline_name
+    private static void reconcileAirlineColumns(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            if (!hasColumn(connection, "airlines", "icao_code") && hasColumn(connection, "airlines", "code")) {
+                statement.execute("ALTER TABLE airlines RENAME COLUMN code TO icao_code");
+            }
+            if (!hasColumn(connection, "airlines", "airline_name") && hasColumn(connection, "airlines", "name")) {
+                statement.execute("ALTER TABLE airlines RENAME COLUMN name TO airline_name");
+            }
+        }
+    }
+
+    // 3: presets that older builds inserted when the table was empty; existing names are kept as they are
+    private static void seedWeatherPresets(Connection connection) throws SQLException {
+        String insert = "INSERT OR IGNORE INTO weather_presets (name, wind_speed, wind_direction, visibility, condition) ";
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(insert + "VALUES ('Clear Day', 5.0, 90, 25.0, 'SUNNY')");
+            statement.execute(insert + "VALUES ('Light Breeze', 10.0, 180, 20.0, 'SUNNY')");
+            statement.execute(insert + "VALUES ('Cloudy Morning', 7.5, 270, 15.0, 'CLOUDY')");
+            statement.execute(insert + "VALUES ('Rainy Afternoon', 12.0, 45, 8.0, 'RAINY')");
+            statement.execute(insert + "VALUES ('Heavy Fog', 3.0, 135, 2.5, 'FOGGY')");
+            statement.execute(insert + "VALUES ('Winter Storm', 15.0, 315, 5.0, 'SNOWY')");
+            statement.execute(insert + "VALUES ('Summer Storm', 25.0, 225, 4.0, 'THUNDERSTORM')");
+        }
+    }
+
+    // 4: version counter for the reference tables, bumped by triggers on every change. Lets cached copies of the
+    // reference data (see ReferenceSnapshot) detect that they are stale without re-reading the tables.
+    private static void createReferenceMeta(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(
+                    "CREATE TABLE IF NOT EXISTS reference_meta (" +
+                            "key TEXT PRIMARY KEY, " +
+                            "value INTEGER NOT NULL" +
+                            ")"
+            );
+            statement.execute("INSERT OR IGNORE INTO reference_meta (key, value) VALUES ('reference_version', 1)");
+
+            for (String table : new String[]{"airlines", "aircrafts", "weather_presets"}) {
+                for (String event : new String[]{"INSERT", "UPDATE", "DELETE"}) {
+                    statement.execute(
+                            "CREATE TRIGGER IF NOT EXISTS " + table + "_" + event.toLowerCase() + "_version " +
+                                    "AFTER " + event + " ON " + table + " BEGIN " +
+                                    "UPDATE reference_meta SET value = value + 1 WHERE key = 'reference_version'; " +
+                                    "END"
+                    );
+                }
+            }
+        }
+    }
+
+    // 5: one covering index per lookup path, so each query is answered from the index alone
+    private static void createLookupIndexes(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            // getAirlineByCode / getAirlinesByCodes
+            statement.execute("CREATE INDEX IF NOT EXISTS idx_airlines_code ON airlines (icao_code, airline_name)");
+            // getAirlineByName and getAllAirlines (ORDER BY airline_name)
+            statement.execute("CREATE INDEX IF NOT EXISTS idx_airlines_name ON airlines (airline_name, icao_code)");
+            // getAircraftByName / getAircraftByNames and getAllAircraft (ORDER BY name)
+            statement.execute("CREATE INDEX IF NOT EXISTS idx_aircrafts_name ON aircrafts " +
+                    "(name, id, fuel_capacity, weight, aircraft_type, turbulence_category)");
+            // getAircraftByCategory (ORDER BY name) and getRandomAircraftByCategory
+            statement.execute("CREATE INDEX IF NOT EXISTS idx_aircrafts_category ON aircrafts " +
+                    "(turbulence_category, name, id, fuel_capacity, weight, aircraft_type)");
+            // getWeatherPresetByName and getAllWeatherPresets (ORDER BY name)
+            statement.execute("CREATE INDEX IF NOT EXISTS idx_weather_presets_name ON weather_presets " +
+                    "(name, id, wind_speed, wind_direction, visibility, condition)");
+        }
+    }
+
+    // 6: operational state written behind by FlightPersistence. Times are ISO-8601 local date-times.
+    private static void createFlightTables(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(
+                    "CREATE TABLE IF NOT EXISTS flights (" +
+                            "id TEXT PRIMARY KEY, " +
+                            "flight_number TEXT NOT NULL, " +
+                            "airline TEXT, " +
+                            "aircraft TEXT, " +
+                            "category TEXT NOT NULL, " +
+                            "type TEXT NOT NULL, " +
+                            "scheduled_time TEXT NOT NULL, " +
+                            "emergency_status TEXT NOT NULL, " +
+                            "fuel_level INTEGER NOT NULL, " +
+                            "icao24 TEXT" +
+                            ")"
+            );
+
+            statement.execute(
+                    "CREATE TABLE IF NOT EXISTS flight_assignments (" +
+                            "flight_id TEXT PRIMARY KEY REFERENCES flights (id) ON DELETE CASCADE, " +
+                            "runway_id TEXT NOT NULL, " +
+                            "actual_time TEXT NOT NULL" +
+                            ")"
+            );
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.skyflow.controller;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Connection management for the SQLite database: a small pool of read-only connections plus a single
+// writer. The database runs in WAL mode so readers never block on the writer (or each other), and every
+// connection keeps its own cache of prepared statements so repeated lookups skip the SQL compile.
+public class SqliteDataSource implements AutoCloseable {
+    // Pragmas applied to every connection
+    private static final String[] CONNECTION_PRAGMAS = {
+            "PRAGMA busy_timeout = 5000",
+            "PRAGMA synchronous = NORMAL",   // Safe with WAL; fsync only at checkpoints
+            "PRAGMA cache_size = -16000",    // 16 MB page cache per connection
+            "PRAGMA mmap_size = 268435456",  // Map up to 256 MB of the database file
+            "PRAGMA temp_store = MEMORY",
+            "PRAGMA foreign_keys = ON"
+    };
+
+    private static final int STATEMENT_CACHE_SIZE = 64;
+
+    private final PooledConnection writer;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final BlockingQueue<PooledConnection> readers;
+    private final List<PooledConnection> allReaders = new ArrayList<>();
+
+    // Work done with a borrowed connection
+    @FunctionalInterface
+    public interface ConnectionCallback<T> {
+        T apply(PooledConnection connection) throws SQLException;
+    }
+
+    // Constructor
+    public SqliteDataSource(String url, int readConnections) throws SQLException {
+        // The writer switches the database to WAL; the mode is persistent, so readers inherit it
+        this.writer = open(url, false);
+        try (Statement statement = writer.getConnection().createStatement()) {
+            statement.execute("PRAGMA journal_mode = WAL");
+        }
+
+        this.readers = new ArrayBlockingQueue<>(readConnections);
+        try {
+            for (int i = 0; i < readConnections; i++) {
+                PooledConnection reader = open(url, true);
+                allReaders.add(reader);
+                readers.add(reader);
+            }
+        } catch (SQLException e) {
+            // Nothing else can hold these yet, so no lock is needed
+            closeAll(allReaders, writer);
+            throw e;
+        }
+    }
+
+    // Default pool: one reader per core, between 2 and 4
+    public SqliteDataSource(String url) throws SQLException {
+        this(url, Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors())));
+    }
+
+    // Run a read on one of the pooled read-only connections, waiting if all are busy
+    public <T> T read(ConnectionCallback<T> callback) throws SQLException {
+        PooledConnection reader;
+        try {
+            reader = readers.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a read connection", e);
+        }
+
+        try {
+            return callback.apply(reader);
+        } finally {
+            readers.add(reader);
+        }
+    }
+
+    // Run a statement (or several, each auto-committed) on the writer connection
+    public <T> T write(ConnectionCallback<T> callback) throws SQLException {
+        writeLock.lock();
+        try {
+            return callback.apply(writer);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Run work on the writer connection as one transaction; rolled back if it throws
+    public <T> T transaction(ConnectionCallback<T> callback) throws SQLException {
+        writeLock.lock();
+        Connection connection = writer.getConnection();
+        try {
+            connection.setAutoCommit(false);
+            try {
+                T result = callback.apply(writer);
+                connection.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        writeLock.lock();
+        try {
+            closeAll(allReaders, writer);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private static void closeAll(List<PooledConnection> readers, PooledConnection writer) {
+        for (PooledConnection reader : readers) {
+            reader.close();
+        }
+        writer.close();
+    }
+
+    private static PooledConnection open(String url, boolean readOnly) throws SQLException {
+        Connection connection = DriverManager.getConnection(url);
+        try (Statement statement = connection.createStatement()) {
+            for (String pragma : CONNECTION_PRAGMAS) {
+                statement.execute(pragma);
+            }
+            if (readOnly) {
+                statement.execute("PRAGMA query_only = ON");
+            }
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        return new PooledConnection(connection);
+    }
+
+    // A connection with its own LRU cache of prepared statements. Only one thread uses it at a time.
+    public static final class PooledConnection {
+        private final Connection connection;
+        private final Map<String, PreparedStatement> statements =
+                new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                        if (size() > STATEMENT_CACHE_SIZE) {
+                            closeQuietly(eldest.getValue());
+                            return true;
+                        }
+                        return false;
+                    }
+                };
+
+        private PooledConnection(Connection connection) {
+            this.connection = connection;
+        }
+
+        // Cached statement for this SQL, compiled on first use. Callers must not close it, but must close its ResultSets.
+        public PreparedStatement prepare(String sql) throws SQLException {
+            PreparedStatement statement = statements.get(sql);
+            if (statement == null || statement.isClosed()) {
+                statement = connection.prepareStatement(sql);
+                statements.put(sql, statement);
+            } else {
+                // A caller that failed mid-batch may have left parameters and batched rows behind
+                statement.clearParameters();
+                statement.clearBatch();
+            }
+            return statement;
+        }
+
+        public Connection getConnection() {
+            return connection;
+        }
+
+        private void close() {
+            for (PreparedStatement statement : statements.values()) {
+                closeQuietly(statement);
+            }
+            statements.clear();
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                System.err.println("Error closing database connection: " + e.getMessage());
+            }
+        }
+
+        private static void closeQuietly(PreparedStatement statement) {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                System.err.println("Error closing prepared statement: " + e.getMessage());
+            }
+        }
+    }
+}
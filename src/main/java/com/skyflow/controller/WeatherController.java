@@ -1,16 +1,20 @@
 package com.skyflow.controller;
 
+import com.skyflow.model.ScheduleClock;
 import com.skyflow.model.Weather;
+import com.skyflow.model.WeatherPreset;
 import com.skyflow.service.DatabaseService;
 
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 
 public class WeatherController {
     private Weather currentWeather;
     private SchedulingController schedulingController;
     private DatabaseService databaseService;
+    private CommandLog commandLog = CommandLog.NONE;
 
     // Constructor with database service
     public WeatherController(SchedulingController schedulingController, DatabaseService databaseService) {
@@ -27,64 +31,98 @@ public class WeatherController {
 
     // Load weather preset from database
     public void loadWeatherPreset(String presetName) {
-        Map<String, Object> preset = databaseService.getWeatherPresetByName(presetName);
+        WeatherPreset preset = databaseService.getWeatherPresetByName(presetName);
 
         if (preset != null) {
-            double windSpeed = (double) preset.get("windSpeed");
-            int windDirection = (int) preset.get("windDirection");
-            double visibility = (double) preset.get("visibility");
-            Weather.WeatherCondition condition = Weather.WeatherCondition.valueOf((String) preset.get("condition"));
-
-            updateWeather(windSpeed, windDirection, visibility, condition);
+            updateWeather(preset.windSpeed(), preset.windDirection(), preset.visibility(), preset.condition());
         }
     }
 
+    // Look the preset up without blocking the caller, then apply it on the given executor (the thread that owns
+    // the controllers, e.g. Platform::runLater). Completes with false if there is no such preset.
+    public CompletableFuture<Boolean> loadWeatherPresetAsync(String presetName, Executor applyOn) {
+        return databaseService.getWeatherPresetByNameAsync(presetName).thenApplyAsync(preset -> {
+            if (preset == null) {
+                return false;
+            }
+            updateWeather(preset.windSpeed(), preset.windDirection(), preset.visibility(), preset.condition());
+            return true;
+        }, applyOn);
+    }
+
     // Get all weather presets from database
-    public List<Map<String, Object>> getAllWeatherPresets() {
+    public List<WeatherPreset> getAllWeatherPresets() {
         return databaseService.getAllWeatherPresets();
     }
 
+    public CompletableFuture<List<WeatherPreset>> getAllWeatherPresetsAsync() {
+        return databaseService.getAllWeatherPresetsAsync();
+    }
+
     // Update weather conditions
     public void updateWeather(double windSpeed, int windDirection,
                               double visibility, Weather.WeatherCondition condition) {
-        Weather newWeather = new Weather(windSpeed, windDirection, visibility, condition);
-        this.currentWeather = newWeather;
+        ScheduleClock.during(() -> {
+            Weather newWeather = new Weather(windSpeed, windDirection, visibility, condition);
+            commandLog.weatherChanged(newWeather);
+            this.currentWeather = newWeather;
 
-        // Update in scheduling controller
-        schedulingController.updateWeather(newWeather);
+            // Update in scheduling controller
+            schedulingController.updateWeather(newWeather);
 
-        // Trigger rescheduling as weather conditions changed
-        schedulingController.scheduleFlights();
+            // Trigger rescheduling as weather conditions changed
+            schedulingController.scheduleFlights();
+        });
     }
 
     public void updateWindDirection(int windDirection) {
-        currentWeather.setWindDirection(windDirection);
+        ScheduleClock.during(() -> {
+            currentWeather.setWindDirection(windDirection);
+            commandLog.weatherChanged(currentWeather);
 
-        // Update in scheduling controller
-        schedulingController.updateWeather(currentWeather);
+            // Update in scheduling controller
+            schedulingController.updateWeather(currentWeather);
 
-        // Trigger rescheduling
-        schedulingController.scheduleFlights();
+            // Trigger rescheduling
+            schedulingController.scheduleFlights();
+        });
     }
 
     public void updateVisibility(double visibility) {
-        currentWeather.setVisibility(visibility);
+        ScheduleClock.during(() -> {
+            currentWeather.setVisibility(visibility);
+            commandLog.weatherChanged(currentWeather);
 
-        // Update in scheduling controller
-        schedulingController.updateWeather(currentWeather);
+            // Update in scheduling controller
+            schedulingController.updateWeather(currentWeather);
 
-        // Trigger rescheduling
-        schedulingController.scheduleFlights();
+            // Trigger rescheduling
+            schedulingController.scheduleFlights();
+        });
     }
 
     public void updateWeatherCondition(Weather.WeatherCondition condition) {
-        currentWeather.setCondition(condition);
+        ScheduleClock.during(() -> {
+            currentWeather.setCondition(condition);
+            commandLog.weatherChanged(currentWeather);
 
-        // Update in scheduling controller
-        schedulingController.updateWeather(currentWeather);
+            // Update in scheduling controller
+            schedulingController.updateWeather(currentWeather);
+
+            // Trigger rescheduling
+            schedulingController.scheduleFlights();
+        });
+    }
+
+    // Put back the weather saved in a journal snapshot, without rescheduling
+    public void restoreWeather(Weather weather) {
+        this.currentWeather = weather;
+        schedulingController.updateWeather(weather);
+    }
 
-        // Trigger rescheduling
-        schedulingController.scheduleFlights();
+    // Receive every state-changing command (e.g. for the journal)
+    public void setCommandLog(CommandLog commandLog) {
+        this.commandLog = commandLog != null ? commandLog : CommandLog.NONE;
     }
 
     // Get current weather
@@ -0,0 +1,6 @@
+package com.skyflow.model;
+
+// Aircraft type reference row; turbulenceCategory is null when the stored value is not a known category
+public record AircraftType(int id, String name, int fuelCapacity, int weight, String aircraftType,
+                           Flight.WakeTurbulenceCategory turbulenceCategory) {
+}
@@ -0,0 +1,5 @@
+package com.skyflow.model;
+
+// Airline reference row, keyed by its ICAO code
+public record Airline(String icaoCode, String name) {
+}
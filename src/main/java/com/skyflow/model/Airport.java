@@ -0,0 +1,8 @@
+package com.skyflow.model;
+
+// Reference point of the airport being controlled
+public record Airport(String icaoCode, String name, double latitude, double longitude, int elevationFeet) {
+
+    // Ben Gurion Airport, matching the default runway configuration
+    public static final Airport BEN_GURION = new Airport("LLBG", "Ben Gurion Airport", 32.0114, 34.8867, 135);
+}
@@ -2,19 +2,27 @@ package com.skyflow.model;
 
 import java.time.LocalDateTime;
 
+// A flight is a view of one row in a FlightStore; all of its state lives in the store's columns.
+// Once released it reads from a fixed copy of its final values instead, and the row goes to another flight.
 public class Flight {
-    private String id;
-    private String flightNumber;
-    private String airline;
-    private String aircraft;
-    private WakeTurbulenceCategory category;
-    private FlightType type;
-    private LocalDateTime scheduledTime;
-    private LocalDateTime actualTime;
-    private EmergencyStatus emergencyStatus;
-    private int fuelLevel; // Percentage of fuel remaining
-    private Runway assignedRunway;
-    private int priority; // Calculated priority value
+    private final FlightStore store;
+    private final int slot;
+    private volatile Released released;
+
+    // Final values of a flight that has given its row back
+    private record Released(String id, long key, boolean legacyId, String flightNumber, Airline airline,
+                            AircraftType aircraft, WakeTurbulenceCategory category, FlightType type,
+                            long scheduledTime, long actualTime, EmergencyStatus emergencyStatus, Status status,
+                            int fuelLevel, int priority, String icao24, Runway runway) {
+
+        static Released of(FlightStore store, int slot) {
+            return new Released(store.id(slot), store.key(slot), store.hasLegacyId(slot), store.flightNumber(slot),
+                    store.airlineReference(slot), store.aircraftReference(slot), store.category(slot),
+                    store.type(slot), store.scheduledTime(slot), store.actualTime(slot), store.emergencyStatus(slot),
+                    store.status(slot), store.fuelLevel(slot), store.priority(slot), store.icao24(slot),
+                    store.runway(slot));
+        }
+    }
 
     // Enum for wake turbulence categories
     public enum WakeTurbulenceCategory {
@@ -30,6 +38,13 @@ public class Flight {
         DEPARTURE
     }
 
+    // Lifecycle: waiting for a slot, holding a runway slot, then retired once the slot has passed
+    public enum Status {
+        PLANNED,
+        ACTIVE,
+        COMPLETED
+    }
+
     // Enum for emergency status with different levels
     public enum EmergencyStatus {
         NONE(0),
@@ -52,20 +67,33 @@ public class Flight {
         }
     }
 
-    // Constructor
+    // Constructor. Ids that are not FlightId encodings (UUIDs from older databases) are kept as they are,
+    // with a fresh numeric key for lookups.
     public Flight(String id, String flightNumber, String airline, String aircraft,
                   WakeTurbulenceCategory category, FlightType type,
                   LocalDateTime scheduledTime, EmergencyStatus emergencyStatus) {
-        this.id = id;
-        this.flightNumber = flightNumber;
-        this.airline = airline;
-        this.aircraft = aircraft;
-        this.category = category;
-        this.type = type;
-        this.scheduledTime = scheduledTime;
-        this.emergencyStatus = emergencyStatus;
-        this.fuelLevel = 100; // Default value
-        this.priority = calculatePriority();
+        long key = FlightId.parse(id);
+        if (key != FlightId.NONE) {
+            FlightId.observe(key);
+        }
+        FlightStore store = FlightStore.shared();
+        this.store = store;
+        this.slot = key != FlightId.NONE
+                ? store.allocate(key, null, flightNumber, airline, aircraft, category, type, scheduledTime, emergencyStatus)
+                : store.allocate(FlightId.next(), id, flightNumber, airline, aircraft, category, type, scheduledTime,
+                emergencyStatus);
+        updatePriority();
+    }
+
+    // Constructor for a newly allocated FlightId
+    public Flight(long id, String flightNumber, String airline, String aircraft,
+                  WakeTurbulenceCategory category, FlightType type,
+                  LocalDateTime scheduledTime, EmergencyStatus emergencyStatus) {
+        FlightStore store = FlightStore.shared();
+        this.store = store;
+        this.slot = store.allocate(id, null, flightNumber, airline, aircraft, category, type, scheduledTime,
+                emergencyStatus);
+        updatePriority();
     }
 
     // Calculate flight priority based on various factors
@@ -73,10 +101,11 @@ public class Flight {
         int basePriority = 0;
 
         // Consider emergency status
-        basePriority += emergencyStatus.getPriorityLevel() * 1000;
+        basePriority += getEmergencyStatus().getPriorityLevel() * 1000;
 
         // Consider fuel level for arrivals
-        if (type == FlightType.ARRIVAL) {
+        if (getType() == FlightType.ARRIVAL) {
+            int fuelLevel = getFuelLevel();
             if (fuelLevel < 10) basePriority += 500;
             else if (fuelLevel < 20) basePriority += 300;
             else if (fuelLevel < 30) basePriority += 100;
@@ -84,7 +113,7 @@ public class Flight {
 
         // Consider how close the scheduled time is
         long minutesUntilScheduled = java.time.Duration.between(
-                LocalDateTime.now(), scheduledTime).toMinutes();
+                ScheduleClock.now(), getScheduledTime()).toMinutes();
 
         if (minutesUntilScheduled < 0) {
             // Flight is already delayed
@@ -99,91 +128,211 @@ public class Flight {
 
     // Update priority - should be called when relevant properties change
     public void updatePriority() {
-        this.priority = calculatePriority();
+        if (released == null) {
+            store.setPriority(slot, calculatePriority());
+        }
     }
 
+    // The row backing this flight, for loops that read the store's columns directly. Only meaningful while the
+    // flight is in the system; after release() the row may belong to another flight.
+    public FlightStore store() {
+        return store;
+    }
+
+    public int slot() {
+        return slot;
+    }
+
+    // Give the row back once the flight has left the system. The view keeps its final values; setters on a
+    // released flight change nothing.
+    public void release() {
+        if (released == null) {
+            released = Released.of(store, slot);
+            store.release(slot);
+        }
+    }
+
+    public boolean isReleased() {
+        return released != null;
+    }
+
+    // Id as stored and displayed
     public String getId() {
-        return id;
+        Released last = released;
+        return last != null ? last.id() : store.id(slot);
+    }
+
+    // Numeric key for maps and sets; unique in this process even for flights with legacy ids
+    public long getKey() {
+        Released last = released;
+        return last != null ? last.key() : store.key(slot);
+    }
+
+    // Id that is not a FlightId encoding, e.g. a UUID from an older database
+    public boolean hasLegacyId() {
+        Released last = released;
+        return last != null ? last.legacyId() : store.hasLegacyId(slot);
     }
 
     public String getFlightNumber() {
-        return flightNumber;
+        Released last = released;
+        return last != null ? last.flightNumber() : store.flightNumber(slot);
     }
 
     public String getAirline() {
-        return airline;
+        Airline airline = getAirlineReference();
+        return airline != null ? airline.name() : null;
     }
 
     public String getAircraft() {
-        return aircraft;
+        AircraftType aircraft = getAircraftReference();
+        return aircraft != null ? aircraft.name() : null;
+    }
+
+    // Canonical reference objects (shared by every flight of the airline or type, so == compares them)
+    public Airline getAirlineReference() {
+        Released last = released;
+        return last != null ? last.airline() : store.airlineReference(slot);
+    }
+
+    public AircraftType getAircraftReference() {
+        Released last = released;
+        return last != null ? last.aircraft() : store.aircraftReference(slot);
     }
 
     public WakeTurbulenceCategory getCategory() {
-        return category;
+        Released last = released;
+        return last != null ? last.category() : store.category(slot);
     }
 
     public FlightType getType() {
-        return type;
+        Released last = released;
+        return last != null ? last.type() : store.type(slot);
     }
 
     public LocalDateTime getScheduledTime() {
-        return scheduledTime;
+        Released last = released;
+        return FlightStore.toLocalDateTime(last != null ? last.scheduledTime() : store.scheduledTime(slot));
     }
 
     public void setScheduledTime(LocalDateTime scheduledTime) {
-        this.scheduledTime = scheduledTime;
+        if (released != null) {
+            return;
+        }
+        store.setScheduledTime(slot, scheduledTime);
         updatePriority();
     }
 
     public LocalDateTime getActualTime() {
-        return actualTime;
+        Released last = released;
+        return FlightStore.toLocalDateTime(last != null ? last.actualTime() : store.actualTime(slot));
     }
 
     public void setActualTime(LocalDateTime actualTime) {
-        this.actualTime = actualTime;
+        if (released != null) {
+            return;
+        }
+        store.setActualTime(slot, actualTime);
     }
 
     public EmergencyStatus getEmergencyStatus() {
-        return emergencyStatus;
+        Released last = released;
+        return last != null ? last.emergencyStatus() : store.emergencyStatus(slot);
     }
 
     public void setEmergencyStatus(EmergencyStatus emergencyStatus) {
-        this.emergencyStatus = emergencyStatus;
+        if (released != null) {
+            return;
+        }
+        store.setEmergencyStatus(slot, emergencyStatus);
         updatePriority();
     }
 
     public int getFuelLevel() {
-        return fuelLevel;
+        Released last = released;
+        return last != null ? last.fuelLevel() : store.fuelLevel(slot);
     }
 
     public void setFuelLevel(int fuelLevel) {
-        this.fuelLevel = Math.max(0, Math.min(100, fuelLevel)); // Keep between 0-100
+        if (released != null) {
+            return;
+        }
+        store.setFuelLevel(slot, Math.max(0, Math.min(100, fuelLevel))); // Keep between 0-100
         updatePriority();
     }
 
     public Runway getAssignedRunway() {
-        return assignedRunway;
+        Released last = released;
+        return last != null ? last.runway() : store.runway(slot);
     }
 
+    // Assigning a slot makes the flight ACTIVE, releasing it makes it PLANNED again; COMPLETED is final
     public void setAssignedRunway(Runway assignedRunway) {
-        this.assignedRunway = assignedRunway;
+        if (released != null) {
+            return;
+        }
+        store.setRunway(slot, assignedRunway);
+        if (getStatus() != Status.COMPLETED) {
+            store.setStatus(slot, assignedRunway != null ? Status.ACTIVE : Status.PLANNED);
+        }
+    }
+
+    public Status getStatus() {
+        Released last = released;
+        return last != null ? last.status() : store.status(slot);
+    }
+
+    public void markCompleted() {
+        if (released != null) {
+            return;
+        }
+        store.setStatus(slot, Status.COMPLETED);
+    }
+
+    // Seconds between the scheduled time and the assigned slot (negative when early), 0 without a slot
+    public long getDelaySeconds() {
+        Released last = released;
+        long actualTime = last != null ? last.actualTime() : store.actualTime(slot);
+        long scheduledTime = last != null ? last.scheduledTime() : store.scheduledTime(slot);
+        return actualTime != FlightStore.NO_TIME ? Math.floorDiv(actualTime - scheduledTime, 1_000_000_000L) : 0;
     }
 
     public int getPriority() {
-        return priority;
+        Released last = released;
+        return last != null ? last.priority() : store.priority(slot);
+    }
+
+    // Put back a priority saved in a journal snapshot; it was computed at the snapshot's time, not now
+    public void restorePriority(int priority) {
+        if (released != null) {
+            return;
+        }
+        store.setPriority(slot, priority);
+    }
+
+    public String getIcao24() {
+        Released last = released;
+        return last != null ? last.icao24() : store.icao24(slot);
+    }
+
+    public void setIcao24(String icao24) {
+        if (released != null) {
+            return;
+        }
+        store.setIcao24(slot, icao24);
     }
 
     @Override
     public String toString() {
         return "Flight{" +
-                "id='" + id + '\'' +
-                ", flightNumber='" + flightNumber + '\'' +
-                ", airline='" + airline + '\'' +
-                ", type=" + type +
-                ", scheduled=" + scheduledTime +
-                ", actual=" + actualTime +
-                ", emergency=" + emergencyStatus +
-                ", runway=" + (assignedRunway != null ? assignedRunway.getId() : "none") +
+                "id='" + getId() + '\'' +
+                ", flightNumber='" + getFlightNumber() + '\'' +
+                ", airline='" + getAirline() + '\'' +
+                ", type=" + getType() +
+                ", scheduled=" + getScheduledTime() +
+                ", actual=" + getActualTime() +
+                ", emergency=" + getEmergencyStatus() +
+                ", runway=" + (getAssignedRunway() != null ? getAssignedRunway().getId() : "none") +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,92 @@
+package com.skyflow.model;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Compact 64-bit flight ids, allocated without SecureRandom or locks.
+// Layout, high to low: milliseconds since 2024-01-01 (41 bits, good until 2093), a sequence within the
+// millisecond (12 bits) and the node (10 bits, -Dskyflow.node, default 0). Ids from one node only ever increase:
+// a burst of more than 4096 ids in a millisecond borrows from the next one, and ids seen on restore push the
+// allocator past them, so a restarted or promoted node never hands out an id its predecessor used.
+// For display and storage an id is 13 characters of Crockford base32, which sort in id order.
+public final class FlightId {
+    // Never allocated; a real id always has time bits set
+    public static final long NONE = 0;
+
+    public static final int ENCODED_LENGTH = 13;
+
+    private static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long NODE_MASK = (1L << NODE_BITS) - 1;
+    private static final long STEP = 1L << NODE_BITS;
+
+    private static final long NODE = Integer.getInteger("skyflow.node", 0) & NODE_MASK;
+    private static final AtomicLong LAST_ALLOCATED = new AtomicLong();
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final byte[] VALUES = new byte[128];
+
+    static {
+        Arrays.fill(VALUES, (byte) -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            VALUES[ALPHABET[i]] = (byte) i;
+        }
+    }
+
+    private FlightId() {
+    }
+
+    // Next id for this node
+    public static long next() {
+        long now = ((System.currentTimeMillis() - EPOCH_MILLIS) << (SEQUENCE_BITS + NODE_BITS)) | NODE;
+        while (true) {
+            long previous = LAST_ALLOCATED.get();
+            long id = Math.max(now, previous + STEP);
+            if (LAST_ALLOCATED.compareAndSet(previous, id)) {
+                return id;
+            }
+        }
+    }
+
+    // Make sure this node allocates above an id it has already used (restored from storage or a journal)
+    public static void observe(long id) {
+        if ((id & NODE_MASK) != NODE) {
+            return;
+        }
+        long previous;
+        do {
+            previous = LAST_ALLOCATED.get();
+        } while (id > previous && !LAST_ALLOCATED.compareAndSet(previous, id));
+    }
+
+    // 13 characters of base32, most significant first
+    public static String encode(long id) {
+        char[] chars = new char[ENCODED_LENGTH];
+        for (int i = ENCODED_LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    // The id a string encodes, or NONE if it is not an encoded id (e.g. a UUID from an older database)
+    public static long parse(String text) {
+        if (text == null || text.length() != ENCODED_LENGTH) {
+            return NONE;
+        }
+
+        long id = 0;
+        for (int i = 0; i < ENCODED_LENGTH; i++) {
+            char c = text.charAt(i);
+            int value = c < VALUES.length ? VALUES[c] : -1;
+            // 13 characters hold 65 bits; the first carries the id's top 4 bits, so it is at most 15
+            if (value < 0 || (i == 0 && value > 15)) {
+                return NONE;
+            }
+            id = (id << 5) | value;
+        }
+        return id;
+    }
+}
@@ -0,0 +1,33 @@
+package com.skyflow.model;
+
+import java.time.LocalDateTime;
+
+// The persisted state of a flight at one moment: its details plus the runway assignment (both or neither).
+// Taken on the thread that owns the flight, so a background writer never reads a Flight that is still changing.
+public record FlightSnapshot(String id,
+                             String flightNumber,
+                             String airline,
+                             String aircraft,
+                             Flight.WakeTurbulenceCategory category,
+                             Flight.FlightType type,
+                             LocalDateTime scheduledTime,
+                             Flight.EmergencyStatus emergencyStatus,
+                             int fuelLevel,
+                             String icao24,
+                             String runwayId,
+                             LocalDateTime actualTime) {
+
+    public static FlightSnapshot of(Flight flight) {
+        Runway runway = flight.getAssignedRunway();
+        LocalDateTime actualTime = flight.getActualTime();
+        boolean assigned = runway != null && actualTime != null;
+        return new FlightSnapshot(flight.getId(), flight.getFlightNumber(), flight.getAirline(), flight.getAircraft(),
+                flight.getCategory(), flight.getType(), flight.getScheduledTime(), flight.getEmergencyStatus(),
+                flight.getFuelLevel(), flight.getIcao24(),
+                assigned ? runway.getId() : null, assigned ? actualTime : null);
+    }
+
+    public boolean isAssigned() {
+        return runwayId != null;
+    }
+}
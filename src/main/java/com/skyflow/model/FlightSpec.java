@@ -0,0 +1,16 @@
+package com.skyflow.model;
+
+import java.time.LocalDateTime;
+
+// Everything needed to create a flight, used for bulk ingestion through FlightController.createFlights.
+// icao24 is set for feed imports so that re-importing the same aircraft updates it instead of duplicating it.
+public record FlightSpec(String flightNumber,
+                         String airline,
+                         String aircraft,
+                         Flight.WakeTurbulenceCategory category,
+                         Flight.FlightType type,
+                         LocalDateTime scheduledTime,
+                         Flight.EmergencyStatus emergencyStatus,
+                         int fuelLevel,
+                         String icao24) {
+}
@@ -0,0 +1,300 @@
+package com.skyflow.model;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+// Struct-of-arrays storage for flights: one primitive array per field, one row per flight. Times are longs,
+// enums are byte ordinals, the runway is an index into a small table and airline/aircraft are ReferencePool codes, so a flight costs a few dozen bytes in a handful of arrays instead of a graph of objects.
+// Flight is a view of one row; scheduler loops read the columns directly through Flight.slot().
+// Rows live in fixed-size pages that are never copied or moved: growing adds a page, so a row written on the
+// controllers' thread can never be lost to a concurrent grow on a loader thread. Flight views are read and
+// written on the thread that owns the controllers; other threads work from a FlightSnapshot. Allocation and
+// release are synchronized, and a Flight created on another thread is published by handing it over (e.g. through
+// a CompletableFuture), not by sharing the view.
+public final class FlightStore {
+    private static final FlightStore SHARED = new FlightStore(1024);
+
+    // No time set (times are nanoseconds since 1970-01-01T00:00, local date-time read as UTC)
+    public static final long NO_TIME = Long.MIN_VALUE;
+    public static final int NO_RUNWAY = -1;
+
+    private static final int PAGE_SHIFT = 10;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    // One page of rows; its arrays are allocated once and never replaced
+    private static final class Page {
+        final long[] keys = new long[PAGE_SIZE];
+        final String[] legacyIds = new String[PAGE_SIZE]; // Only for ids that are not FlightId encodings
+        final String[] flightNumbers = new String[PAGE_SIZE];
+        final String[] icao24s = new String[PAGE_SIZE];
+        final int[] airlines = new int[PAGE_SIZE];
+        final int[] aircraft = new int[PAGE_SIZE];
+        final Airline[] uninternedAirlines = new Airline[PAGE_SIZE]; // Only when the ReferencePool is full
+        final AircraftType[] uninternedAircraft = new AircraftType[PAGE_SIZE];
+        final byte[] categories = new byte[PAGE_SIZE];
+        final byte[] types = new byte[PAGE_SIZE];
+        final byte[] emergencies = new byte[PAGE_SIZE];
+        final byte[] statuses = new byte[PAGE_SIZE];
+        final byte[] fuelLevels = new byte[PAGE_SIZE];
+        final int[] priorities = new int[PAGE_SIZE];
+        final short[] runways = new short[PAGE_SIZE];
+        final long[] scheduledTimes = new long[PAGE_SIZE];
+        final long[] actualTimes = new long[PAGE_SIZE];
+    }
+
+    // The page directory is replaced (never changed in place) when a page is added, so reads need no lock
+    private volatile Page[] pages = new Page[0];
+
+    // Rows ever handed out, and released rows waiting for reuse
+    private int highWater;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+
+    // Runways are few and shared by many flights. The table only grows, and is replaced on every addition so
+    // reads need no lock.
+    private volatile Runway[] runwayTable = new Runway[0];
+    private final Map<Runway, Integer> runwayIndexes = new IdentityHashMap<>();
+    private final ReferencePool referencePool = ReferencePool.shared();
+
+    private static final Flight.WakeTurbulenceCategory[] CATEGORIES = Flight.WakeTurbulenceCategory.values();
+    private static final Flight.FlightType[] TYPES = Flight.FlightType.values();
+    private static final Flight.EmergencyStatus[] EMERGENCIES = Flight.EmergencyStatus.values();
+    private static final Flight.Status[] STATUSES = Flight.Status.values();
+
+    // Constructor
+    public FlightStore(int initialCapacity) {
+        int pageCount = (Math.max(1, initialCapacity) + PAGE_MASK) >>> PAGE_SHIFT;
+        Page[] initial = new Page[pageCount];
+        for (int i = 0; i < pageCount; i++) {
+            initial[i] = new Page();
+        }
+        pages = initial;
+    }
+
+    // The store every Flight is created in
+    public static FlightStore shared() {
+        return SHARED;
+    }
+
+    // Rows in use
+    public synchronized int size() {
+        return highWater - freeCount;
+    }
+
+    public synchronized int capacity() {
+        return pages.length * PAGE_SIZE;
+    }
+
+    private Page page(int slot) {
+        return pages[slot >>> PAGE_SHIFT];
+    }
+
+    // Claim a row for a new flight
+    synchronized int allocate(long key, String legacyId, String flightNumber, String airline, String aircraftName,
+                              Flight.WakeTurbulenceCategory category, Flight.FlightType type,
+                              LocalDateTime scheduledTime, Flight.EmergencyStatus emergencyStatus) {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (highWater == pages.length * PAGE_SIZE) {
+                Page[] grown = Arrays.copyOf(pages, pages.length + 1);
+                grown[pages.length] = new Page();
+                pages = grown;
+            }
+            slot = highWater++;
+        }
+
+        Page page = page(slot);
+        int row = slot & PAGE_MASK;
+        page.keys[row] = key;
+        page.legacyIds[row] = legacyId;
+        page.flightNumbers[row] = flightNumber;
+        page.icao24s[row] = null;
+        page.airlines[row] = referencePool.airlineCode(airline);
+        page.aircraft[row] = referencePool.aircraftCode(aircraftName);
+        page.uninternedAirlines[row] = page.airlines[row] == ReferencePool.NONE && airline != null
+                ? referencePool.airline(airline) : null;
+        page.uninternedAircraft[row] = page.aircraft[row] == ReferencePool.NONE && aircraftName != null
+                ? referencePool.aircraft(aircraftName) : null;
+        page.categories[row] = (byte) category.ordinal();
+        page.types[row] = (byte) type.ordinal();
+        page.emergencies[row] = (byte) emergencyStatus.ordinal();
+        page.statuses[row] = (byte) Flight.Status.PLANNED.ordinal();
+        page.fuelLevels[row] = 100;
+        page.priorities[row] = 0;
+        page.runways[row] = NO_RUNWAY;
+        page.scheduledTimes[row] = toNanos(scheduledTime);
+        page.actualTimes[row] = NO_TIME;
+        return slot;
+    }
+
+    // Take back the row of a flight that has left the system. The Flight has already copied its final values
+    // out (see Flight.release), so the row can go to the next flight.
+    synchronized void release(int slot) {
+        // Drop references so released rows do not keep strings alive
+        Page page = page(slot);
+        int row = slot & PAGE_MASK;
+        page.legacyIds[row] = null;
+        page.flightNumbers[row] = null;
+        page.icao24s[row] = null;
+        page.uninternedAirlines[row] = null;
+        page.uninternedAircraft[row] = null;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    // Runway table index, registering the runway on first use
+    public synchronized int runwayIndex(Runway runway) {
+        if (runway == null) {
+            return NO_RUNWAY;
+        }
+        Integer index = runwayIndexes.get(runway);
+        if (index == null) {
+            index = runwayTable.length;
+            Runway[] grown = Arrays.copyOf(runwayTable, index + 1);
+            grown[index] = runway;
+            runwayTable = grown;
+            runwayIndexes.put(runway, index);
+        }
+        return index;
+    }
+
+    // Column reads for scheduler loops
+    public long scheduledTime(int slot) {
+        return page(slot).scheduledTimes[slot & PAGE_MASK];
+    }
+
+    public long actualTime(int slot) {
+        return page(slot).actualTimes[slot & PAGE_MASK];
+    }
+
+    public int runwayIndexAt(int slot) {
+        return page(slot).runways[slot & PAGE_MASK];
+    }
+
+    public Flight.WakeTurbulenceCategory category(int slot) {
+        return CATEGORIES[page(slot).categories[slot & PAGE_MASK]];
+    }
+
+    public Flight.EmergencyStatus emergencyStatus(int slot) {
+        return EMERGENCIES[page(slot).emergencies[slot & PAGE_MASK]];
+    }
+
+    public int priority(int slot) {
+        return page(slot).priorities[slot & PAGE_MASK];
+    }
+
+    public long key(int slot) {
+        return page(slot).keys[slot & PAGE_MASK];
+    }
+
+    // Row access for Flight
+    boolean hasLegacyId(int slot) {
+        return page(slot).legacyIds[slot & PAGE_MASK] != null;
+    }
+
+    String id(int slot) {
+        Page page = page(slot);
+        String legacyId = page.legacyIds[slot & PAGE_MASK];
+        return legacyId != null ? legacyId : FlightId.encode(page.keys[slot & PAGE_MASK]);
+    }
+
+    String flightNumber(int slot) {
+        return page(slot).flightNumbers[slot & PAGE_MASK];
+    }
+
+    public Airline airlineReference(int slot) {
+        Page page = page(slot);
+        int code = page.airlines[slot & PAGE_MASK];
+        return code != ReferencePool.NONE ? referencePool.airline(code) : page.uninternedAirlines[slot & PAGE_MASK];
+    }
+
+    public AircraftType aircraftReference(int slot) {
+        Page page = page(slot);
+        int code = page.aircraft[slot & PAGE_MASK];
+        return code != ReferencePool.NONE ? referencePool.aircraft(code) : page.uninternedAircraft[slot & PAGE_MASK];
+    }
+
+    String airline(int slot) {
+        Airline airline = airlineReference(slot);
+        return airline != null ? airline.name() : null;
+    }
+
+    String aircraft(int slot) {
+        AircraftType type = aircraftReference(slot);
+        return type != null ? type.name() : null;
+    }
+
+    Flight.FlightType type(int slot) {
+        return TYPES[page(slot).types[slot & PAGE_MASK]];
+    }
+
+    Flight.Status status(int slot) {
+        return STATUSES[page(slot).statuses[slot & PAGE_MASK]];
+    }
+
+    int fuelLevel(int slot) {
+        return page(slot).fuelLevels[slot & PAGE_MASK];
+    }
+
+    String icao24(int slot) {
+        return page(slot).icao24s[slot & PAGE_MASK];
+    }
+
+    Runway runway(int slot) {
+        return runwayAt(page(slot).runways[slot & PAGE_MASK]);
+    }
+
+    public Runway runwayAt(int index) {
+        return index == NO_RUNWAY ? null : runwayTable[index];
+    }
+
+    void setScheduledTime(int slot, LocalDateTime time) {
+        page(slot).scheduledTimes[slot & PAGE_MASK] = toNanos(time);
+    }
+
+    void setActualTime(int slot, LocalDateTime time) {
+        page(slot).actualTimes[slot & PAGE_MASK] = toNanos(time);
+    }
+
+    void setEmergencyStatus(int slot, Flight.EmergencyStatus emergencyStatus) {
+        page(slot).emergencies[slot & PAGE_MASK] = (byte) emergencyStatus.ordinal();
+    }
+
+    void setStatus(int slot, Flight.Status status) {
+        page(slot).statuses[slot & PAGE_MASK] = (byte) status.ordinal();
+    }
+
+    void setFuelLevel(int slot, int fuelLevel) {
+        page(slot).fuelLevels[slot & PAGE_MASK] = (byte) fuelLevel;
+    }
+
+    void setPriority(int slot, int priority) {
+        page(slot).priorities[slot & PAGE_MASK] = priority;
+    }
+
+    void setRunway(int slot, Runway runway) {
+        page(slot).runways[slot & PAGE_MASK] = (short) runwayIndex(runway);
+    }
+
+    void setIcao24(int slot, String icao24) {
+        page(slot).icao24s[slot & PAGE_MASK] = icao24;
+    }
+
+    // Time encoding: exact to the nanosecond until the year 2262
+    public static long toNanos(LocalDateTime time) {
+        return time == null ? NO_TIME : time.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + time.getNano();
+    }
+
+    public static LocalDateTime toLocalDateTime(long nanos) {
+        return nanos == NO_TIME ? null : LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L),
+                (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,12 @@
+package com.skyflow.model;
+
+// Two airborne aircraft closer than the proximity thresholds, identified by icao24
+public record ProximityAlert(String firstAircraft, String secondAircraft,
+                             double horizontalDistanceNm, double verticalDistanceFeet) {
+
+    @Override
+    public String toString() {
+        return String.format("%s/%s %.1f NM %.0f ft",
+                firstAircraft, secondAircraft, horizontalDistanceNm, verticalDistanceFeet);
+    }
+}
@@ -0,0 +1,236 @@
+package com.skyflow.model;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Flyweight pool of the airline and aircraft-type objects flights point to. Every name maps to one canonical
+// Airline or AircraftType and a small int code, which is what FlightStore keeps per flight; two flights of the
+// same airline share one object, so comparing them is an identity check.
+// Seeded from the reference-data snapshot. Names the reference data does not know (synthesized airlines, types
+// from older databases) get a placeholder object on first use, which a later snapshot with that name replaces in
+// place - flights hold codes, so they all see the replacement at once.
+// Callsign prefixes (the airline code at the start of a callsign) are interned too, without allocating a
+// substring when the prefix has been seen before.
+// Lookups of names and prefixes already in the pool take no lock (the parallel import workers hit it for every
+// aircraft); only adding an entry does. Entries are never removed, so what the feed can add is capped: past
+// MAX_PLACEHOLDERS unknown names get no code and airline(String)/aircraft(String) return an object of their own
+// (FlightStore keeps it with the flight), and past MAX_PREFIXES prefixes are returned as plain substrings.
+// At the caps the pool holds a few MB.
+public final class ReferencePool {
+    private static final ReferencePool SHARED = new ReferencePool();
+
+    public static final int NONE = -1;
+
+    // Limits on entries the reference data does not account for (per table)
+    static final int MAX_PLACEHOLDERS = 1 << 16;
+    static final int MAX_PREFIXES = 1 << 16;
+
+    // Tables grow by doubling; the volatile reference is written before a new code goes into the code map, so a
+    // reader that finds a code also finds its entry
+    private volatile Airline[] airlines = new Airline[64];
+    private volatile AircraftType[] aircraftTypes = new AircraftType[32];
+    private int airlineCount;
+    private int aircraftCount;
+    private int airlinePlaceholders;
+    private int aircraftPlaceholders;
+    private final Map<String, Integer> airlineCodes = new ConcurrentHashMap<>();
+    private final Map<String, Integer> aircraftCodes = new ConcurrentHashMap<>();
+    private boolean warnedAirlinesFull;
+    private boolean warnedAircraftFull;
+
+    // Open-addressing set of callsign prefixes, probed by a hash of the callsign's first characters. Slots only go
+    // from empty to a prefix, and growing publishes a new table, so readers probe it without the lock.
+    private volatile String[] prefixes = new String[256];
+    private int prefixCount;
+
+    public static ReferencePool shared() {
+        return SHARED;
+    }
+
+    // Make the reference data's objects canonical (on start and whenever the snapshot is refreshed)
+    public synchronized void load(List<Airline> referenceAirlines, List<AircraftType> referenceAircraft) {
+        for (Airline airline : referenceAirlines) {
+            if (airline.name() != null) {
+                Integer code = airlineCodes.get(airline.name());
+                if (code != null) {
+                    airlines[code] = airline;
+                } else {
+                    addAirline(airline.name(), airline);
+                }
+            }
+        }
+        airlines = airlines; // Publish the replacements
+
+        for (AircraftType aircraft : referenceAircraft) {
+            if (aircraft.name() != null) {
+                Integer code = aircraftCodes.get(aircraft.name());
+                if (code != null) {
+                    aircraftTypes[code] = aircraft;
+                } else {
+                    addAircraft(aircraft.name(), aircraft);
+                }
+            }
+        }
+        aircraftTypes = aircraftTypes;
+    }
+
+    // Code of the airline with this name, adding a placeholder for names without reference data
+    public int airlineCode(String name) {
+        if (name == null) {
+            return NONE;
+        }
+        Integer code = airlineCodes.get(name);
+        return code != null ? code : addAirlinePlaceholder(name);
+    }
+
+    private synchronized int addAirlinePlaceholder(String name) {
+        Integer code = airlineCodes.get(name);
+        if (code != null) {
+            return code;
+        }
+        if (airlinePlaceholders == MAX_PLACEHOLDERS) {
+            if (!warnedAirlinesFull) {
+                warnedAirlinesFull = true;
+                warnFull("airline", name);
+            }
+            return NONE;
+        }
+        airlinePlaceholders++;
+        return addAirline(name, new Airline(null, name));
+    }
+
+    // Append an entry and only then publish its code
+    private int addAirline(String name, Airline airline) {
+        int code = airlineCount++;
+        airlines = append(airlines, airline, code);
+        airlineCodes.put(name, code);
+        return code;
+    }
+
+    public int aircraftCode(String name) {
+        if (name == null) {
+            return NONE;
+        }
+        Integer code = aircraftCodes.get(name);
+        return code != null ? code : addAircraftPlaceholder(name);
+    }
+
+    private synchronized int addAircraftPlaceholder(String name) {
+        Integer code = aircraftCodes.get(name);
+        if (code != null) {
+            return code;
+        }
+        if (aircraftPlaceholders == MAX_PLACEHOLDERS) {
+            if (!warnedAircraftFull) {
+                warnedAircraftFull = true;
+                warnFull("aircraft type", name);
+            }
+            return NONE;
+        }
+        aircraftPlaceholders++;
+        return addAircraft(name, new AircraftType(0, name, 0, 0, null, null));
+    }
+
+    private int addAircraft(String name, AircraftType aircraft) {
+        int code = aircraftCount++;
+        aircraftTypes = append(aircraftTypes, aircraft, code);
+        aircraftCodes.put(name, code);
+        return code;
+    }
+
+    private static void warnFull(String kind, String name) {
+        System.err.println("Reference pool is full; " + kind + " '" + name
+                + "' and further unknown names of this kind are not interned");
+    }
+
+    public Airline airline(int code) {
+        return code == NONE ? null : airlines[code];
+    }
+
+    public AircraftType aircraft(int code) {
+        return code == NONE ? null : aircraftTypes[code];
+    }
+
+    // Canonical objects by name; once the pool is full, an unknown name gets a placeholder of its own
+    public Airline airline(String name) {
+        int code = airlineCode(name);
+        return code != NONE ? airline(code) : name != null ? new Airline(null, name) : null;
+    }
+
+    public AircraftType aircraft(String name) {
+        int code = aircraftCode(name);
+        return code != NONE ? aircraft(code) : name != null ? new AircraftType(0, name, 0, 0, null, null) : null;
+    }
+
+    private static <T> T[] append(T[] table, T value, int index) {
+        T[] target = index == table.length ? Arrays.copyOf(table, index * 2) : table;
+        target[index] = value;
+        return target;
+    }
+
+    // The first `length` characters of a callsign (all of it if shorter), as a shared string
+    public String callsignPrefix(String callsign, int length) {
+        int end = Math.min(length, callsign.length());
+        int hash = 0;
+        for (int i = 0; i < end; i++) {
+            hash = 31 * hash + callsign.charAt(i);
+        }
+
+        String prefix = findPrefix(prefixes, callsign, end, hash);
+        return prefix != null ? prefix : addPrefix(callsign, end, hash);
+    }
+
+    private static String findPrefix(String[] table, String callsign, int end, int hash) {
+        int mask = table.length - 1;
+        int index = (hash ^ (hash >>> 16)) & mask;
+        for (String prefix = table[index]; prefix != null; prefix = table[index]) {
+            if (prefix.length() == end && callsign.regionMatches(0, prefix, 0, end)) {
+                return prefix;
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    private synchronized String addPrefix(String callsign, int end, int hash) {
+        String prefix = findPrefix(prefixes, callsign, end, hash);
+        if (prefix != null) {
+            return prefix;
+        }
+
+        prefix = callsign.substring(0, end);
+        if (prefixCount == MAX_PREFIXES) {
+            return prefix;
+        }
+        String[] table = prefixes;
+        int mask = table.length - 1;
+        int index = (hash ^ (hash >>> 16)) & mask;
+        while (table[index] != null) {
+            index = (index + 1) & mask;
+        }
+        table[index] = prefix;
+        if (++prefixCount * 2 > table.length) {
+            growPrefixes();
+        }
+        return prefix;
+    }
+
+    private void growPrefixes() {
+        String[] old = prefixes;
+        String[] grown = new String[old.length * 2];
+        int mask = grown.length - 1;
+        for (String prefix : old) {
+            if (prefix != null) {
+                int hash = prefix.hashCode();
+                int index = (hash ^ (hash >>> 16)) & mask;
+                while (grown[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                grown[index] = prefix;
+            }
+        }
+        prefixes = grown;
+    }
+}
@@ -14,7 +14,7 @@ public class Runway {
         this.id = id;
         this.heading = heading;
         this.length = length;
-        this.nextAvailableTime = LocalDateTime.now();
+        this.nextAvailableTime = ScheduleClock.now();
         this.active = true;
     }
 
@@ -44,7 +44,7 @@ public class Runway {
 
         // Consider when the runway becomes available
         long minutesUntilAvailable = java.time.Duration.between(
-                LocalDateTime.now(), nextAvailableTime).toMinutes();
+                ScheduleClock.now(), nextAvailableTime).toMinutes();
 
         if (minutesUntilAvailable > 0) {
             score -= minutesUntilAvailable * 5; // Penalty for waiting
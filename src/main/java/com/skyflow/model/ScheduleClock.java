@@ -0,0 +1,100 @@
+package com.skyflow.model;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+// The single source of "now" for scheduling decisions. Each operator command runs inside a tick, which
+// pins the time for everything that command computes (priorities, runway scores, emergency slots), so the
+// command can be journaled with that one timestamp and replayed later to exactly the same result.
+public final class ScheduleClock {
+    private static volatile Clock clock = Clock.systemDefaultZone();
+    private static final ThreadLocal<LocalDateTime> pinnedTime = new ThreadLocal<>();
+
+    // Ends a tick; only the outermost tick on a thread actually unpins the time
+    public static final class Tick implements AutoCloseable {
+        private final boolean outermost;
+
+        private Tick(boolean outermost) {
+            this.outermost = outermost;
+        }
+
+        // True when this tick is inside another command (e.g. the scheduling pass an emergency triggers)
+        public boolean isNested() {
+            return !outermost;
+        }
+
+        @Override
+        public void close() {
+            if (outermost) {
+                pinnedTime.remove();
+            }
+        }
+    }
+
+    private ScheduleClock() {
+    }
+
+    // Current scheduling time: the pinned tick time when inside a command, otherwise the clock
+    public static LocalDateTime now() {
+        LocalDateTime pinned = pinnedTime.get();
+        return pinned != null ? pinned : LocalDateTime.now(clock);
+    }
+
+    // Pin the current time for the duration of a command (nested ticks keep the outer time)
+    public static Tick tick() {
+        if (pinnedTime.get() != null) {
+            return new Tick(false);
+        }
+        pinnedTime.set(LocalDateTime.now(clock));
+        return new Tick(true);
+    }
+
+    // Pin a given time, e.g. the timestamp of a journal record being replayed
+    public static Tick tickAt(LocalDateTime time) {
+        if (pinnedTime.get() != null) {
+            return new Tick(false);
+        }
+        pinnedTime.set(time);
+        return new Tick(true);
+    }
+
+    // Run a command inside a tick, for callers that do not need the Tick itself
+    public static void during(Runnable command) {
+        Tick tick = tick();
+        try {
+            command.run();
+        } finally {
+            tick.close();
+        }
+    }
+
+    // Run a command that returns a result inside a tick
+    public static <T> T call(Supplier<T> command) {
+        Tick tick = tick();
+        try {
+            return command.get();
+        } finally {
+            tick.close();
+        }
+    }
+
+    // Run a command at a given time (see tickAt)
+    public static void duringAt(LocalDateTime time, Runnable command) {
+        Tick tick = tickAt(time);
+        try {
+            command.run();
+        } finally {
+            tick.close();
+        }
+    }
+
+    // Swap the underlying clock (fixed or offset clocks for simulation and offline runs)
+    public static void setClock(Clock newClock) {
+        clock = newClock;
+    }
+
+    public static Clock getClock() {
+        return clock;
+    }
+}
@@ -0,0 +1,6 @@
+package com.skyflow.model;
+
+// Named weather preset that can be applied in one step
+public record WeatherPreset(int id, String name, double windSpeed, int windDirection, double visibility,
+                            Weather.WeatherCondition condition) {
+}
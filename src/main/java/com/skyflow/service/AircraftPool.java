@@ -0,0 +1,150 @@
+package com.skyflow.service;
+
+import com.skyflow.model.AircraftType;
+import com.skyflow.model.Flight;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+// In-memory aircraft types bucketed by wake turbulence category for synthetic traffic.
+// Each bucket is an array plus a Walker/Vose alias table, so a (optionally fleet-share weighted)
+// random pick is one uniform draw and one array read - no sorting and no database access.
+public final class AircraftPool {
+    private final Map<Flight.WakeTurbulenceCategory, Bucket> buckets = new EnumMap<>(Flight.WakeTurbulenceCategory.class);
+    private final Bucket all;
+
+    // One category: the aircraft and their alias table
+    private static final class Bucket {
+        final AircraftType[] aircraft;
+        final double[] probability;
+        final int[] alias;
+        final double totalWeight;
+
+        Bucket(List<AircraftType> aircraft, double[] weights) {
+            this.aircraft = aircraft.toArray(new AircraftType[0]);
+            this.probability = new double[weights.length];
+            this.alias = new int[weights.length];
+            double total = 0;
+            for (double weight : weights) {
+                total += weight;
+            }
+            this.totalWeight = total;
+            buildAliasTable(weights, total, probability, alias);
+        }
+
+        AircraftType pick(RandomGenerator random) {
+            int column = random.nextInt(aircraft.length);
+            return random.nextDouble() < probability[column] ? aircraft[column] : aircraft[alias[column]];
+        }
+    }
+
+    // Uniform selection within each category
+    public AircraftPool(List<AircraftType> aircraftTypes) {
+        this(aircraftTypes, Map.of());
+    }
+
+    // Weighted selection: fleetShares maps aircraft name to a relative weight (missing names weigh 1, zero excludes)
+    public AircraftPool(List<AircraftType> aircraftTypes, Map<String, Double> fleetShares) {
+        Map<Flight.WakeTurbulenceCategory, List<AircraftType>> byCategory = new EnumMap<>(Flight.WakeTurbulenceCategory.class);
+        List<AircraftType> weighted = new ArrayList<>();
+
+        for (AircraftType aircraft : aircraftTypes) {
+            if (aircraft.turbulenceCategory() == null || weightOf(aircraft, fleetShares) <= 0) {
+                continue;
+            }
+            byCategory.computeIfAbsent(aircraft.turbulenceCategory(), category -> new ArrayList<>()).add(aircraft);
+            weighted.add(aircraft);
+        }
+
+        for (Map.Entry<Flight.WakeTurbulenceCategory, List<AircraftType>> entry : byCategory.entrySet()) {
+            buckets.put(entry.getKey(), new Bucket(entry.getValue(), weights(entry.getValue(), fleetShares)));
+        }
+        this.all = weighted.isEmpty() ? null : new Bucket(weighted, weights(weighted, fleetShares));
+    }
+
+    // Random aircraft of the category, or null when the pool has none
+    public AircraftType pick(Flight.WakeTurbulenceCategory category, RandomGenerator random) {
+        Bucket bucket = buckets.get(category);
+        return bucket == null ? null : bucket.pick(random);
+    }
+
+    // Random aircraft of any category, weighted across the whole fleet; null when the pool is empty
+    public AircraftType pickAny(RandomGenerator random) {
+        return all == null ? null : all.pick(random);
+    }
+
+    public boolean hasCategory(Flight.WakeTurbulenceCategory category) {
+        return buckets.containsKey(category);
+    }
+
+    public boolean isEmpty() {
+        return all == null;
+    }
+
+    public int size(Flight.WakeTurbulenceCategory category) {
+        Bucket bucket = buckets.get(category);
+        return bucket == null ? 0 : bucket.aircraft.length;
+    }
+
+    private static double weightOf(AircraftType aircraft, Map<String, Double> fleetShares) {
+        Double share = fleetShares.get(aircraft.name());
+        return share == null ? 1.0 : share;
+    }
+
+    private static double[] weights(List<AircraftType> aircraft, Map<String, Double> fleetShares) {
+        double[] weights = new double[aircraft.size()];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = weightOf(aircraft.get(i), fleetShares);
+        }
+        return weights;
+    }
+
+    // Vose's alias method: split every column into its own share plus one "alias" column topping it up to 1/n
+    private static void buildAliasTable(double[] weights, double total, double[] probability, int[] alias) {
+        int n = weights.length;
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / total;
+            if (scaled[i] < 1.0) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+
+            probability[less] = scaled[less];
+            alias[less] = more;
+
+            scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+            if (scaled[more] < 1.0) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+
+        // Whatever is left is (up to rounding) exactly full
+        while (largeCount > 0) {
+            int index = large[--largeCount];
+            probability[index] = 1.0;
+            alias[index] = index;
+        }
+        while (smallCount > 0) {
+            int index = small[--smallCount];
+            probability[index] = 1.0;
+            alias[index] = index;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.skyflow.service;
+
+// Point-in-time counters of a ReferenceCache
+public record CacheStats(long hits, long negativeHits, long misses, long loads,
+                         long totalLoadNanos, long evictions, int size) {
+
+    public double hitRate() {
+        long requests = hits + negativeHits + misses;
+        return requests == 0 ? 1.0 : (double) (hits + negativeHits) / requests;
+    }
+
+    public double averageLoadMillis() {
+        return loads == 0 ? 0.0 : totalLoadNanos / 1_000_000.0 / loads;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("size=%d hits=%d negativeHits=%d misses=%d hitRate=%.1f%% loads=%d avgLoad=%.2fms evictions=%d",
+                size, hits, negativeHits, misses, hitRate() * 100, loads, averageLoadMillis(), evictions);
+    }
+}
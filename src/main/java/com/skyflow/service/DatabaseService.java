@@ -1,128 +1,290 @@
 package com.skyflow.service;
 
-import com.skyflow.controller.DatabaseController;
+import com.skyflow.controller.ReferenceRepository;
+import com.skyflow.controller.RepositoryException;
+import com.skyflow.model.AircraftType;
+import com.skyflow.model.Airline;
 import com.skyflow.model.Flight;
+import com.skyflow.model.ReferencePool;
+import com.skyflow.model.WeatherPreset;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 public class DatabaseService {
-    private final DatabaseController databaseController;
-    private final Random random = new Random();
-    private Map<String, Map<String, String>> airlineCache;
-    private Map<String, Map<String, Object>> aircraftCache;
+    private final ReferenceRepository referenceRepository;
+    private final Path snapshotFile;
+    private volatile ReferenceSnapshot referenceSnapshot;
+    private volatile AircraftPool aircraftPool;
+    private Map<String, Double> fleetShares = Map.of(); // Guarded by this, like the pool rebuilds
+    private final ReferenceCache<String, Airline> airlineCache;
+    private final ReferenceCache<String, AircraftType> aircraftCache;
+    private final ExecutorService asyncExecutor;
+    private final Semaphore asyncPermits;
+
+    // Reference data changes rarely; unknown codes are retried sooner in case they get added
+    private static final int AIRLINE_CACHE_SIZE = 2000;
+    private static final int AIRCRAFT_CACHE_SIZE = 500;
+    private static final Duration CACHE_TTL = Duration.ofHours(1);
+    private static final Duration NEGATIVE_CACHE_TTL = Duration.ofMinutes(10);
+
+    // Warm-start file for the reference data, overridable with -Dskyflow.reference.snapshot=<path>. By default it
+    // sits next to the database file (<db file>.reference.bin), so each database gets its own.
+    private static final String SNAPSHOT_SUFFIX = ".reference.bin";
+    private static final String DEFAULT_SNAPSHOT_FILE = "skyflow-reference.bin";
+
+    // Async calls allowed to run at once, overridable with -Dskyflow.db.maxInFlight=<n>. The SQLite pool has only a
+    // few connections anyway; the cap keeps a burst of callers from piling up unbounded work behind them.
+    public static final int DEFAULT_MAX_IN_FLIGHT = 64;
 
     // Constructor
-    public DatabaseService(DatabaseController databaseController) {
-        this.databaseController = databaseController;
-        this.airlineCache = new HashMap<>();
-        this.aircraftCache = new HashMap<>();
-
-        // Pre-load some data for faster access
-        preloadCommonData();
-    }
-
-    // Preload common data to improve performance
-    private void preloadCommonData() {
-        // Cache some common airlines by code
-        List<Map<String, String>> airlines = databaseController.getAllAirlines();
-        for (Map<String, String> airline : airlines) {
-            String code = airline.get("code");
-            airlineCache.put(code, airline);
+    public DatabaseService(ReferenceRepository referenceRepository) {
+        this.referenceRepository = referenceRepository;
+        this.snapshotFile = snapshotFileFor(referenceRepository);
+        this.airlineCache = new ReferenceCache<>(AIRLINE_CACHE_SIZE, CACHE_TTL, NEGATIVE_CACHE_TTL);
+        this.aircraftCache = new ReferenceCache<>(AIRCRAFT_CACHE_SIZE, CACHE_TTL, NEGATIVE_CACHE_TTL);
+
+        // One virtual thread per async call: a call blocked on JDBC costs a parked stack, not a platform thread
+        this.asyncExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("database-async-", 0).factory());
+        this.asyncPermits = new Semaphore(Math.max(1, Integer.getInteger("skyflow.db.maxInFlight", DEFAULT_MAX_IN_FLIGHT)));
+
+        // Load all reference data once, from the warm-start file when it is still current
+        this.referenceSnapshot = ReferenceSnapshot.load(referenceRepository, snapshotFile);
+        this.aircraftPool = new AircraftPool(referenceSnapshot.getAircraftTypes(), fleetShares);
+        ReferencePool.shared().load(referenceSnapshot.getAirlines(), referenceSnapshot.getAircraftTypes());
+        System.out.println("Reference data: " + referenceSnapshot.getAirlines().size() + " airlines, "
+                + referenceSnapshot.getAircraftTypes().size() + " aircraft types, "
+                + referenceSnapshot.getWeatherPresets().size() + " weather presets");
+    }
+
+    private static Path snapshotFileFor(ReferenceRepository referenceRepository) {
+        String configured = System.getProperty("skyflow.reference.snapshot");
+        if (configured != null) {
+            return Paths.get(configured);
         }
+        String storageId = referenceRepository.getStorageId();
+        return Paths.get(storageId != null ? storageId + SNAPSHOT_SUFFIX : DEFAULT_SNAPSHOT_FILE);
+    }
+
+    // Reload the snapshot if the reference tables changed since it was taken
+    public synchronized void refreshReferenceData() {
+        if (referenceRepository.getReferenceDataVersion() != referenceSnapshot.getDataVersion()) {
+            referenceSnapshot = ReferenceSnapshot.load(referenceRepository, snapshotFile);
+            aircraftPool = new AircraftPool(referenceSnapshot.getAircraftTypes(), fleetShares);
+            ReferencePool.shared().load(referenceSnapshot.getAirlines(), referenceSnapshot.getAircraftTypes());
+            airlineCache.invalidateAll();
+            aircraftCache.invalidateAll();
+        }
+    }
+
+    public ReferenceSnapshot getReferenceSnapshot() {
+        return referenceSnapshot;
+    }
+
+    // Weight random aircraft selection by fleet share (aircraft name -> relative weight; unlisted types weigh 1).
+    // Synchronized with refreshReferenceData so neither rebuild of the pool can drop the other's change.
+    public synchronized void setFleetShares(Map<String, Double> fleetShares) {
+        this.fleetShares = Map.copyOf(fleetShares);
+        this.aircraftPool = new AircraftPool(referenceSnapshot.getAircraftTypes(), this.fleetShares);
+    }
 
-        System.out.println("Preloaded " + airlineCache.size() + " airlines into cache");
+    public AircraftPool getAircraftPool() {
+        return aircraftPool;
     }
 
     // Get airline name by code
     public String getAirlineNameByCode(String code) {
-        // Check cache first
-        if (airlineCache.containsKey(code)) {
-            return airlineCache.get(code).get("name");
+        Airline airline = getAirlineByCode(code);
+        if (airline != null) {
+            return airline.name();
         }
 
-        // Query database if not in cache
-        Map<String, String> airline = databaseController.getAirlineByCode(code);
+        return code + " Airlines"; // Default fallback
+    }
+
+    // Get airline by ICAO code: from the snapshot, then the cache - including codes the database does not know
+    public Airline getAirlineByCode(String icaoCode) {
+        Airline airline = referenceSnapshot.getAirline(icaoCode);
         if (airline != null) {
-            // Add to cache
-            airlineCache.put(code, airline);
-            return airline.get("name");
+            return airline;
         }
+        return cached(airlineCache, icaoCode, referenceRepository::getAirlineByCode);
+    }
 
-        return code + " Airlines"; // Default fallback
+    // Get aircraft details by name
+    public AircraftType getAircraftByName(String name) {
+        AircraftType aircraft = referenceSnapshot.getAircraft(name);
+        if (aircraft != null) {
+            return aircraft;
+        }
+        return cached(aircraftCache, name, referenceRepository::getAircraftByName);
     }
 
-    // Get airline by ICAO code from db
-    public Map<String, String> getAirlineByCode(String icaoCode) {
-        // Check cache first
-        if (airlineCache.containsKey(icaoCode)) {
-            return airlineCache.get(icaoCode);
+    // Resolve many airline codes at once: snapshot and cache hits are served from memory, the rest in one batched query
+    public Map<String, Airline> getAirlinesByCodes(Set<String> codes) {
+        Map<String, Airline> result = new HashMap<>();
+        Set<String> missing = resolveFromSnapshot(codes, referenceSnapshot::getAirline, result);
+        if (!missing.isEmpty()) {
+            result.putAll(cachedAll(airlineCache, missing, referenceRepository::getAirlinesByCodes));
         }
+        return result;
+    }
 
-        // Query database if not in cache
-        Map<String, String> airline = databaseController.getAirlineByCode(icaoCode);
-        if (airline != null) {
-            // Add to cache
-            airlineCache.put(icaoCode, airline);
-            return airline;
+    // Resolve many aircraft names at once: snapshot and cache hits are served from memory, the rest in one batched query
+    public Map<String, AircraftType> getAircraftByNames(Set<String> names) {
+        Map<String, AircraftType> result = new HashMap<>();
+        Set<String> missing = resolveFromSnapshot(names, referenceSnapshot::getAircraft, result);
+        if (!missing.isEmpty()) {
+            result.putAll(cachedAll(aircraftCache, missing, referenceRepository::getAircraftByNames));
         }
+        return result;
+    }
 
-        return null;
+    // Put every key the snapshot knows into result; returns the keys it does not know
+    private static <T> Set<String> resolveFromSnapshot(Set<String> keys, Function<String, T> lookup,
+                                                       Map<String, T> result) {
+        Set<String> missing = new HashSet<>();
+        for (String key : keys) {
+            T value = lookup.apply(key);
+            if (value != null) {
+                result.put(key, value);
+            } else {
+                missing.add(key);
+            }
+        }
+        return missing;
     }
 
-    // Get aircraft details by name with caching
-    public Map<String, Object> getAircraftByName(String name) {
-        // Check cache first
-        if (aircraftCache.containsKey(name)) {
-            return aircraftCache.get(name);
+    // Cache-backed repository lookups. A failed lookup is logged and answered as "not found" for this call
+    // only - the cache does not keep it, so the next lookup goes to the repository again.
+    private static <V> V cached(ReferenceCache<String, V> cache, String key, Function<String, V> loader) {
+        try {
+            return cache.get(key, loader);
+        } catch (RepositoryException e) {
+            System.err.println(e.getMessage() + ": " + e.getCause().getMessage());
+            return null;
         }
+    }
 
-        // Query database if not in cache
-        Map<String, Object> aircraft = databaseController.getAircraftByName(name);
-        if (aircraft != null) {
-            // Add to cache
-            aircraftCache.put(name, aircraft);
-            return aircraft;
+    private static <V> Map<String, V> cachedAll(ReferenceCache<String, V> cache, Set<String> keys,
+                                                Function<Set<String>, Map<String, V>> batchLoader) {
+        try {
+            return cache.getAll(keys, batchLoader);
+        } catch (RepositoryException e) {
+            System.err.println(e.getMessage() + ": " + e.getCause().getMessage());
+            return Map.of();
+        }
+    }
+
+    // Asynchronous variants. Anything the in-memory snapshot can answer completes immediately on the calling
+    // thread; only lookups that have to reach the repository run on the async executor, so a caller can keep
+    // working (or return to the event loop) while they are in flight.
+
+    public CompletableFuture<Map<String, Airline>> getAirlinesByCodesAsync(Set<String> codes) {
+        Map<String, Airline> result = new HashMap<>();
+        Set<String> missing = resolveFromSnapshot(codes, referenceSnapshot::getAirline, result);
+        if (missing.isEmpty()) {
+            return CompletableFuture.completedFuture(result);
         }
+        return async(() -> {
+            result.putAll(cachedAll(airlineCache, missing, referenceRepository::getAirlinesByCodes));
+            return result;
+        });
+    }
+
+    public CompletableFuture<Map<String, AircraftType>> getAircraftByNamesAsync(Set<String> names) {
+        Map<String, AircraftType> result = new HashMap<>();
+        Set<String> missing = resolveFromSnapshot(names, referenceSnapshot::getAircraft, result);
+        if (missing.isEmpty()) {
+            return CompletableFuture.completedFuture(result);
+        }
+        return async(() -> {
+            result.putAll(cachedAll(aircraftCache, missing, referenceRepository::getAircraftByNames));
+            return result;
+        });
+    }
+
+    // Check the reference data version (one query) and reload the snapshot if it changed
+    public CompletableFuture<Void> refreshReferenceDataAsync() {
+        return async(() -> {
+            refreshReferenceData();
+            return null;
+        });
+    }
+
+    // Presets after making sure the snapshot is current
+    public CompletableFuture<List<WeatherPreset>> getAllWeatherPresetsAsync() {
+        return refreshReferenceDataAsync().thenApply(ignored -> getAllWeatherPresets());
+    }
+
+    public CompletableFuture<WeatherPreset> getWeatherPresetByNameAsync(String name) {
+        return refreshReferenceDataAsync().thenApply(ignored -> getWeatherPresetByName(name));
+    }
+
+    // Run a blocking call on its own virtual thread once one of the in-flight permits is free.
+    // Waiting for a permit parks the virtual thread, never the caller.
+    private <T> CompletableFuture<T> async(Supplier<T> call) {
+        return CompletableFuture.supplyAsync(() -> {
+            asyncPermits.acquireUninterruptibly();
+            try {
+                return call.get();
+            } finally {
+                asyncPermits.release();
+            }
+        }, asyncExecutor);
+    }
 
-        return null;
+    // Stop accepting async calls; calls already running finish on their own
+    public void close() {
+        asyncExecutor.shutdown();
+    }
+
+    public CacheStats getAirlineCacheStats() {
+        return airlineCache.stats();
+    }
+
+    public CacheStats getAircraftCacheStats() {
+        return aircraftCache.stats();
     }
 
     // Get fuel capacity for an aircraft
     public int getAircraftFuelCapacity(String aircraftName) {
-        Map<String, Object> aircraft = getAircraftByName(aircraftName);
+        AircraftType aircraft = getAircraftByName(aircraftName);
         if (aircraft != null) {
-            return (int) aircraft.get("fuelCapacity");
+            return aircraft.fuelCapacity();
         }
         return 5000; // Default value if not found
     }
 
     // Get all aircraft of a specific category
-    public List<Map<String, Object>> getAircraftByCategory(Flight.WakeTurbulenceCategory category) {
-        return databaseController.getAircraftByCategory(category);
+    public List<AircraftType> getAircraftByCategory(Flight.WakeTurbulenceCategory category) {
+        return referenceSnapshot.getAircraftByCategory(category);
     }
 
-    // Get a random aircraft from a specific category
-    public Map<String, Object> getRandomAircraftByCategory(Flight.WakeTurbulenceCategory category) {
-        List<Map<String, Object>> aircraftList = getAircraftByCategory(category);
-
-        if (aircraftList != null && !aircraftList.isEmpty()) {
-            // Pick a random aircraft from the list
-            int randomIndex = random.nextInt(aircraftList.size());
-            return aircraftList.get(randomIndex);
-        }
-
-        return null;
+    // Get a random aircraft from a specific category (null if there is none) - one draw from the in-memory pool
+    public AircraftType getRandomAircraftByCategory(Flight.WakeTurbulenceCategory category) {
+        return aircraftPool.pick(category, ThreadLocalRandom.current());
     }
 
-    public List<Map<String, Object>> getAllWeatherPresets() {
-        return databaseController.getAllWeatherPresets();
+    public List<WeatherPreset> getAllWeatherPresets() {
+        return referenceSnapshot.getWeatherPresets();
     }
 
-    public Map<String, Object> getWeatherPresetByName(String name) {
-        return databaseController.getWeatherPresetByName(name);
+    public WeatherPreset getWeatherPresetByName(String name) {
+        return referenceSnapshot.getWeatherPreset(name);
     }
 
-}
\ No newline at end of file
+}
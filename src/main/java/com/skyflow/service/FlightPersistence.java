@@ -0,0 +1,212 @@
+package com.skyflow.service;
+
+import com.skyflow.controller.FlightChangeListener;
+import com.skyflow.controller.FlightRepository;
+import com.skyflow.model.Flight;
+import com.skyflow.model.FlightSnapshot;
+import com.skyflow.model.Runway;
+import com.skyflow.util.LongHashMap;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Write-behind persistence for flights and runway assignments. A change notification only records which flight
+// is dirty (by its numeric key, so a scheduling pass that touches every flight allocates nothing). Once per flush
+// interval the dirty flights are snapshotted on the thread that owns them and the snapshots are written by a
+// background thread as one batched transaction, so the scheduling tick never waits for SQLite and the writer
+// never reads a Flight mid-change.
+// A flight that changes many times between flushes is snapshotted and written once.
+public class FlightPersistence implements FlightChangeListener, AutoCloseable {
+    public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofSeconds(2);
+
+    private final FlightRepository flightRepository;
+    private final Duration flushInterval;
+    private final Executor ownerThread;
+
+    // Owner thread only: flights changed or removed since the last capture
+    private final LongHashMap<Flight> dirtyFlights = new LongHashMap<>();
+    private final List<String> removedFlights = new ArrayList<>();
+
+    // Captured and waiting for the writer (guarded by this; a newer snapshot replaces an older one)
+    private Map<String, FlightSnapshot> pendingChanged = new LinkedHashMap<>();
+    private Set<String> pendingRemoved = new LinkedHashSet<>();
+
+    private ScheduledExecutorService executor;
+
+    private long flushes;
+    private long flightsWritten;
+
+    // Constructor - change notifications come on the calling thread, which also takes the snapshots
+    public FlightPersistence(FlightRepository flightRepository, Duration flushInterval) {
+        this(flightRepository, flushInterval, Runnable::run);
+    }
+
+    // Change notifications come on the thread behind ownerThread (e.g. Platform::runLater), where the
+    // background writer has the dirty flights snapshotted before each write
+    public FlightPersistence(FlightRepository flightRepository, Duration flushInterval, Executor ownerThread) {
+        this.flightRepository = flightRepository;
+        this.flushInterval = flushInterval;
+        this.ownerThread = ownerThread;
+    }
+
+    // Load every stored flight in one read, linking assignments to the given runways
+    public List<Flight> loadAll(List<Runway> runways) {
+        Map<String, Runway> runwaysById = new HashMap<>();
+        for (Runway runway : runways) {
+            runwaysById.put(runway.getId(), runway);
+        }
+
+        List<Flight> flights = flightRepository.loadFlights(runwaysById);
+        System.out.println("Restored " + flights.size() + " flights from the database");
+        return flights;
+    }
+
+    // Start flushing on a background thread. Each round writes what the previous round captured, then has the
+    // owner thread capture the next batch, so neither thread ever waits for the other.
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "flight-persistence");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = flushInterval.toMillis();
+        executor.scheduleWithFixedDelay(() -> {
+            writeQuietly();
+            ownerThread.execute(this::capture);
+        }, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void flightChanged(Flight flight) {
+        dirtyFlights.put(flight.getKey(), flight);
+    }
+
+    @Override
+    public void flightRemoved(Flight flight) {
+        dirtyFlights.remove(flight.getKey());
+        removedFlights.add(flight.getId());
+    }
+
+    // Snapshot the dirty flights and queue them for the writer; owner thread only
+    public void capture() {
+        if (dirtyFlights.isEmpty() && removedFlights.isEmpty()) {
+            return;
+        }
+
+        List<FlightSnapshot> changed = new ArrayList<>(dirtyFlights.size());
+        dirtyFlights.forEachValue(flight -> changed.add(FlightSnapshot.of(flight)));
+        dirtyFlights.clear();
+        List<String> removed = new ArrayList<>(removedFlights);
+        removedFlights.clear();
+
+        synchronized (this) {
+            for (FlightSnapshot flight : changed) {
+                pendingChanged.put(flight.id(), flight);
+                pendingRemoved.remove(flight.id());
+            }
+            for (String id : removed) {
+                pendingChanged.remove(id);
+                pendingRemoved.add(id);
+            }
+        }
+    }
+
+    // Capture and write everything that changed so far; owner thread only. Returns the number of flights written.
+    public int flush() throws SQLException {
+        capture();
+        return write();
+    }
+
+    // Write the captured batch; returns the number of flights written
+    private synchronized int write() throws SQLException {
+        if (pendingChanged.isEmpty() && pendingRemoved.isEmpty()) {
+            return 0;
+        }
+
+        // Take the whole batch so captures arriving meanwhile start a new one
+        Map<String, FlightSnapshot> changed = pendingChanged;
+        Set<String> removed = pendingRemoved;
+        pendingChanged = new LinkedHashMap<>();
+        pendingRemoved = new LinkedHashSet<>();
+
+        try {
+            flightRepository.saveFlights(changed.values(), removed);
+        } catch (SQLException | RuntimeException e) {
+            // Put the batch back (newer captures win) and retry on the next flush
+            for (FlightSnapshot flight : changed.values()) {
+                if (!pendingRemoved.contains(flight.id())) {
+                    pendingChanged.putIfAbsent(flight.id(), flight);
+                }
+            }
+            for (String id : removed) {
+                if (!pendingChanged.containsKey(id)) {
+                    pendingRemoved.add(id);
+                }
+            }
+            throw e;
+        }
+
+        flushes++;
+        flightsWritten += changed.size();
+        return changed.size();
+    }
+
+    private void writeQuietly() {
+        try {
+            write();
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Error persisting flights: " + e.getMessage());
+        }
+    }
+
+    // Flights captured but not yet written
+    public synchronized int getPendingCount() {
+        return pendingChanged.size() + pendingRemoved.size();
+    }
+
+    public synchronized long getFlushes() {
+        return flushes;
+    }
+
+    public synchronized long getFlightsWritten() {
+        return flightsWritten;
+    }
+
+    // Stop the background thread and write whatever is still pending; call on the owner thread
+    @Override
+    public void close() {
+        ScheduledExecutorService running;
+        synchronized (this) {
+            running = executor;
+            executor = null;
+        }
+        if (running != null) {
+            running.shutdown();
+            try {
+                running.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            flush();
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Error persisting flights: " + e.getMessage());
+        }
+    }
+}
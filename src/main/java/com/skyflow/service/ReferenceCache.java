@@ -0,0 +1,210 @@
+package com.skyflow.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+// Thread-safe cache for reference data (airlines, aircraft types).
+// Entries expire a fixed time after they were loaded; lookups that found nothing are cached too
+// (with their own, usually shorter, lifetime) so unknown keys do not hit the database on every import.
+// A loader that fails must throw rather than return null: the exception reaches the caller and nothing is cached.
+// When the cache grows past its maximum size the least recently used entries are evicted.
+public class ReferenceCache<K, V> {
+    // Evict down to this fraction of the maximum so eviction scans are amortised over many inserts
+    private static final double EVICTION_TARGET = 0.9;
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final Object evictionLock = new Object();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder totalLoadNanos = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    // A cached value, or a cached "not found" when value is null
+    private static final class Entry<V> {
+        final V value;
+        final long expiresAt;
+        volatile long lastAccess;
+
+        Entry(V value, long expiresAt, long now) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.lastAccess = now;
+        }
+    }
+
+    private record Candidate<K, V>(K key, Entry<V> entry, long lastAccess) {
+    }
+
+    // Constructor
+    public ReferenceCache(int maxSize, Duration ttl, Duration negativeTtl) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.negativeTtlNanos = negativeTtl.toNanos();
+    }
+
+    // Get a value, loading it on a miss; returns null when the loader found nothing (that answer is cached too).
+    // If the loader throws, the exception propagates and the key stays uncached.
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        long now = System.nanoTime();
+        Entry<V> entry = lookup(key, now);
+        if (entry != null) {
+            return entry.value;
+        }
+
+        long start = System.nanoTime();
+        V value = loader.apply(key);
+        recordLoad(System.nanoTime() - start);
+
+        store(key, value, System.nanoTime());
+        return value;
+    }
+
+    // Resolve many keys at once: cached keys are served from memory, the misses go to the batch loader in one call.
+    // Keys the batch loader does not return are cached as "not found" and left out of the result; if it throws,
+    // none of the missing keys are cached.
+    public Map<K, V> getAll(Collection<? extends K> keys, Function<? super Set<K>, ? extends Map<K, V>> batchLoader) {
+        long now = System.nanoTime();
+        Map<K, V> result = new HashMap<>();
+        Set<K> missing = new HashSet<>();
+
+        for (K key : keys) {
+            Entry<V> entry = lookup(key, now);
+            if (entry == null) {
+                missing.add(key);
+            } else if (entry.value != null) {
+                result.put(key, entry.value);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            long start = System.nanoTime();
+            Map<K, V> loaded = batchLoader.apply(missing);
+            recordLoad(System.nanoTime() - start);
+
+            long loadedAt = System.nanoTime();
+            for (K key : missing) {
+                V value = loaded.get(key);
+                store(key, value, loadedAt);
+                if (value != null) {
+                    result.put(key, value);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    // Insert a known value, e.g. during preloading
+    public void put(K key, V value) {
+        store(key, value, System.nanoTime());
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), negativeHits.sum(), misses.sum(), loads.sum(),
+                totalLoadNanos.sum(), evictions.sum(), entries.size());
+    }
+
+    // Find a live entry and record the outcome; expired entries are dropped and count as misses
+    private Entry<V> lookup(K key, long now) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null && now - entry.expiresAt >= 0) {
+            entries.remove(key, entry);
+            entry = null;
+        }
+
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+
+        entry.lastAccess = now;
+        if (entry.value == null) {
+            negativeHits.increment();
+        } else {
+            hits.increment();
+        }
+        return entry;
+    }
+
+    private void store(K key, V value, long now) {
+        long lifetime = value == null ? negativeTtlNanos : ttlNanos;
+        entries.put(key, new Entry<>(value, now + lifetime, now));
+        if (entries.size() > maxSize) {
+            evict();
+        }
+    }
+
+    // Drop expired entries first, then the least recently used ones until we are back under the target size
+    private void evict() {
+        synchronized (evictionLock) {
+            if (entries.size() <= maxSize) {
+                return; // Another thread already made room
+            }
+
+            long now = System.nanoTime();
+            List<Candidate<K, V>> candidates = new ArrayList<>(entries.size());
+            for (Map.Entry<K, Entry<V>> mapping : entries.entrySet()) {
+                Entry<V> entry = mapping.getValue();
+                if (now - entry.expiresAt >= 0) {
+                    if (entries.remove(mapping.getKey(), entry)) {
+                        evictions.increment();
+                    }
+                } else {
+                    // Snapshot the access time - it keeps moving while we sort
+                    candidates.add(new Candidate<>(mapping.getKey(), entry, entry.lastAccess));
+                }
+            }
+
+            int target = (int) (maxSize * EVICTION_TARGET);
+            if (entries.size() <= target) {
+                return;
+            }
+
+            candidates.sort(Comparator.comparingLong(Candidate::lastAccess));
+            for (Candidate<K, V> candidate : candidates) {
+                if (entries.size() <= target) {
+                    break;
+                }
+                if (entries.remove(candidate.key(), candidate.entry())) {
+                    evictions.increment();
+                }
+            }
+        }
+    }
+
+    private void recordLoad(long nanos) {
+        loads.increment();
+        totalLoadNanos.add(nanos);
+    }
+}
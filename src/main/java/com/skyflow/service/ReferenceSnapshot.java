@@ -0,0 +1,285 @@
+package com.skyflow.service;
+
+import com.skyflow.controller.ReferenceRepository;
+import com.skyflow.controller.RowMappers;
+import com.skyflow.model.AircraftType;
+import com.skyflow.model.Airline;
+import com.skyflow.model.Flight;
+import com.skyflow.model.Weather;
+import com.skyflow.model.WeatherPreset;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// Immutable, hash-indexed copy of all reference data (airlines, aircraft types, weather presets).
+// Lookups are plain map reads returning shared records, so they never touch SQLite or allocate.
+// A snapshot can be saved to a compact binary file and memory-mapped on the next start; the file is
+// only trusted while it was taken from the same database (its storage id) and its data version matches that
+// database's reference_version counter.
+public final class ReferenceSnapshot {
+    static final int MAGIC = 0x534B5952; // "SKYR"
+    static final int FORMAT_VERSION = 2;
+
+    private final String source;
+    private final long dataVersion;
+    private final List<Airline> airlines;
+    private final List<AircraftType> aircraftTypes;
+    private final List<WeatherPreset> weatherPresets;
+    private final Map<String, Airline> airlinesByCode;
+    private final Map<String, AircraftType> aircraftByName;
+    private final Map<Flight.WakeTurbulenceCategory, List<AircraftType>> aircraftByCategory;
+    private final Map<String, WeatherPreset> presetsByName;
+
+    // Constructor; source is the storage id of the repository the data came from (null if unknown)
+    public ReferenceSnapshot(String source, long dataVersion, List<Airline> airlines, List<AircraftType> aircraftTypes,
+                             List<WeatherPreset> weatherPresets) {
+        this.source = source;
+        this.dataVersion = dataVersion;
+        this.airlines = List.copyOf(airlines);
+        this.aircraftTypes = List.copyOf(aircraftTypes);
+        this.weatherPresets = List.copyOf(weatherPresets);
+
+        Map<String, Airline> airlineIndex = new HashMap<>(capacityFor(airlines.size()));
+        for (Airline airline : this.airlines) {
+            airlineIndex.put(airline.icaoCode(), airline);
+        }
+        this.airlinesByCode = Collections.unmodifiableMap(airlineIndex);
+
+        Map<String, AircraftType> aircraftIndex = new HashMap<>(capacityFor(aircraftTypes.size()));
+        Map<Flight.WakeTurbulenceCategory, List<AircraftType>> categoryIndex =
+                new EnumMap<>(Flight.WakeTurbulenceCategory.class);
+        for (AircraftType aircraft : this.aircraftTypes) {
+            aircraftIndex.put(aircraft.name(), aircraft);
+            if (aircraft.turbulenceCategory() != null) {
+                categoryIndex.computeIfAbsent(aircraft.turbulenceCategory(), category -> new ArrayList<>()).add(aircraft);
+            }
+        }
+        categoryIndex.replaceAll((category, list) -> List.copyOf(list));
+        this.aircraftByName = Collections.unmodifiableMap(aircraftIndex);
+        this.aircraftByCategory = Collections.unmodifiableMap(categoryIndex);
+
+        Map<String, WeatherPreset> presetIndex = new HashMap<>(capacityFor(weatherPresets.size()));
+        for (WeatherPreset preset : this.weatherPresets) {
+            presetIndex.put(preset.name(), preset);
+        }
+        this.presetsByName = Collections.unmodifiableMap(presetIndex);
+    }
+
+    // Read every reference table once
+    public static ReferenceSnapshot fromRepository(ReferenceRepository repository) {
+        long version = repository.getReferenceDataVersion();
+        return new ReferenceSnapshot(repository.getStorageId(), version, repository.getAllAirlines(),
+                repository.getAllAircraft(), repository.getAllWeatherPresets());
+    }
+
+    // Use the warm-start file when it was taken from this database at its current version; otherwise read the
+    // tables and rewrite the file. A repository that is not persistent has nothing a file could stay valid for,
+    // and a version that cannot be read proves nothing, so both are always read directly.
+    public static ReferenceSnapshot load(ReferenceRepository repository, Path file) {
+        if (!repository.isPersistent()) {
+            return fromRepository(repository);
+        }
+        long version = repository.getReferenceDataVersion();
+        if (version < 0) {
+            return fromRepository(repository);
+        }
+
+        ReferenceSnapshot cached = readFile(file);
+        if (cached != null && cached.dataVersion == version && Objects.equals(cached.source, repository.getStorageId())) {
+            System.out.println("Loaded reference data snapshot v" + cached.dataVersion + " from " + file);
+            return cached;
+        }
+
+        ReferenceSnapshot snapshot = fromRepository(repository);
+        if (snapshot.dataVersion >= 0) {
+            try {
+                snapshot.writeFile(file);
+            } catch (IOException e) {
+                System.err.println("Error writing reference data snapshot: " + e.getMessage());
+            }
+        }
+        return snapshot;
+    }
+
+    // Memory-map a snapshot file; returns null when it is missing, from another format version or damaged
+    public static ReferenceSnapshot readFile(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                return null;
+            }
+            String source = getString(buffer);
+            long version = buffer.getLong();
+
+            int airlineCount = buffer.getInt();
+            List<Airline> airlines = new ArrayList<>(airlineCount);
+            for (int i = 0; i < airlineCount; i++) {
+                airlines.add(new Airline(getString(buffer), getString(buffer)));
+            }
+
+            int aircraftCount = buffer.getInt();
+            List<AircraftType> aircraftTypes = new ArrayList<>(aircraftCount);
+            for (int i = 0; i < aircraftCount; i++) {
+                aircraftTypes.add(new AircraftType(buffer.getInt(), getString(buffer), buffer.getInt(), buffer.getInt(),
+                        getString(buffer), RowMappers.turbulenceCategory(getString(buffer))));
+            }
+
+            int presetCount = buffer.getInt();
+            List<WeatherPreset> presets = new ArrayList<>(presetCount);
+            for (int i = 0; i < presetCount; i++) {
+                presets.add(new WeatherPreset(buffer.getInt(), getString(buffer), buffer.getDouble(), buffer.getInt(),
+                        buffer.getDouble(), Weather.WeatherCondition.valueOf(getString(buffer))));
+            }
+
+            return new ReferenceSnapshot(source, version, airlines, aircraftTypes, presets);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ignoring unreadable reference data snapshot " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Write the snapshot next to the target and move it into place, so readers never see a partial file
+    public void writeFile(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(estimateSize());
+        buffer.putInt(MAGIC).putInt(FORMAT_VERSION);
+        putString(buffer, source);
+        buffer.putLong(dataVersion);
+
+        buffer.putInt(airlines.size());
+        for (Airline airline : airlines) {
+            putString(buffer, airline.icaoCode());
+            putString(buffer, airline.name());
+        }
+
+        buffer.putInt(aircraftTypes.size());
+        for (AircraftType aircraft : aircraftTypes) {
+            buffer.putInt(aircraft.id());
+            putString(buffer, aircraft.name());
+            buffer.putInt(aircraft.fuelCapacity()).putInt(aircraft.weight());
+            putString(buffer, aircraft.aircraftType());
+            putString(buffer, categoryName(aircraft));
+        }
+
+        buffer.putInt(weatherPresets.size());
+        for (WeatherPreset preset : weatherPresets) {
+            buffer.putInt(preset.id());
+            putString(buffer, preset.name());
+            buffer.putDouble(preset.windSpeed()).putInt(preset.windDirection()).putDouble(preset.visibility());
+            putString(buffer, preset.condition().name());
+        }
+        buffer.flip();
+
+        Path absolute = file.toAbsolutePath();
+        Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public long getDataVersion() {
+        return dataVersion;
+    }
+
+    public Airline getAirline(String icaoCode) {
+        return airlinesByCode.get(icaoCode);
+    }
+
+    public AircraftType getAircraft(String name) {
+        return aircraftByName.get(name);
+    }
+
+    public List<AircraftType> getAircraftByCategory(Flight.WakeTurbulenceCategory category) {
+        return aircraftByCategory.getOrDefault(category, List.of());
+    }
+
+    public WeatherPreset getWeatherPreset(String name) {
+        return presetsByName.get(name);
+    }
+
+    public List<Airline> getAirlines() {
+        return airlines;
+    }
+
+    public List<AircraftType> getAircraftTypes() {
+        return aircraftTypes;
+    }
+
+    public List<WeatherPreset> getWeatherPresets() {
+        return weatherPresets;
+    }
+
+    private static String categoryName(AircraftType aircraft) {
+        return aircraft.turbulenceCategory() == null ? "" : aircraft.turbulenceCategory().name();
+    }
+
+    // Upper bound for the encoded size: fixed-width fields plus worst-case UTF-8 strings
+    private int estimateSize() {
+        int size = 28 + stringSize(source);
+        for (Airline airline : airlines) {
+            size += stringSize(airline.icaoCode()) + stringSize(airline.name());
+        }
+        for (AircraftType aircraft : aircraftTypes) {
+            size += 12 + stringSize(aircraft.name()) + stringSize(aircraft.aircraftType())
+                    + stringSize(categoryName(aircraft));
+        }
+        for (WeatherPreset preset : weatherPresets) {
+            size += 24 + stringSize(preset.name()) + stringSize(preset.condition().name());
+        }
+        return size;
+    }
+
+    private static int stringSize(String value) {
+        return 4 + (value == null ? 0 : value.length() * 3);
+    }
+
+    // Strings are stored as an int byte length (-1 for null) followed by UTF-8 bytes
+    private static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(bytes.length).put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int capacityFor(int size) {
+        return (int) (size / 0.75f) + 1;
+    }
+}
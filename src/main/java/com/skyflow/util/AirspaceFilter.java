@@ -0,0 +1,133 @@
+package com.skyflow.util;
+
+import com.skyflow.model.Airport;
+
+import java.util.Locale;
+
+// Keeps only aircraft within a radius and altitude band of an airport. The test is a degree
+// bounding box first, so almost every aircraft on the planet is rejected with two comparisons,
+// followed by a great-circle distance for the few inside the box.
+public class AirspaceFilter {
+    private static final double EARTH_RADIUS_NM = 3440.065;
+    private static final double FEET_PER_METER = 3.28084;
+
+    private final Airport airport;
+    private final double radiusNm;
+    private final double minAltitudeFeet;
+    private final double maxAltitudeFeet;
+
+    // Bounding box of the radius, in degrees. Longitudes are kept in [-180, 180]; a box that crosses the
+    // antimeridian has minLongitude > maxLongitude and covers [minLongitude, 180] plus [-180, maxLongitude].
+    private final double minLatitude;
+    private final double maxLatitude;
+    private final double minLongitude;
+    private final double maxLongitude;
+    private final boolean crossesAntimeridian;
+
+    // Constructor
+    public AirspaceFilter(Airport airport, double radiusNm, double minAltitudeFeet, double maxAltitudeFeet) {
+        this.airport = airport;
+        this.radiusNm = radiusNm;
+        this.minAltitudeFeet = minAltitudeFeet;
+        this.maxAltitudeFeet = maxAltitudeFeet;
+
+        // One degree of latitude is 60 NM; a degree of longitude shrinks with cos(latitude)
+        double latitudeSpan = radiusNm / 60.0;
+        double longitudeSpan = radiusNm / (60.0 * Math.max(0.01, Math.cos(Math.toRadians(airport.latitude()))));
+        this.minLatitude = airport.latitude() - latitudeSpan;
+        this.maxLatitude = airport.latitude() + latitudeSpan;
+        if (longitudeSpan >= 180) {
+            // Close to a pole the radius covers every longitude
+            this.minLongitude = -180;
+            this.maxLongitude = 180;
+        } else {
+            this.minLongitude = wrapLongitude(airport.longitude() - longitudeSpan);
+            this.maxLongitude = wrapLongitude(airport.longitude() + longitudeSpan);
+        }
+        this.crossesAntimeridian = minLongitude > maxLongitude;
+    }
+
+    // Longitude in [-180, 180]
+    private static double wrapLongitude(double longitude) {
+        if (longitude > 180) {
+            return longitude - 360;
+        }
+        if (longitude < -180) {
+            return longitude + 360;
+        }
+        return longitude;
+    }
+
+    // Default terminal airspace: 80 NM around the airport, surface to FL450
+    public static AirspaceFilter around(Airport airport) {
+        return new AirspaceFilter(airport, 80, 0, 45000);
+    }
+
+    // Check a position (degrees) and barometric altitude (meters, NaN if unknown)
+    public boolean accepts(double latitude, double longitude, double altitudeMeters, boolean onGround) {
+        // Aircraft without a position cannot be placed relative to the airport
+        if (Double.isNaN(latitude) || Double.isNaN(longitude)) {
+            return false;
+        }
+
+        if (latitude < minLatitude || latitude > maxLatitude) {
+            return false;
+        }
+        boolean insideLongitudes = crossesAntimeridian
+                ? longitude >= minLongitude || longitude <= maxLongitude
+                : longitude >= minLongitude && longitude <= maxLongitude;
+        if (!insideLongitudes) {
+            return false;
+        }
+
+        // Aircraft on the ground often report no altitude; treat them as at field elevation
+        double altitudeFeet = Double.isNaN(altitudeMeters)
+                ? (onGround ? airport.elevationFeet() : Double.NaN)
+                : altitudeMeters * FEET_PER_METER;
+        if (Double.isNaN(altitudeFeet) || altitudeFeet < minAltitudeFeet || altitudeFeet > maxAltitudeFeet) {
+            return false;
+        }
+
+        return distanceNm(latitude, longitude) <= radiusNm;
+    }
+
+    public boolean accepts(StateVector vector) {
+        return accepts(vector.latitude(), vector.longitude(), vector.baroAltitude(), vector.onGround());
+    }
+
+    // Great-circle (haversine) distance from the airport reference point
+    public double distanceNm(double latitude, double longitude) {
+        double lat1 = Math.toRadians(airport.latitude());
+        double lat2 = Math.toRadians(latitude);
+        double dLat = lat2 - lat1;
+        double dLon = Math.toRadians(longitude - airport.longitude());
+
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(lat1) * Math.cos(lat2) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_NM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    // OpenSky bounding-box query parameters, so the API only returns aircraft near the airport.
+    // The API cannot express a box across the antimeridian, so such a box asks for the whole latitude band.
+    public String toQueryString() {
+        return String.format(Locale.ROOT, "?lamin=%.4f&lomin=%.4f&lamax=%.4f&lomax=%.4f",
+                minLatitude, crossesAntimeridian ? -180.0 : minLongitude,
+                maxLatitude, crossesAntimeridian ? 180.0 : maxLongitude);
+    }
+
+    public Airport getAirport() {
+        return airport;
+    }
+
+    public double getRadiusNm() {
+        return radiusNm;
+    }
+
+    public double getMinAltitudeFeet() {
+        return minAltitudeFeet;
+    }
+
+    public double getMaxAltitudeFeet() {
+        return maxAltitudeFeet;
+    }
+}
@@ -0,0 +1,78 @@
+package com.skyflow.util;
+
+import com.skyflow.model.Airport;
+
+import java.util.List;
+
+// Kinematic time-to-go estimate for arriving aircraft, computed for a whole snapshot at once.
+// The kernel works on parallel primitive arrays with no branches or allocation in the loop,
+// which keeps it in a form the JIT can auto-vectorise.
+public class EtaEstimator {
+    // Arrivals whose ETA moves by less than this are left alone so the scheduler does not churn on noise
+    public static final long DEFAULT_UPDATE_THRESHOLD_SECONDS = 60;
+
+    private static final double METERS_PER_NM = 1852.0;
+    private static final double METERS_PER_FOOT = 0.3048;
+
+    // Descent rate assumed when an aircraft is level or descending slower than a normal approach (m/s, ~1500 ft/min)
+    private static final double STANDARD_DESCENT_RATE = 7.62;
+
+    private final double airportLatitude;
+    private final double airportLongitude;
+    private final double fieldElevationMeters;
+    private final double metersPerDegreeLatitude;
+    private final double metersPerDegreeLongitude;
+
+    // Constructor - the airport reference point stands in for the runway threshold
+    public EtaEstimator(Airport airport) {
+        this.airportLatitude = airport.latitude();
+        this.airportLongitude = airport.longitude();
+        this.fieldElevationMeters = airport.elevationFeet() * METERS_PER_FOOT;
+
+        // Local flat-earth projection around the airport: accurate to well under 1% inside terminal airspace
+        this.metersPerDegreeLatitude = 60.0 * METERS_PER_NM;
+        this.metersPerDegreeLongitude = metersPerDegreeLatitude * Math.cos(Math.toRadians(airport.latitude()));
+    }
+
+    // Seconds to the threshold for each aircraft: the longer of the along-track time at current ground speed
+    // and the time needed to lose the remaining height. NaN where position or speed is unknown.
+    public void estimate(double[] latitude, double[] longitude, double[] groundSpeed,
+                         double[] verticalRate, double[] altitude, int count, double[] etaSeconds) {
+        for (int i = 0; i < count; i++) {
+            double dy = (latitude[i] - airportLatitude) * metersPerDegreeLatitude;
+            double dx = (longitude[i] - airportLongitude) * metersPerDegreeLongitude;
+            double distance = Math.sqrt(dx * dx + dy * dy);
+
+            double alongTrack = distance / groundSpeed[i];
+
+            double height = Math.max(0.0, altitude[i] - fieldElevationMeters);
+            double descentRate = Math.max(-verticalRate[i], STANDARD_DESCENT_RATE);
+            double vertical = height / descentRate;
+
+            etaSeconds[i] = Math.max(alongTrack, vertical);
+        }
+    }
+
+    // Run the kernel over a batch of state vectors; unknown altitude or vertical rate count as zero
+    public double[] estimate(List<StateVector> vectors) {
+        int count = vectors.size();
+        double[] latitude = new double[count];
+        double[] longitude = new double[count];
+        double[] groundSpeed = new double[count];
+        double[] verticalRate = new double[count];
+        double[] altitude = new double[count];
+
+        for (int i = 0; i < count; i++) {
+            StateVector vector = vectors.get(i);
+            latitude[i] = vector.latitude();
+            longitude[i] = vector.longitude();
+            groundSpeed[i] = vector.velocity() > 0 ? vector.velocity() : Double.NaN;
+            verticalRate[i] = Double.isNaN(vector.verticalRate()) ? 0.0 : vector.verticalRate();
+            altitude[i] = Double.isNaN(vector.baroAltitude()) ? fieldElevationMeters : vector.baroAltitude();
+        }
+
+        double[] etaSeconds = new double[count];
+        estimate(latitude, longitude, groundSpeed, verticalRate, altitude, count, etaSeconds);
+        return etaSeconds;
+    }
+}
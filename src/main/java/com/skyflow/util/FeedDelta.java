@@ -0,0 +1,17 @@
+package com.skyflow.util;
+
+import java.util.List;
+
+// Difference between two consecutive feed snapshots, keyed by icao24. The full (deduplicated) current
+// snapshot travels along for consumers that need every position, such as the proximity monitor.
+public record FeedDelta(List<StateVector> added, List<StateVector> changed, List<String> removed,
+                        List<StateVector> snapshot) {
+
+    public boolean isEmpty() {
+        return added.isEmpty() && changed.isEmpty() && removed.isEmpty();
+    }
+
+    public int size() {
+        return added.size() + changed.size() + removed.size();
+    }
+}
@@ -0,0 +1,63 @@
+package com.skyflow.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class FeedRecorder implements Closeable {
+    // File layout: MAGIC, VERSION, then records of [timestamp:long][length:int][json:UTF-8 bytes]
+    static final int MAGIC = 0x534B5946; // "SKYF"
+    static final int VERSION = 1;
+    static final int FILE_HEADER_BYTES = 8;
+    static final int RECORD_HEADER_BYTES = 12;
+
+    private final FileChannel channel;
+    private int snapshotCount;
+
+    // Constructor - opens (or creates) an append-only recording file
+    public FeedRecorder(Path file) throws IOException {
+        this.channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+
+        // Write the file header once, when starting a fresh recording
+        if (channel.size() == 0) {
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES);
+            header.putInt(MAGIC).putInt(VERSION).flip();
+            writeFully(header);
+        }
+    }
+
+    // Append one snapshot as a single record
+    public synchronized void record(long timestamp, String json) throws IOException {
+        byte[] payload = json.getBytes(StandardCharsets.UTF_8);
+
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_BYTES + payload.length);
+        buffer.putLong(timestamp).putInt(payload.length).put(payload).flip();
+        writeFully(buffer);
+
+        snapshotCount++;
+    }
+
+    // Number of snapshots appended by this recorder
+    public synchronized int getSnapshotCount() {
+        return snapshotCount;
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel.isOpen()) {
+            channel.force(false);
+            channel.close();
+        }
+    }
+}
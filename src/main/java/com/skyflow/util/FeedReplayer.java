@@ -0,0 +1,207 @@
+package com.skyflow.util;
+
+import com.skyflow.controller.FlightController;
+import com.skyflow.controller.Repository;
+import com.skyflow.controller.RunwayController;
+import com.skyflow.controller.SchedulingController;
+import com.skyflow.controller.WeatherController;
+import com.skyflow.model.Flight;
+import com.skyflow.service.DatabaseService;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+public class FeedReplayer implements Closeable {
+    // Replay speeds - the recorded gaps between snapshots are divided by the speed factor
+    public static final double REAL_TIME = 1.0;
+    public static final double TEN_X = 10.0;
+    public static final double AS_FAST_AS_POSSIBLE = 0.0;
+
+    // Size of the memory-mapped window that slides over the recording
+    private static final long WINDOW_BYTES = 64L * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long position;
+
+    // Summary of one replay run, used to measure import and scheduling throughput
+    public record ReplayStats(int snapshots, int flightsImported, long importNanos, long schedulingNanos) {
+        public double flightsPerSecond() {
+            long totalNanos = importNanos + schedulingNanos;
+            return totalNanos == 0 ? 0 : flightsImported * 1_000_000_000.0 / totalNanos;
+        }
+    }
+
+    // Constructor - opens a recording produced by FeedRecorder
+    public FeedReplayer(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+
+        if (fileSize < FeedRecorder.FILE_HEADER_BYTES) {
+            channel.close();
+            throw new IOException("Not a SkyFlow feed recording: " + file);
+        }
+
+        map(0, FeedRecorder.FILE_HEADER_BYTES);
+        int magic = window.getInt(0);
+        int version = window.getInt(4);
+        if (magic != FeedRecorder.MAGIC || version != FeedRecorder.VERSION) {
+            channel.close();
+            throw new IOException("Unsupported feed recording format in " + file);
+        }
+
+        position = FeedRecorder.FILE_HEADER_BYTES; // Same as rewind(), which is overridable
+    }
+
+    // Move back to the first snapshot
+    public void rewind() {
+        position = FeedRecorder.FILE_HEADER_BYTES;
+    }
+
+    // Check whether another complete snapshot follows (a torn record at the tail is ignored)
+    public boolean hasNext() throws IOException {
+        if (position + FeedRecorder.RECORD_HEADER_BYTES > fileSize) {
+            return false;
+        }
+
+        ensureMapped(position, FeedRecorder.RECORD_HEADER_BYTES);
+        int length = window.getInt((int) (position - windowStart) + Long.BYTES);
+        return length >= 0 && position + FeedRecorder.RECORD_HEADER_BYTES + length <= fileSize;
+    }
+
+    // Read the next snapshot straight out of the mapped file
+    public FeedSnapshot next() throws IOException {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more snapshots in recording");
+        }
+
+        int offset = (int) (position - windowStart);
+        long timestamp = window.getLong(offset);
+        int length = window.getInt(offset + Long.BYTES);
+
+        ensureMapped(position, FeedRecorder.RECORD_HEADER_BYTES + length);
+        offset = (int) (position - windowStart);
+
+        byte[] payload = new byte[length];
+        window.get(offset + FeedRecorder.RECORD_HEADER_BYTES, payload);
+        position += FeedRecorder.RECORD_HEADER_BYTES + length;
+
+        return new FeedSnapshot(timestamp, new String(payload, StandardCharsets.UTF_8));
+    }
+
+    // Expose the remaining snapshots as a FeedSource, one per fetch (unpaced - the poller sets the rhythm)
+    public FeedSource asFeedSource() {
+        return () -> hasNext() ? next().json() : null;
+    }
+
+    // Replay the remaining snapshots, keeping the recorded spacing scaled by speed (0 = no pacing)
+    public int replay(double speed, Consumer<FeedSnapshot> consumer) throws IOException, InterruptedException {
+        int replayed = 0;
+        long firstTimestamp = -1;
+        long startNanos = System.nanoTime();
+
+        while (hasNext()) {
+            FeedSnapshot snapshot = next();
+
+            if (firstTimestamp < 0) {
+                firstTimestamp = snapshot.timestamp();
+            } else if (speed > 0) {
+                // Wait until this snapshot is due relative to the start of the replay
+                long dueNanos = (long) ((snapshot.timestamp() - firstTimestamp) * 1_000_000L / speed);
+                long waitNanos = dueNanos - (System.nanoTime() - startNanos);
+                if (waitNanos > 0) {
+                    Thread.sleep(waitNanos / 1_000_000L, (int) (waitNanos % 1_000_000L));
+                }
+            }
+
+            consumer.accept(snapshot);
+            replayed++;
+        }
+
+        return replayed;
+    }
+
+    // Replay through the normal import path, running one scheduling pass after every snapshot
+    public ReplayStats replayInto(OpenSkyDataImport importer, SchedulingController schedulingController,
+                                  int flightsPerSnapshot, double speed) throws IOException, InterruptedException {
+        int[] flightsImported = new int[1];
+        long[] importNanos = new long[1];
+        long[] schedulingNanos = new long[1];
+
+        int snapshots = replay(speed, snapshot -> {
+            long start = System.nanoTime();
+            List<Flight> flights = importer.importSnapshot(snapshot.json(), flightsPerSnapshot);
+            long imported = System.nanoTime();
+            schedulingController.scheduleFlights();
+            long scheduled = System.nanoTime();
+
+            flightsImported[0] += flights.size();
+            importNanos[0] += imported - start;
+            schedulingNanos[0] += scheduled - imported;
+        });
+
+        return new ReplayStats(snapshots, flightsImported[0], importNanos[0], schedulingNanos[0]);
+    }
+
+    // Make sure [offset, offset + length) of the file is inside the mapped window
+    private void ensureMapped(long offset, int length) throws IOException {
+        if (window == null || offset < windowStart || offset + length > windowStart + window.limit()) {
+            map(offset, Math.max(length, WINDOW_BYTES));
+        }
+    }
+
+    private void map(long offset, long length) throws IOException {
+        long size = Math.min(length, fileSize - offset);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+        windowStart = offset;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // Headless load test: FeedReplayer <recording> [speed, 0 = as fast as possible] [flights per snapshot]
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: FeedReplayer <recording> [speed] [flightsPerSnapshot]");
+            return;
+        }
+
+        double speed = args.length > 1 ? Double.parseDouble(args[1]) : AS_FAST_AS_POSSIBLE;
+        int flightsPerSnapshot = args.length > 2 ? Integer.parseInt(args[2]) : Integer.MAX_VALUE;
+
+        Repository repository = Repository.fromSystemProperties();
+        DatabaseService databaseService = null;
+        try (FeedReplayer replayer = new FeedReplayer(Paths.get(args[0]))) {
+            databaseService = new DatabaseService(repository);
+            SchedulingController schedulingController = new SchedulingController();
+            FlightController flightController = new FlightController(schedulingController, databaseService);
+            new RunwayController(schedulingController);
+            WeatherController weatherController = new WeatherController(schedulingController, databaseService);
+            OpenSkyDataImport importer = new OpenSkyDataImport(flightController, weatherController);
+
+            ReplayStats stats = replayer.replayInto(importer, schedulingController, flightsPerSnapshot, speed);
+
+            System.out.println("Replayed " + stats.snapshots() + " snapshots, " + stats.flightsImported() + " flights");
+            System.out.printf("Import: %.1f ms, scheduling: %.1f ms, throughput: %.0f flights/s%n",
+                    stats.importNanos() / 1e6, stats.schedulingNanos() / 1e6, stats.flightsPerSecond());
+        } finally {
+            if (databaseService != null) {
+                databaseService.close();
+            }
+            repository.shutdown();
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package com.skyflow.util;
+
+// One recorded OpenSky /states/all response and the wall-clock time (epoch millis) it was captured at
+public record FeedSnapshot(long timestamp, String json) {
+}
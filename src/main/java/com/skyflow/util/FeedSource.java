@@ -0,0 +1,8 @@
+package com.skyflow.util;
+
+// Supplies raw /states/all snapshots: the live API, a recording, or a stub
+@FunctionalInterface
+public interface FeedSource {
+    // Return the next snapshot, or null when the source is exhausted
+    String fetchSnapshot() throws Exception;
+}
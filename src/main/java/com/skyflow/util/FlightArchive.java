@@ -0,0 +1,386 @@
+package com.skyflow.util;
+
+import com.skyflow.controller.CompletedFlightSink;
+import com.skyflow.model.Flight;
+import com.skyflow.model.Runway;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+// Columnar archive of completed flights: one memory-mapped file per day (the day of the flight's slot), where every
+// column is a fixed-width array. A scan over weeks of history reads a few contiguous arrays per day and never builds
+// a Flight, so the live working set can drop flights as soon as they complete.
+public class FlightArchive implements CompletedFlightSink, Closeable {
+    // File layout: header, runway dictionary, then the columns, each `capacity` entries long:
+    // slot second of day (int), delay seconds (int), runway index (byte), category, type and emergency (byte ordinals).
+    // Rows are written column by column and published by bumping the row count, so readers never see a partial row.
+    static final int MAGIC = 0x534B5941; // "SKYA"
+    static final int FORMAT_VERSION = 1;
+    private static final int CAPACITY_OFFSET = 16;
+    private static final int ROW_COUNT_OFFSET = 20;
+    private static final int RUNWAY_COUNT_OFFSET = 24;
+    private static final int HEADER_BYTES = 32;
+    private static final int MAX_RUNWAYS = 64;
+    private static final int RUNWAY_ID_BYTES = 16; // length byte, then up to 15 bytes of UTF-8
+    private static final int COLUMNS_OFFSET = HEADER_BYTES + MAX_RUNWAYS * RUNWAY_ID_BYTES;
+    private static final int ROW_BYTES = 12;
+
+    public static final int INITIAL_CAPACITY = 4096;
+
+    // Days kept mapped for appending; completions are almost always for today, occasionally yesterday
+    private static final int OPEN_DAYS = 2;
+
+    private static final String FILE_PREFIX = "flights-";
+    private static final String FILE_SUFFIX = ".archive";
+
+    private final Path directory;
+    private final Map<LocalDate, Day> openDays = new LinkedHashMap<>(4, 0.75f, true);
+    private boolean failed;
+
+    // One day's file, mapped read-only for scans or read-write for appending
+    public static final class Day {
+        private final LocalDate date;
+        private final FileChannel channel;
+        private MappedByteBuffer buffer;
+        private int capacity;
+        private int rows;
+        private final List<String> runways = new ArrayList<>();
+
+        private Day(LocalDate date, FileChannel channel, MappedByteBuffer buffer) throws IOException {
+            if (buffer.limit() < COLUMNS_OFFSET || buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+                throw new IOException("Not a SkyFlow flight archive for " + date);
+            }
+            this.date = date;
+            this.channel = channel;
+            this.buffer = buffer;
+            this.capacity = buffer.getInt(CAPACITY_OFFSET);
+            this.rows = buffer.getInt(ROW_COUNT_OFFSET);
+            int runwayCount = buffer.getInt(RUNWAY_COUNT_OFFSET);
+            for (int i = 0; i < runwayCount; i++) {
+                int offset = HEADER_BYTES + i * RUNWAY_ID_BYTES;
+                byte[] bytes = new byte[buffer.get(offset)];
+                buffer.get(offset + 1, bytes);
+                runways.add(new String(bytes, StandardCharsets.UTF_8));
+            }
+        }
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        public int size() {
+            return rows;
+        }
+
+        public int slotSecondOfDay(int row) {
+            return buffer.getInt(COLUMNS_OFFSET + row * Integer.BYTES);
+        }
+
+        public LocalDateTime slotTime(int row) {
+            return date.atStartOfDay().plusSeconds(slotSecondOfDay(row));
+        }
+
+        // Slot minus scheduled time
+        public int delaySeconds(int row) {
+            return buffer.getInt(COLUMNS_OFFSET + capacity * 4 + row * Integer.BYTES);
+        }
+
+        public String runway(int row) {
+            return runways.get(buffer.get(COLUMNS_OFFSET + capacity * 8 + row));
+        }
+
+        public Flight.WakeTurbulenceCategory category(int row) {
+            return Flight.WakeTurbulenceCategory.values()[buffer.get(COLUMNS_OFFSET + capacity * 9 + row)];
+        }
+
+        public Flight.FlightType type(int row) {
+            return Flight.FlightType.values()[buffer.get(COLUMNS_OFFSET + capacity * 10 + row)];
+        }
+
+        public Flight.EmergencyStatus emergency(int row) {
+            return Flight.EmergencyStatus.values()[buffer.get(COLUMNS_OFFSET + capacity * 11 + row)];
+        }
+
+        private void append(Flight flight, LocalDateTime slot, int runwayIndex) {
+            int row = rows;
+            buffer.putInt(COLUMNS_OFFSET + row * Integer.BYTES, slot.toLocalTime().toSecondOfDay());
+            buffer.putInt(COLUMNS_OFFSET + capacity * 4 + row * Integer.BYTES,
+                    (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, flight.getDelaySeconds())));
+            buffer.put(COLUMNS_OFFSET + capacity * 8 + row, (byte) runwayIndex);
+            buffer.put(COLUMNS_OFFSET + capacity * 9 + row, (byte) flight.getCategory().ordinal());
+            buffer.put(COLUMNS_OFFSET + capacity * 10 + row, (byte) flight.getType().ordinal());
+            buffer.put(COLUMNS_OFFSET + capacity * 11 + row, (byte) flight.getEmergencyStatus().ordinal());
+            rows++;
+        }
+
+        private int runwayIndex(String runwayId) throws IOException {
+            // Ids are stored truncated, so look up the stored form
+            byte[] bytes = storedBytes(runwayId);
+            String stored = new String(bytes, StandardCharsets.UTF_8);
+            int index = runways.indexOf(stored);
+            if (index >= 0) {
+                return index;
+            }
+            if (runways.size() == MAX_RUNWAYS) {
+                throw new IOException("More than " + MAX_RUNWAYS + " runways in the archive for " + date);
+            }
+
+            int offset = HEADER_BYTES + runways.size() * RUNWAY_ID_BYTES;
+            buffer.put(offset, (byte) bytes.length);
+            buffer.put(offset + 1, bytes);
+            runways.add(stored);
+            buffer.putInt(RUNWAY_COUNT_OFFSET, runways.size());
+            return runways.size() - 1;
+        }
+
+        // UTF-8 of a runway id cut to the dictionary width, on a character boundary
+        private static byte[] storedBytes(String runwayId) {
+            byte[] bytes = runwayId.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length < RUNWAY_ID_BYTES) {
+                return bytes;
+            }
+            int length = RUNWAY_ID_BYTES - 1;
+            while (length > 0 && (bytes[length] & 0xC0) == 0x80) {
+                length--;
+            }
+            return Arrays.copyOf(bytes, length);
+        }
+    }
+
+    // Totals over a date range
+    public record Summary(LocalDate from, LocalDate to, long flights, double averageDelaySeconds, int maxDelaySeconds,
+                          Map<String, Long> flightsByRunway, Map<Flight.WakeTurbulenceCategory, Long> flightsByCategory) {
+    }
+
+    // Constructor
+    public FlightArchive(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    // Append completed flights to the files for their slot days. Errors are reported once and never reach
+    // the scheduler: losing archive rows must not stop the live system.
+    @Override
+    public synchronized void flightsCompleted(List<Flight> flights) {
+        try {
+            List<Day> touched = new ArrayList<>();
+            for (Flight flight : flights) {
+                LocalDateTime slot = flight.getActualTime();
+                Runway runway = flight.getAssignedRunway();
+                if (slot == null || runway == null) {
+                    continue;
+                }
+
+                Day day = openForAppend(slot.toLocalDate());
+                int runwayIndex = day.runwayIndex(runway.getId());
+                if (day.rows == day.capacity) {
+                    touched.remove(day);
+                    day = grow(day);
+                }
+                day.append(flight, slot, runwayIndex);
+                if (!touched.contains(day)) {
+                    touched.add(day);
+                }
+            }
+
+            // Publish the new rows. Days evicted during the batch were published when they were released, and a
+            // later Day for the same date carries on from that count, so only days still open are published here.
+            for (Day day : touched) {
+                if (openDays.get(day.date) == day) {
+                    day.buffer.putInt(ROW_COUNT_OFFSET, day.rows);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            if (!failed) {
+                System.err.println("Error writing flight archive: " + e.getMessage());
+            }
+            failed = true;
+        }
+    }
+
+    private Day openForAppend(LocalDate date) throws IOException {
+        Day day = openDays.get(date);
+        if (day != null) {
+            return day;
+        }
+
+        Path file = fileFor(directory, date);
+        if (!Files.exists(file)) {
+            create(file, date, INITIAL_CAPACITY);
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            day = new Day(date, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        openDays.put(date, day);
+
+        // Release the least recently appended days
+        Iterator<Day> iterator = openDays.values().iterator();
+        while (openDays.size() > OPEN_DAYS && iterator.hasNext()) {
+            Day oldest = iterator.next();
+            iterator.remove();
+            release(oldest);
+        }
+        return day;
+    }
+
+    // Empty file with room for the given number of rows, moved into place complete
+    private static void create(Path file, LocalDate date, int capacity) throws IOException {
+        Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    COLUMNS_OFFSET + (long) capacity * ROW_BYTES);
+            buffer.putInt(0, MAGIC).putInt(4, FORMAT_VERSION).putLong(8, date.toEpochDay())
+                    .putInt(CAPACITY_OFFSET, capacity).putInt(ROW_COUNT_OFFSET, 0).putInt(RUNWAY_COUNT_OFFSET, 0);
+            buffer.force();
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Copy a full day into a file with twice the capacity (columns are fixed-size, so they cannot grow in place)
+    private Day grow(Day day) throws IOException {
+        Path file = fileFor(directory, day.date);
+        int capacity = day.capacity * 2;
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    COLUMNS_OFFSET + (long) capacity * ROW_BYTES);
+            buffer.put(0, day.buffer, 0, COLUMNS_OFFSET);
+            buffer.putInt(CAPACITY_OFFSET, capacity).putInt(ROW_COUNT_OFFSET, day.rows);
+
+            // Each column keeps its width; 4-byte columns first, then the 1-byte ones
+            int[] widths = {4, 4, 1, 1, 1, 1};
+            int oldOffset = COLUMNS_OFFSET;
+            int newOffset = COLUMNS_OFFSET;
+            for (int width : widths) {
+                buffer.put(newOffset, day.buffer, oldOffset, day.rows * width);
+                oldOffset += day.capacity * width;
+                newOffset += capacity * width;
+            }
+            buffer.force();
+        }
+        openDays.remove(day.date);
+        release(day);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return openForAppend(day.date);
+    }
+
+    // Publish the day's rows and unmap it
+    private static void release(Day day) throws IOException {
+        day.buffer.putInt(ROW_COUNT_OFFSET, day.rows);
+        day.buffer.force();
+        day.channel.close();
+    }
+
+    // Archive file for a day
+    public static Path fileFor(Path directory, LocalDate date) {
+        return directory.resolve(FILE_PREFIX + date + FILE_SUFFIX);
+    }
+
+    // Hand every archived day in [from, to] to the consumer, oldest first; days without a file are skipped.
+    // Each day is a read-only view of the rows published when it was opened.
+    public static void scan(Path directory, LocalDate from, LocalDate to, Consumer<Day> consumer) throws IOException {
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            Path file = fileFor(directory, date);
+            if (!Files.exists(file)) {
+                continue;
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                consumer.accept(new Day(date, channel, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())));
+            }
+        }
+    }
+
+    public void scan(LocalDate from, LocalDate to, Consumer<Day> consumer) throws IOException {
+        scan(directory, from, to, consumer);
+    }
+
+    // Flight count, delays, and runway and category mix over a date range - reads only the columns it needs
+    public static Summary summarize(Path directory, LocalDate from, LocalDate to) throws IOException {
+        long[] totals = new long[2]; // flights, total delay
+        int[] maxDelay = {Integer.MIN_VALUE};
+        Map<String, Long> byRunway = new TreeMap<>();
+        long[] byCategory = new long[Flight.WakeTurbulenceCategory.values().length];
+
+        scan(directory, from, to, day -> {
+            int rows = day.size();
+            long[] runwayCounts = new long[MAX_RUNWAYS];
+            for (int row = 0; row < rows; row++) {
+                int delay = day.delaySeconds(row);
+                totals[1] += delay;
+                maxDelay[0] = Math.max(maxDelay[0], delay);
+                runwayCounts[day.buffer.get(COLUMNS_OFFSET + day.capacity * 8 + row)]++;
+                byCategory[day.buffer.get(COLUMNS_OFFSET + day.capacity * 9 + row)]++;
+            }
+            totals[0] += rows;
+            for (int i = 0; i < day.runways.size(); i++) {
+                if (runwayCounts[i] > 0) {
+                    byRunway.merge(day.runways.get(i), runwayCounts[i], Long::sum);
+                }
+            }
+        });
+
+        Map<Flight.WakeTurbulenceCategory, Long> categories = new EnumMap<>(Flight.WakeTurbulenceCategory.class);
+        for (Flight.WakeTurbulenceCategory category : Flight.WakeTurbulenceCategory.values()) {
+            if (byCategory[category.ordinal()] > 0) {
+                categories.put(category, byCategory[category.ordinal()]);
+            }
+        }
+        return new Summary(from, to, totals[0], totals[0] > 0 ? (double) totals[1] / totals[0] : 0,
+                totals[0] > 0 ? maxDelay[0] : 0, byRunway, categories);
+    }
+
+    // Flush and unmap the open days
+    @Override
+    public synchronized void close() throws IOException {
+        for (Day day : openDays.values()) {
+            release(day);
+        }
+        openDays.clear();
+    }
+
+    // Command line: FlightArchive <archive dir> <from yyyy-mm-dd> [to yyyy-mm-dd]
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: FlightArchive <archive dir> <from> [to]");
+            return;
+        }
+
+        LocalDate from = LocalDate.parse(args[1]);
+        LocalDate to = args.length > 2 ? LocalDate.parse(args[2]) : from;
+        long startTime = System.nanoTime();
+        Summary summary = summarize(Paths.get(args[0]), from, to);
+        System.out.printf("%s to %s: %d flights, average delay %.0f s, max delay %d s (scanned in %.1f ms)%n",
+                summary.from(), summary.to(), summary.flights(), summary.averageDelaySeconds(),
+                summary.maxDelaySeconds(), (System.nanoTime() - startTime) / 1_000_000.0);
+        System.out.println("By runway: " + summary.flightsByRunway());
+        System.out.println("By category: " + summary.flightsByCategory());
+    }
+}
@@ -0,0 +1,59 @@
+package com.skyflow.util;
+
+import com.skyflow.model.Flight;
+import com.skyflow.model.FlightId;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Flights by id, keyed by the numeric FlightId. String lookups decode the id instead of hashing it; the few
+// flights with legacy ids (UUIDs from older databases) are also indexed by their string.
+public class FlightIndex {
+    private final LongHashMap<Flight> byKey;
+    private final Map<String, Flight> byLegacyId = new HashMap<>();
+
+    // Constructor
+    public FlightIndex() {
+        this(16);
+    }
+
+    public FlightIndex(int expectedSize) {
+        byKey = new LongHashMap<>(expectedSize);
+    }
+
+    public void put(Flight flight) {
+        byKey.put(flight.getKey(), flight);
+        if (flight.hasLegacyId()) {
+            byLegacyId.put(flight.getId(), flight);
+        }
+    }
+
+    // Remove the flight if it is the one indexed under its id
+    public void remove(Flight flight) {
+        if (byKey.remove(flight.getKey(), flight) && flight.hasLegacyId()) {
+            byLegacyId.remove(flight.getId(), flight);
+        }
+    }
+
+    public Flight get(long key) {
+        return byKey.get(key);
+    }
+
+    public Flight get(String id) {
+        long key = FlightId.parse(id);
+        return key != FlightId.NONE ? byKey.get(key) : byLegacyId.get(id);
+    }
+
+    public void ensureCapacity(int entries) {
+        byKey.ensureCapacity(entries);
+    }
+
+    public int size() {
+        return byKey.size();
+    }
+
+    public void clear() {
+        byKey.clear();
+        byLegacyId.clear();
+    }
+}
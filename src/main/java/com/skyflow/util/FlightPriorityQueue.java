@@ -0,0 +1,229 @@
+package com.skyflow.util;
+
+import com.skyflow.model.Flight;
+
+import java.util.AbstractQueue;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+// Binary heap of flights ordered by FlightComparator. Unlike java.util.PriorityQueue it can take
+// a whole batch in O(n) by appending and re-heapifying once, instead of sifting every flight in.
+public class FlightPriorityQueue extends AbstractQueue<Flight> {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final Comparator<Flight> comparator = new FlightComparator();
+    private Flight[] heap;
+    private int size;
+
+    // Constructor
+    public FlightPriorityQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    // Constructor with a pre-sized backing array
+    public FlightPriorityQueue(int initialCapacity) {
+        this.heap = new Flight[Math.max(1, initialCapacity)];
+    }
+
+    // Copy constructor - the source array is already a valid heap, so this is a plain O(n) copy
+    public FlightPriorityQueue(FlightPriorityQueue source) {
+        this.heap = Arrays.copyOf(source.heap, Math.max(1, source.size));
+        this.size = source.size;
+    }
+
+    @Override
+    public boolean offer(Flight flight) {
+        if (flight == null) {
+            throw new NullPointerException("Cannot queue a null flight");
+        }
+
+        ensureCapacity(size + 1);
+        heap[size] = flight;
+        siftUp(size);
+        size++;
+        return true;
+    }
+
+    // Add a batch of flights: small batches are sifted in, large ones appended and heapified in O(n)
+    @Override
+    public boolean addAll(Collection<? extends Flight> flights) {
+        if (flights.isEmpty()) {
+            return false;
+        }
+
+        if (flights.size() < size) {
+            for (Flight flight : flights) {
+                offer(flight);
+            }
+            return true;
+        }
+
+        ensureCapacity(size + flights.size());
+        for (Flight flight : flights) {
+            if (flight == null) {
+                throw new NullPointerException("Cannot queue a null flight");
+            }
+            heap[size++] = flight;
+        }
+        heapify();
+        return true;
+    }
+
+    @Override
+    public Flight poll() {
+        if (size == 0) {
+            return null;
+        }
+
+        Flight top = heap[0];
+        removeAt(0);
+        return top;
+    }
+
+    @Override
+    public Flight peek() {
+        return size == 0 ? null : heap[0];
+    }
+
+    // Remove a specific flight (by identity), keeping the heap valid
+    @Override
+    public boolean remove(Object o) {
+        for (int i = 0; i < size; i++) {
+            if (heap[i] == o) {
+                removeAt(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Remove every flight in the collection (by identity) with one compaction and one heap rebuild
+    @Override
+    public boolean removeAll(Collection<?> flights) {
+        Set<Object> toRemove = Collections.newSetFromMap(new IdentityHashMap<>());
+        toRemove.addAll(flights);
+
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (!toRemove.contains(heap[i])) {
+                heap[kept++] = heap[i];
+            }
+        }
+
+        if (kept == size) {
+            return false;
+        }
+
+        Arrays.fill(heap, kept, size, null);
+        size = kept;
+        heapify();
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(heap, 0, size, null);
+        size = 0;
+    }
+
+    // Iterates in heap (array) order, not priority order
+    @Override
+    public Iterator<Flight> iterator() {
+        return new Iterator<>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public Flight next() {
+                if (index >= size) {
+                    throw new NoSuchElementException();
+                }
+                return heap[index++];
+            }
+        };
+    }
+
+    // Grow the backing array so it can hold at least the given number of flights
+    public void ensureCapacity(int capacity) {
+        if (capacity > heap.length) {
+            heap = Arrays.copyOf(heap, Math.max(capacity, heap.length * 2));
+        }
+    }
+
+    // Replace the contents with flights in heap (array) order, as iterated from a saved queue, without re-sifting
+    public void restore(List<Flight> heapOrder) {
+        clear();
+        ensureCapacity(heapOrder.size());
+        for (Flight flight : heapOrder) {
+            heap[size++] = flight;
+        }
+    }
+
+    // Restore heap order after priorities changed outside the queue
+    public void heapify() {
+        for (int i = (size >>> 1) - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    private void removeAt(int index) {
+        size--;
+        Flight last = heap[size];
+        heap[size] = null;
+
+        if (index != size) {
+            heap[index] = last;
+            siftDown(index);
+            if (heap[index] == last) {
+                siftUp(index);
+            }
+        }
+    }
+
+    private void siftUp(int index) {
+        Flight flight = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (comparator.compare(flight, heap[parent]) >= 0) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = flight;
+    }
+
+    private void siftDown(int index) {
+        Flight flight = heap[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && comparator.compare(heap[right], heap[child]) < 0) {
+                child = right;
+            }
+            if (comparator.compare(flight, heap[child]) <= 0) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = flight;
+    }
+}
@@ -0,0 +1,350 @@
+package com.skyflow.util;
+
+import com.skyflow.controller.CommandLog;
+import com.skyflow.controller.FlightController;
+import com.skyflow.controller.RunwayController;
+import com.skyflow.controller.SchedulingController;
+import com.skyflow.controller.WeatherController;
+import com.skyflow.model.Flight;
+import com.skyflow.model.Runway;
+import com.skyflow.model.ScheduleClock;
+import com.skyflow.model.Weather;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+// Rebuilds the scheduling state from a journal directory: restore the newest readable snapshot, then re-run
+// every command recorded after it at its recorded time. Each recorded scheduling pass is checked against the
+// pass the replay produces, so a replay either reproduces the schedule exactly or says where it diverged.
+// Also runs standalone (main) to inspect a production journal offline.
+public class JournalReplayer {
+    // How many divergences are printed before the rest are only counted
+    private static final int REPORTED_DIVERGENCES = 10;
+
+    private final ScheduleSnapshot.Controllers controllers;
+    private final Deque<Long> replayedPasses = new ArrayDeque<>();
+    // Every flight seen so far by id, including removed ones a late command may still refer to
+    private final FlightIndex knownFlights = new FlightIndex();
+    private long expectedSequence;
+    private int recordsReplayed;
+    private int divergences;
+    private boolean gap;
+
+    // Outcome of a recovery; snapshotSequence is -1 when there was nothing to recover from
+    public record RecoveryResult(long snapshotSequence, long lastSequence, int recordsReplayed,
+                                 int divergences, long elapsedNanos) {
+        public boolean restored() {
+            return snapshotSequence >= 0;
+        }
+    }
+
+    private JournalReplayer(ScheduleSnapshot.Controllers controllers) {
+        this.controllers = controllers;
+    }
+
+    // Take over the controllers for replaying: their command logs are detached (replayed commands must not be
+    // journaled again) and scheduling passes are captured for verification until detach()
+    public static JournalReplayer attach(ScheduleSnapshot.Controllers controllers) {
+        JournalReplayer replayer = new JournalReplayer(controllers);
+        controllers.flights().setCommandLog(CommandLog.NONE);
+        controllers.runways().setCommandLog(CommandLog.NONE);
+        controllers.weather().setCommandLog(CommandLog.NONE);
+        controllers.scheduling().setCommandLog(new CommandLog() {
+            @Override
+            public void schedulePassed(List<Flight> schedule, boolean nested) {
+                replayer.replayedPasses.add(SchedulingJournal.scheduleChecksum(schedule));
+            }
+        });
+        return replayer;
+    }
+
+    // Restore the controllers from the journal directory. Attach the live journal only after this returns.
+    public static RecoveryResult recover(Path directory, ScheduleSnapshot.Controllers controllers) throws IOException {
+        long startTime = System.nanoTime();
+        JournalReplayer replayer = attach(controllers);
+
+        try {
+            long snapshotSequence = replayer.restoreSnapshot(directory);
+            if (snapshotSequence < 0) {
+                return new RecoveryResult(-1, -1, 0, 0, System.nanoTime() - startTime);
+            }
+
+            SchedulingJournal.read(directory, snapshotSequence, replayer::apply);
+            replayer.checkPassesConsumed();
+
+            RecoveryResult result = new RecoveryResult(snapshotSequence, replayer.getLastSequence(),
+                    replayer.recordsReplayed, replayer.divergences, System.nanoTime() - startTime);
+            System.out.printf("Recovered schedule from snapshot %d + %d journal records in %.1f ms (%d divergences)%n",
+                    result.snapshotSequence(), result.recordsReplayed(), result.elapsedNanos() / 1_000_000.0,
+                    result.divergences());
+            return result;
+        } finally {
+            replayer.detach();
+        }
+    }
+
+    // Load the newest readable snapshot (falling back to an older one); returns its sequence, or -1 if none
+    public long restoreSnapshot(Path directory) throws IOException {
+        long snapshotSequence = -1;
+        List<Path> snapshots = SchedulingJournal.listSnapshots(directory);
+        for (int i = snapshots.size() - 1; i >= 0 && snapshotSequence < 0; i--) {
+            try {
+                snapshotSequence = ScheduleSnapshot.restore(snapshots.get(i), controllers);
+            } catch (IOException e) {
+                System.err.println("Skipping schedule snapshot: " + e.getMessage());
+            }
+        }
+        if (snapshotSequence < 0) {
+            return -1;
+        }
+
+        knownFlights.clear();
+        for (Flight flight : controllers.flights().getAllFlights()) {
+            knownFlights.put(flight);
+        }
+        for (Flight flight : controllers.scheduling().getAllFlights()) {
+            knownFlights.put(flight);
+        }
+        replayedPasses.clear();
+        expectedSequence = snapshotSequence + 1;
+        gap = false;
+        return snapshotSequence;
+    }
+
+    // Stop capturing scheduling passes
+    public void detach() {
+        controllers.scheduling().setCommandLog(CommandLog.NONE);
+    }
+
+    // Last journal sequence applied to the controllers
+    public long getLastSequence() {
+        return expectedSequence - 1;
+    }
+
+    public int getDivergences() {
+        return divergences;
+    }
+
+    // Re-run one recorded command at its recorded time
+    public void apply(SchedulingJournal.Entry entry) {
+        if (gap) {
+            return;
+        }
+        if (entry.sequence() != expectedSequence) {
+            // Records after a gap were made against state we cannot rebuild, so stop here
+            System.err.println("Journal gap: expected record " + expectedSequence + " but found " + entry.sequence());
+            gap = true;
+            return;
+        }
+        expectedSequence++;
+        recordsReplayed++;
+
+        ByteBuffer payload = entry.payload();
+        ScheduleClock.duringAt(entry.time(), () -> replay(entry, payload));
+    }
+
+    // Apply one record; runs with the record's time pinned
+    private void replay(SchedulingJournal.Entry entry, ByteBuffer payload) {
+        if (entry.type() != SchedulingJournal.RecordType.SCHEDULE_PASS) {
+            checkPassesConsumed();
+        }
+
+        switch (entry.type()) {
+            case FLIGHT_CREATED: {
+                Flight flight = ScheduleSnapshot.readFlight(payload);
+                knownFlights.put(flight);
+                controllers.flights().addFlight(flight);
+                break;
+            }
+            case FLIGHTS_CREATED:
+                replayFlightBatch(payload);
+                break;
+            case FLIGHTS_REMOVED: {
+                int count = payload.getInt();
+                List<String> icao24s = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    icao24s.add(ScheduleSnapshot.readString(payload));
+                }
+                controllers.flights().removeFlightsByIcao24(icao24s);
+                break;
+            }
+            case FLIGHT_DELETED: {
+                Flight flight = findFlight(entry, ScheduleSnapshot.readString(payload));
+                if (flight != null) {
+                    controllers.flights().deleteFlight(flight);
+                }
+                break;
+            }
+            case EMERGENCY_SET: {
+                Flight flight = findFlight(entry, ScheduleSnapshot.readString(payload));
+                Flight.EmergencyStatus status = Flight.EmergencyStatus.values()[payload.get()];
+                if (flight != null) {
+                    controllers.flights().setEmergencyStatus(flight, status);
+                }
+                break;
+            }
+            case FUEL_UPDATED: {
+                Flight flight = findFlight(entry, ScheduleSnapshot.readString(payload));
+                int fuelLevel = payload.getInt();
+                if (flight != null) {
+                    controllers.flights().updateFuelLevel(flight, fuelLevel);
+                }
+                break;
+            }
+            case RUNWAY_CREATED:
+                controllers.runways().createRunway(ScheduleSnapshot.readString(payload), payload.getInt(), payload.getInt());
+                break;
+            case RUNWAY_DELETED: {
+                Runway runway = findRunway(entry, ScheduleSnapshot.readString(payload));
+                if (runway != null) {
+                    controllers.runways().deleteRunway(runway);
+                }
+                break;
+            }
+            case RUNWAY_ACTIVE_SET: {
+                Runway runway = findRunway(entry, ScheduleSnapshot.readString(payload));
+                boolean active = payload.get() != 0;
+                if (runway != null) {
+                    controllers.runways().setRunwayActive(runway, active);
+                }
+                break;
+            }
+            case WEATHER_CHANGED: {
+                Weather weather = ScheduleSnapshot.readWeather(payload);
+                controllers.weather().updateWeather(weather.getWindSpeed(), weather.getWindDirection(),
+                        weather.getVisibility(), weather.getCondition());
+                break;
+            }
+            case SCHEDULE_RESET:
+                controllers.scheduling().reset();
+                break;
+            case SCHEDULE_PASS:
+                replaySchedulePass(entry, payload);
+                break;
+            case FLIGHTS_COMPLETED: {
+                int count = payload.getInt();
+                List<Flight> completed = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    Flight flight = findFlight(entry, ScheduleSnapshot.readString(payload));
+                    if (flight != null) {
+                        completed.add(flight);
+                    }
+                }
+                controllers.flights().completeFlights(completed);
+                break;
+            }
+        }
+    }
+
+    // Updated flights get their recorded scheduled time first, as createFlights did before queueing the batch
+    private void replayFlightBatch(ByteBuffer payload) {
+        int createdCount = payload.getInt();
+        List<Flight> created = new ArrayList<>(createdCount);
+        for (int i = 0; i < createdCount; i++) {
+            Flight flight = ScheduleSnapshot.readFlight(payload);
+            knownFlights.put(flight);
+            created.add(flight);
+        }
+
+        int updatedCount = payload.getInt();
+        List<Flight> updated = new ArrayList<>(updatedCount);
+        for (int i = 0; i < updatedCount; i++) {
+            Flight flight = knownFlights.get(ScheduleSnapshot.readString(payload));
+            LocalDateTime scheduledTime = ScheduleSnapshot.readTime(payload);
+            if (flight != null) {
+                flight.setScheduledTime(scheduledTime);
+                updated.add(flight);
+            }
+        }
+        controllers.flights().replayFlightBatch(created, updated);
+    }
+
+    // Top-level passes are re-run here; nested ones already ran inside the command before them
+    private void replaySchedulePass(SchedulingJournal.Entry entry, ByteBuffer payload) {
+        boolean nested = payload.get() != 0;
+        int recordedSize = payload.getInt();
+        long recordedChecksum = payload.getLong();
+
+        if (!nested) {
+            controllers.scheduling().scheduleFlights();
+        }
+
+        Long replayed = replayedPasses.poll();
+        if (replayed == null || replayed != recordedChecksum) {
+            diverged(entry, "scheduling pass of " + recordedSize + " flights "
+                    + (replayed == null ? "did not run" : "produced a different schedule"));
+        }
+    }
+
+    // Passes the replay ran that the journal never recorded also mean the replay went its own way
+    private void checkPassesConsumed() {
+        if (!replayedPasses.isEmpty()) {
+            diverged(null, replayedPasses.size() + " unrecorded scheduling pass(es)");
+            replayedPasses.clear();
+        }
+    }
+
+    private Flight findFlight(SchedulingJournal.Entry entry, String id) {
+        Flight flight = knownFlights.get(id);
+        if (flight == null) {
+            diverged(entry, "unknown flight " + id);
+        }
+        return flight;
+    }
+
+    private Runway findRunway(SchedulingJournal.Entry entry, String id) {
+        Runway runway = controllers.runways().getRunwayById(id);
+        if (runway == null) {
+            diverged(entry, "unknown runway " + id);
+        }
+        return runway;
+    }
+
+    private void diverged(SchedulingJournal.Entry entry, String message) {
+        divergences++;
+        if (divergences <= REPORTED_DIVERGENCES) {
+            String where = entry != null
+                    ? "record " + entry.sequence() + " (" + entry.type() + ")"
+                    : "before record " + (expectedSequence - 1);
+            System.err.println("Replay diverged at " + where + ": " + message);
+        }
+    }
+
+    // Replay a journal directory offline and print the resulting schedule:
+    //   JournalReplayer <journal directory>
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: JournalReplayer <journal directory>");
+            System.exit(2);
+        }
+
+        SchedulingController schedulingController = new SchedulingController();
+        ScheduleSnapshot.Controllers controllers = new ScheduleSnapshot.Controllers(
+                new FlightController(schedulingController, null),
+                new RunwayController(schedulingController),
+                new WeatherController(schedulingController, null),
+                schedulingController);
+
+        RecoveryResult result = recover(Paths.get(args[0]), controllers);
+        if (!result.restored()) {
+            System.err.println("No readable schedule snapshot in " + args[0]);
+            System.exit(1);
+        }
+
+        for (Flight flight : schedulingController.getScheduledFlights()) {
+            System.out.println(flight.getActualTime() + "  " + flight.getAssignedRunway().getId()
+                    + "  " + flight.getFlightNumber() + "  " + flight.getEmergencyStatus());
+        }
+        System.out.println(schedulingController.getScheduledFlights().size() + " scheduled, "
+                + schedulingController.getQueuedFlights().size() + " waiting, journal sequence "
+                + result.lastSequence() + ", " + result.divergences() + " divergences");
+        System.exit(result.divergences() == 0 ? 0 : 1);
+    }
+}
@@ -0,0 +1,213 @@
+package com.skyflow.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Open-addressing hash map from long keys to values: no boxed keys, no entry objects, and a lookup is a few
+// probes through one long array. Linear probing with backward-shift deletion, so removals leave no tombstones.
+// Not thread-safe, like HashMap.
+public class LongHashMap<V> {
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+
+    // Key 0 marks an empty cell, so it is kept outside the table
+    private boolean hasZeroKey;
+    private V zeroValue;
+
+    // Constructor
+    public LongHashMap() {
+        this(16);
+    }
+
+    public LongHashMap(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(long key) {
+        return key == 0 ? hasZeroKey : find(key) >= 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        if (key == 0) {
+            return zeroValue;
+        }
+        int index = find(key);
+        return index >= 0 ? (V) values[index] : null;
+    }
+
+    // Returns the previous value, or null
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (key == 0) {
+            V previous = zeroValue;
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            zeroValue = value;
+            return previous;
+        }
+
+        int index = slotFor(key);
+        while (keys[index] != 0) {
+            if (keys[index] == key) {
+                V previous = (V) values[index];
+                values[index] = value;
+                return previous;
+            }
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = key;
+        values[index] = value;
+        if (++size > (mask + 1) * LOAD_FACTOR) {
+            rehash((mask + 1) * 2);
+        }
+        return null;
+    }
+
+    // Returns the removed value, or null
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        if (key == 0) {
+            V previous = zeroValue;
+            if (hasZeroKey) {
+                hasZeroKey = false;
+                zeroValue = null;
+                size--;
+            }
+            return previous;
+        }
+
+        int index = find(key);
+        if (index < 0) {
+            return null;
+        }
+        V previous = (V) values[index];
+        delete(index);
+        return previous;
+    }
+
+    // Remove only if the key still maps to this value
+    public boolean remove(long key, V value) {
+        if (get(key) != value || !containsKey(key)) {
+            return false;
+        }
+        remove(key);
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, null);
+        hasZeroKey = false;
+        zeroValue = null;
+        size = 0;
+    }
+
+    // Make room for this many entries without rehashing
+    public void ensureCapacity(int entries) {
+        int tableSize = tableSizeFor(entries);
+        if (tableSize > mask + 1) {
+            rehash(tableSize);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEachValue(Consumer<? super V> action) {
+        if (hasZeroKey) {
+            action.accept(zeroValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                action.accept((V) values[i]);
+            }
+        }
+    }
+
+    public List<V> values() {
+        List<V> list = new ArrayList<>(size);
+        forEachValue(list::add);
+        return list;
+    }
+
+    private int find(long key) {
+        int index = slotFor(key);
+        while (keys[index] != 0) {
+            if (keys[index] == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    // Close the gap by moving later entries of the probe run back
+    private void delete(int index) {
+        int gap = index;
+        int next = (gap + 1) & mask;
+        while (keys[next] != 0) {
+            int home = slotFor(keys[next]);
+            // Move the entry if its home is not in (gap, next]
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = 0;
+        values[gap] = null;
+        size--;
+    }
+
+    private int slotFor(long key) {
+        // Mix the bits: ids differ mostly in their low and middle bits
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void rehash(int tableSize) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(tableSize);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != 0) {
+                int index = slotFor(key);
+                while (keys[index] != 0) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = key;
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int tableSize) {
+        keys = new long[tableSize];
+        values = new Object[tableSize];
+        mask = tableSize - 1;
+    }
+
+    // Power of two that keeps the load under LOAD_FACTOR
+    static int tableSizeFor(int entries) {
+        int needed = (int) Math.min(1 << 30, (long) Math.ceil(Math.max(entries, 4) / LOAD_FACTOR));
+        return Integer.highestOneBit(needed - 1) << 1;
+    }
+}
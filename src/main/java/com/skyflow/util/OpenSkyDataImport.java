@@ -1,37 +1,63 @@
 package com.skyflow.util;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
 import com.skyflow.controller.FlightController;
 import com.skyflow.controller.WeatherController;
-import com.skyflow.controller.DatabaseController;
+import com.skyflow.service.AircraftPool;
 import com.skyflow.service.DatabaseService;
+import com.skyflow.model.AircraftType;
+import com.skyflow.model.Airline;
+import com.skyflow.model.ReferencePool;
+import com.skyflow.model.Airport;
 import com.skyflow.model.Flight;
+import com.skyflow.model.FlightSpec;
+import com.skyflow.model.ProximityAlert;
 import com.skyflow.model.Weather;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class OpenSkyDataImport {
     private final FlightController flightController;
     private final WeatherController weatherController;
     private final Random random = new Random();
-    private final Gson gson = new Gson();
     private DatabaseService databaseService;
+    private FeedRecorder feedRecorder;
+    private AirspaceFilter airspaceFilter = AirspaceFilter.around(Airport.BEN_GURION);
+    private EtaEstimator etaEstimator = new EtaEstimator(Airport.BEN_GURION);
+    private ProximityMonitor proximityMonitor = new ProximityMonitor(Airport.BEN_GURION);
 
     private static final String OPENSKY_API_URL = "https://opensky-network.org/api";
 
+    // Snapshots smaller than this are built on the calling thread
+    private static final int PARALLEL_BUILD_THRESHOLD = 256;
+
+    // HTTP fetches for asynchronous imports, one virtual thread each
+    private static final Executor FETCH_EXECUTOR = runnable -> Thread.ofVirtual().name("opensky-fetch").start(runnable);
+
+    // Completes when the last delta handed to applyDeltaAsync has been applied
+    private CompletableFuture<?> pendingDelta = CompletableFuture.completedFuture(null);
+
     // Constructor
     public OpenSkyDataImport(FlightController flightController, WeatherController weatherController) {
         this.flightController = flightController;
@@ -48,52 +74,15 @@ public class OpenSkyDataImport {
 
         try {
             // Fetch states from OpenSky API
-            String response = fetchFromOpenSky("/states/all");
-
-            // Parse response
-            JsonObject jsonObject = gson.fromJson(response, JsonObject.class);
-            JsonArray states = jsonObject.getAsJsonArray("states");
-
-            // Limit to requested number of flights
-            int count = 0;
-            int i = 0;
-            boolean reachedLimit = false;
-
-            // Iterate through states array until we reach the requested flight count
-            while (i < states.size() && !reachedLimit) {
-                JsonElement stateElement = states.get(i);
-                JsonArray stateArray = stateElement.getAsJsonArray();
-
-                if (stateArray != null && stateArray.size() >= 8) {
-                    // Extract data from OpenSky API
-                    String icao24 = stateArray.get(0).getAsString();
-                    String callsign = stateArray.get(1).getAsString().trim();
-                    String originCountry = stateArray.get(2).getAsString();
-                    long timePosition = stateArray.get(3).isJsonNull() ? 0 : stateArray.get(3).getAsLong();
-
-                    // Process flights with valid data
-                    boolean hasValidData = !callsign.isEmpty() && timePosition != 0;
-
-                    if (hasValidData) {
-                        // Create flight with random enhancements
-                        Flight flight = createEnhancedFlight(icao24, callsign, originCountry, timePosition);
-
-                        if (flight != null) {
-                            importedFlights.add(flight);
-                            count++;
-
-                            // Check if we've reached the requested number of flights
-                            if (count >= numFlights) {
-                                reachedLimit = true;
-                            }
-                        }
-                    }
-                }
+            String response = fetchLiveSnapshot();
 
-                i++;
-            }
+            importedFlights = importSnapshot(response, numFlights);
 
             System.out.println("Successfully imported " + importedFlights.size() + " flights from OpenSky");
+            if (databaseService != null) {
+                System.out.println("Airline cache: " + databaseService.getAirlineCacheStats());
+                System.out.println("Aircraft cache: " + databaseService.getAircraftCacheStats());
+            }
 
         } catch (Exception e) {
             System.err.println("Error importing flights from OpenSky: " + e.getMessage());
@@ -108,54 +97,289 @@ public class OpenSkyDataImport {
 
         return importedFlights;
     }
-    // Create a flight with random enhancements
-    private Flight createEnhancedFlight(String icao24, String callsign, String originCountry, long timePosition) {
+
+    // Fetch and import without blocking the caller: the HTTP request runs on a virtual thread and the reference
+    // lookups on the database executor, while the controllers are only touched on applyOn (the thread that owns
+    // them, e.g. Platform::runLater). Falls back to simulated flights like importRealTimeFlights.
+    public CompletableFuture<List<Flight>> importRealTimeFlightsAsync(int numFlights, Executor applyOn) {
+        return CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return fetchLiveSnapshot();
+                    } catch (Exception e) {
+                        throw new CompletionException(e);
+                    }
+                }, FETCH_EXECUTOR)
+                .thenComposeAsync(response -> importSnapshotAsync(response, numFlights, applyOn), applyOn)
+                .handleAsync((importedFlights, error) -> {
+                    if (error == null) {
+                        System.out.println("Successfully imported " + importedFlights.size() + " flights from OpenSky");
+                        return importedFlights;
+                    }
+
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    System.err.println("Error importing flights from OpenSky: " + cause.getMessage());
+                    List<Flight> simulated = generateSimulatedFlights(numFlights);
+                    System.out.println("Generated " + simulated.size() + " simulated flights as fallback");
+                    return simulated;
+                }, applyOn);
+    }
+
+    // Fetch the current /states/all snapshot, keeping a copy in the active recording - usable as a FeedSource
+    public String fetchLiveSnapshot() throws Exception {
+        String endpoint = "/states/all" + (airspaceFilter != null ? airspaceFilter.toQueryString() : "");
+        String response = fetchFromOpenSky(endpoint);
+        recordSnapshot(response);
+        return response;
+    }
+
+    // Import flights from a single state-vector snapshot, either fetched live or replayed from a recording.
+    // Runs as a staged pipeline: parse, batch-resolve reference data, then build flights in parallel.
+    public List<Flight> importSnapshot(String response, int numFlights) {
+        // Stage 1: parse the state vectors we are going to import, dropping aircraft outside the airspace
+        List<StateVector> vectors = parseAndCheckProximity(response, numFlights);
+
+        // Stages 2 and 3, then ingest the whole snapshot as one batch
+        return flightController.createFlights(createFlightSpecs(vectors));
+    }
+
+    // Like importSnapshot, but returns as soon as the reference lookups are under way. Call it on the thread that
+    // owns the controllers; the flights are created on applyOn once the lookups are done.
+    public CompletableFuture<List<Flight>> importSnapshotAsync(String response, int numFlights, Executor applyOn) {
+        List<StateVector> vectors = parseAndCheckProximity(response, numFlights);
+
+        return createFlightSpecsAsync(vectors).thenApplyAsync(flightController::createFlights, applyOn);
+    }
+
+    // Parse the whole filtered snapshot so proximity covers every aircraft in the airspace; only the first
+    // numFlights become flights
+    private List<StateVector> parseAndCheckProximity(String response, int numFlights) {
+        List<StateVector> vectors = StateVector.parseSnapshot(response, Integer.MAX_VALUE, airspaceFilter);
+        publishProximityAlerts(vectors);
+        return vectors.size() > numFlights ? vectors.subList(0, Math.max(0, numFlights)) : vectors;
+    }
+
+    // Like applyDelta, but the controllers are only touched on applyOn, so it can be called from the polling thread.
+    // Deltas are applied in the order they are handed in: each one starts after the previous one's flights exist.
+    public synchronized CompletableFuture<List<Flight>> applyDeltaAsync(FeedDelta delta, Executor applyOn) {
+        CompletableFuture<List<Flight>> applied = pendingDelta.thenComposeAsync(previous -> {
+            flightController.removeFlightsByIcao24(delta.removed());
+            publishProximityAlerts(delta.snapshot());
+            return createFlightSpecsAsync(deltaVectors(delta)).thenApplyAsync(flightController::createFlights, applyOn);
+        }, applyOn);
+        pendingDelta = applied.handle((flights, error) -> null);
+        return applied;
+    }
+
+    // Apply a sync delta: enrich and create new aircraft, refresh changed ones, drop the ones that left the feed
+    public List<Flight> applyDelta(FeedDelta delta) {
+        flightController.removeFlightsByIcao24(delta.removed());
+        publishProximityAlerts(delta.snapshot());
+        return flightController.createFlights(createFlightSpecs(deltaVectors(delta)));
+    }
+
+    private static List<StateVector> deltaVectors(FeedDelta delta) {
+        List<StateVector> vectors = new ArrayList<>(delta.added().size() + delta.changed().size());
+        vectors.addAll(delta.added());
+        vectors.addAll(delta.changed());
+        return vectors;
+    }
+
+    // Check the snapshot for airborne pairs that are too close and publish them next to the schedule
+    private void publishProximityAlerts(List<StateVector> vectors) {
+        List<ProximityAlert> alerts = proximityMonitor.detect(vectors);
+        if (!alerts.isEmpty()) {
+            System.out.println("Proximity alert: " + alerts.size() + " aircraft pairs below separation minima");
+        }
+        flightController.getSchedulingController().updateProximityAlerts(alerts);
+    }
+
+    // Turn state vectors into specs: aircraft we already track become time updates (only when their
+    // ETA moved enough to matter), new aircraft go through enrichment
+    private List<FlightSpec> createFlightSpecs(List<StateVector> vectors) {
+        return createFlightSpecsAsync(vectors).join();
+    }
+
+    // Classifies on the calling thread, starts the reference lookups for new aircraft, and builds the update
+    // specs while those lookups are in flight
+    private CompletableFuture<List<FlightSpec>> createFlightSpecsAsync(List<StateVector> vectors) {
+        // Estimate every aircraft's arrival time in one pass over the batch
+        double[] etaSeconds = etaEstimator.estimate(vectors);
+
+        List<StateVector> newAircraft = new ArrayList<>();
+        long[] newArrivalTimes = new long[vectors.size()];
+        List<Flight> known = new ArrayList<>();
+        List<StateVector> knownVectors = new ArrayList<>();
+        long[] knownArrivalTimes = new long[vectors.size()];
+
+        for (int i = 0; i < vectors.size(); i++) {
+            StateVector vector = vectors.get(i);
+            long arrivalTime = Double.isNaN(etaSeconds[i])
+                    ? vector.timePosition()
+                    : vector.timePosition() + Math.round(etaSeconds[i]);
+
+            Flight existing = flightController.getFlightByIcao24(vector.icao24());
+            if (existing == null) {
+                newArrivalTimes[newAircraft.size()] = arrivalTime;
+                newAircraft.add(vector);
+            } else {
+                knownArrivalTimes[known.size()] = arrivalTime;
+                known.add(existing);
+                knownVectors.add(vector);
+            }
+        }
+
+        CompletableFuture<List<FlightSpec>> flightSpecs = buildFlightSpecsAsync(newAircraft, newArrivalTimes);
+
+        List<FlightSpec> updates = new ArrayList<>();
+        for (int i = 0; i < known.size(); i++) {
+            FlightSpec update = createUpdateSpec(known.get(i), knownVectors.get(i), knownArrivalTimes[i]);
+            if (update != null) {
+                updates.add(update);
+            }
+        }
+
+        return flightSpecs.thenApply(specs -> {
+            specs.addAll(updates);
+            return specs;
+        });
+    }
+
+    // Stages 2 and 3 of the import pipeline: batch-resolve reference data, then build flight specs in parallel
+    private CompletableFuture<List<FlightSpec>> buildFlightSpecsAsync(List<StateVector> vectors, long[] arrivalTimes) {
+        if (vectors.isEmpty()) {
+            return CompletableFuture.completedFuture(new ArrayList<>());
+        }
+
+        // Pick aircraft types up front so their lookups can be batched with the airlines
+        String[] aircraftTypes = new String[vectors.size()];
+        Set<String> airlineCodes = new HashSet<>();
+        for (int i = 0; i < vectors.size(); i++) {
+            aircraftTypes[i] = generateAircraftType();
+            addAirlineCodes(vectors.get(i).callsign(), airlineCodes);
+        }
+
+        // Stage 2: resolve every distinct airline code and aircraft type with one query each, both at once
+        CompletableFuture<Map<String, Airline>> airlines = databaseService.getAirlinesByCodesAsync(airlineCodes);
+        CompletableFuture<Map<String, AircraftType>> aircraft =
+                databaseService.getAircraftByNamesAsync(new HashSet<>(Arrays.asList(aircraftTypes)));
+
+        // Stage 3: build the flights in parallel - this stage only reads the resolved maps
+        return airlines.thenCombine(aircraft, (resolvedAirlines, resolvedAircraft) -> {
+            IntStream indexes = IntStream.range(0, vectors.size());
+            if (vectors.size() >= PARALLEL_BUILD_THRESHOLD) {
+                indexes = indexes.parallel();
+            }
+            return indexes
+                    .mapToObj(i -> createEnhancedFlight(vectors.get(i), arrivalTimes[i], aircraftTypes[i],
+                            resolvedAirlines, resolvedAircraft))
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toCollection(ArrayList::new));
+        });
+    }
+
+    // Spec that moves an already imported arrival to its new ETA (matched by icao24), or null when
+    // it is a departure or the ETA moved less than the update threshold
+    private FlightSpec createUpdateSpec(Flight existing, StateVector vector, long arrivalTime) {
+        if (existing.getType() != Flight.FlightType.ARRIVAL) {
+            return null;
+        }
+
+        LocalDateTime newTime = toLocalDateTime(arrivalTime);
+        long shiftSeconds = Math.abs(Duration.between(existing.getScheduledTime(), newTime).getSeconds());
+        if (shiftSeconds <= EtaEstimator.DEFAULT_UPDATE_THRESHOLD_SECONDS) {
+            return null;
+        }
+
+        return new FlightSpec(
+                existing.getFlightNumber(),
+                existing.getAirline(),
+                existing.getAircraft(),
+                existing.getCategory(),
+                existing.getType(),
+                newTime,
+                existing.getEmergencyStatus(),
+                existing.getFuelLevel(),
+                vector.icao24()
+        );
+    }
+
+    // Restrict imports to aircraft around the airport (null imports from the whole feed)
+    public void setAirspaceFilter(AirspaceFilter airspaceFilter) {
+        this.airspaceFilter = airspaceFilter;
+        if (airspaceFilter != null) {
+            this.etaEstimator = new EtaEstimator(airspaceFilter.getAirport());
+            this.proximityMonitor = new ProximityMonitor(airspaceFilter.getAirport());
+        }
+    }
+
+    public AirspaceFilter getAirspaceFilter() {
+        return airspaceFilter;
+    }
+
+    // Start appending every live snapshot to a recording (pass null to stop)
+    public void setFeedRecorder(FeedRecorder feedRecorder) {
+        this.feedRecorder = feedRecorder;
+    }
+
+    // Append a snapshot to the active recording, if any - recording problems never fail the import
+    private void recordSnapshot(String response) {
+        if (feedRecorder == null) {
+            return;
+        }
+
         try {
-            // Format callsign to look like a flight number
-            String flightNumber = formatCallsign(callsign);
+            feedRecorder.record(System.currentTimeMillis(), response);
+        } catch (IOException e) {
+            System.err.println("Error recording OpenSky snapshot: " + e.getMessage());
+        }
+    }
 
-            // Generate airline name from database
-            String airline = generateAirlineName(callsign);
+    // Describe a flight with random enhancements (called from parallel workers)
+    private FlightSpec createEnhancedFlight(StateVector vector, long arrivalTime, String aircraftType,
+                                            Map<String, Airline> airlines,
+                                            Map<String, AircraftType> aircraft) {
+        try {
+            Random random = ThreadLocalRandom.current();
 
-            // Generate random aircraft type
-            String aircraftType = generateAircraftType();
+            // Format callsign to look like a flight number
+            String flightNumber = formatCallsign(vector.callsign());
 
-            // Determine wake turbulence category using database
-            Flight.WakeTurbulenceCategory category = determineTurbulenceCategory(aircraftType);
+            // Generate airline name from the resolved airlines
+            String airline = generateAirlineName(vector.callsign(), airlines);
+
+            // Determine wake turbulence category from the resolved aircraft
+            Flight.WakeTurbulenceCategory category = determineTurbulenceCategory(aircraft.get(aircraftType));
 
             // Random flight type (arrival or departure)
             Flight.FlightType flightType = random.nextBoolean() ?
                     Flight.FlightType.ARRIVAL : Flight.FlightType.DEPARTURE;
 
-            // Convert Unix timestamp to LocalDateTime
-            LocalDateTime scheduledTime = Instant.ofEpochSecond(timePosition)
-                    .atZone(ZoneId.systemDefault())
-                    .toLocalDateTime();
+            // Arrivals are due at their estimated time over the threshold, departures at the report time
+            LocalDateTime scheduledTime = toLocalDateTime(
+                    flightType == Flight.FlightType.ARRIVAL ? arrivalTime : vector.timePosition());
 
             // Randomly assign emergency status (10% chance of emergency)
             Flight.EmergencyStatus emergencyStatus = generateRandomEmergencyStatus();
 
-            // Create flight object
-            Flight flight = flightController.createFlight(
-                    flightNumber,
-                    airline,
-                    aircraftType,
-                    category,
-                    flightType,
-                    scheduledTime,
-                    emergencyStatus
-            );
-
             // Set random fuel level
             int fuelLevel = random.nextInt(90) + 10; // 10% to 100%
-            flight.setFuelLevel(fuelLevel);
 
             // If emergency is low fuel, set lower fuel level
             if (emergencyStatus == Flight.EmergencyStatus.LOW_FUEL) {
-                flight.setFuelLevel(random.nextInt(10) + 5); // 5% to 15%
+                fuelLevel = random.nextInt(10) + 5; // 5% to 15%
             }
 
-            return flight;
+            return new FlightSpec(
+                    flightNumber,
+                    airline,
+                    aircraftType,
+                    category,
+                    flightType,
+                    scheduledTime,
+                    emergencyStatus,
+                    fuelLevel,
+                    vector.icao24()
+            );
 
         } catch (Exception e) {
             System.err.println("Error creating enhanced flight: " + e.getMessage());
@@ -163,112 +387,73 @@ public class OpenSkyDataImport {
         }
     }
 
-    // Generate completely simulated flights when no real data is available
+    // Generate completely simulated flights when no real data is available - reference data comes from memory
     private List<Flight> generateSimulatedFlights(int numFlights) {
-        List<Flight> simulatedFlights = new ArrayList<>();
-
-        for (int i = 0; i < numFlights; i++) {
-            try {
-                // Default airlines if no database
-                String[][] defaultAirlines = {
-                        {"LY", "El Al Israel Airlines"},
-                        {"BA", "British Airways"},
-                        {"AA", "American Airlines"},
-                        {"DL", "Delta Air Lines"},
-                        {"LH", "Lufthansa"}
-                };
-                int idx = random.nextInt(defaultAirlines.length);
-                String airlineCode = defaultAirlines[idx][0];
-                String airlineName = defaultAirlines[idx][1];
-
-                // Generate a flight number
-                int flightNum = random.nextInt(900) + 100; // 100-999
-                String flightNumber = airlineCode + flightNum;
-
-                // Random wake turbulence category
-                Flight.WakeTurbulenceCategory category = generateRandomCategory();
-
-                // Random flight type
-                Flight.FlightType flightType = random.nextBoolean() ?
-                        Flight.FlightType.ARRIVAL : Flight.FlightType.DEPARTURE;
-
-                // Create a scheduled time
-                LocalDateTime now = LocalDateTime.now();
-                LocalDateTime scheduledTime = now.plusMinutes(random.nextInt(180) + 15);
-
-                // Random emergency status (10% chance)
-                Flight.EmergencyStatus emergencyStatus = generateRandomEmergencyStatus();
-
-                // Fallback to generating random aircraft
-                String aircraftType = generateAircraftType();
-                Flight flight = flightController.createFlight(
-                        flightNumber,
-                        airlineName,
-                        aircraftType,
-                        category,
-                        flightType,
-                        scheduledTime,
-                        emergencyStatus
-                );
-
-                // Set fuel level
-                int fuelLevel = random.nextInt(90) + 10;
-                flight.setFuelLevel(fuelLevel);
-
-                if (emergencyStatus == Flight.EmergencyStatus.LOW_FUEL) {
-                    flight.setFuelLevel(random.nextInt(10) + 5);
-                }
-
-                simulatedFlights.add(flight);
-
-            } catch (Exception e) {
-                System.err.println("Error generating simulated flight: " + e.getMessage());
-            }
-        }
+        AircraftPool aircraftPool = databaseService != null
+                ? databaseService.getAircraftPool() : new AircraftPool(List.of());
+        List<Airline> airlines = databaseService != null
+                ? databaseService.getReferenceSnapshot().getAirlines() : List.of();
 
-        return simulatedFlights;
+        SyntheticTrafficGenerator generator = new SyntheticTrafficGenerator(aircraftPool, airlines, random.nextLong());
+        List<FlightSpec> simulatedFlights = generator.generate(
+                numFlights, LocalDateTime.now().plusMinutes(15), Duration.ofMinutes(180));
+
+        return flightController.createFlights(simulatedFlights);
     }
 
     // Helper methods
+    private static LocalDateTime toLocalDateTime(long epochSeconds) {
+        return Instant.ofEpochSecond(epochSeconds)
+                .atZone(ZoneId.systemDefault())
+                .toLocalDateTime();
+    }
+
     private String formatCallsign(String callsign) {
+        Random random = ThreadLocalRandom.current();
         if (callsign.length() <= 3) {
             return callsign + random.nextInt(1000);
         } else {
             // Extract airline code and add numbers
-            String airlineCode = callsign.substring(0, 3);
+            String airlineCode = ReferencePool.shared().callsignPrefix(callsign, 3);
             return airlineCode + random.nextInt(1000);
         }
     }
 
-    private String generateAirlineName(String callsign) {
-        // Extract the first 3 characters which should be the ICAO code
-        String icaoCode = "";
-        if (callsign.length() >= 3) {
-            icaoCode = callsign.substring(0, 3);
-        } else {
-            icaoCode = callsign;
+    // Collect the airline codes generateAirlineName may look up for a callsign (interned: the same few hundred
+    // prefixes come round in every snapshot)
+    private void addAirlineCodes(String callsign, Set<String> codes) {
+        ReferencePool pool = ReferencePool.shared();
+        codes.add(pool.callsignPrefix(callsign, 3));
+        if (callsign.length() >= 2) {
+            codes.add(pool.callsignPrefix(callsign, 2));
         }
+    }
 
-        // Try to find the airline in the database
-        Map<String, String> airline = databaseService.getAirlineByCode(icaoCode);
+    private String generateAirlineName(String callsign, Map<String, Airline> airlines) {
+        // Extract the first 3 characters which should be the ICAO code
+        ReferencePool pool = ReferencePool.shared();
+        String icaoCode = pool.callsignPrefix(callsign, 3);
+
+        // Try to find the airline among the resolved codes
+        Airline airline = airlines.get(icaoCode);
 
         // If found in database, return the airline name
-        if (airline != null && airline.get("name") != null) {
-            return airline.get("name");
+        if (airline != null && airline.name() != null) {
+            return airline.name();
         }
 
         // If not found with 3 letters, try with 2 letters
         if (callsign.length() >= 2) {
-            String shortCode = callsign.substring(0, 2);
-            airline = databaseService.getAirlineByCode(shortCode);
+            String shortCode = pool.callsignPrefix(callsign, 2);
+            airline = airlines.get(shortCode);
 
-            if (airline != null && airline.get("name") != null) {
-                return airline.get("name");
+            if (airline != null && airline.name() != null) {
+                return airline.name();
             }
         }
 
-        // If not found, return a default name
-        return icaoCode + " Airlines";
+        // If not found, return a default name (the pool's copy, so every flight of the airline shares it)
+        return pool.airline(icaoCode + " Airlines").name();
     }
 
     private String generateAircraftType() {
@@ -288,36 +473,8 @@ public class OpenSkyDataImport {
         return commonAircraft[random.nextInt(commonAircraft.length)];
     }
 
-    private Flight.WakeTurbulenceCategory generateRandomCategory() {
-        int rand = random.nextInt(100);
-
-        if (rand < 10) {
-            return Flight.WakeTurbulenceCategory.LIGHT;
-        } else if (rand < 70) {
-            return Flight.WakeTurbulenceCategory.MEDIUM;
-        } else if (rand < 95) {
-            return Flight.WakeTurbulenceCategory.HEAVY;
-        } else {
-            return Flight.WakeTurbulenceCategory.SUPER;
-        }
-    }
-
     private Flight.EmergencyStatus generateRandomEmergencyStatus() {
-        int rand = random.nextInt(100);
-
-        if (rand < 90) {
-            return Flight.EmergencyStatus.NONE;
-        } else if (rand < 92) {
-            return Flight.EmergencyStatus.MINOR_MECHANICAL;
-        } else if (rand < 94) {
-            return Flight.EmergencyStatus.LOW_FUEL;
-        } else if (rand < 96) {
-            return Flight.EmergencyStatus.MEDICAL;
-        } else if (rand < 98) {
-            return Flight.EmergencyStatus.MAJOR_MECHANICAL;
-        } else {
-            return Flight.EmergencyStatus.CRITICAL;
-        }
+        return SyntheticTrafficGenerator.randomEmergencyStatus(ThreadLocalRandom.current());
     }
 
     // Random weather generation - updates the weather controller
@@ -378,20 +535,10 @@ public class OpenSkyDataImport {
         return response.toString();
     }
 
-    // Determine wake turbulence category based on aircraft type
-    private Flight.WakeTurbulenceCategory determineTurbulenceCategory(String aircraftType) {
-        // Try to find aircraft in database
-        Map<String, Object> aircraft = databaseService.getAircraftByName(aircraftType);
-
-        if (aircraft != null && aircraft.get("turbulence_category") != null) {
-            String categoryString = (String) aircraft.get("turbulence_category");
-            try {
-                // Convert string to enum
-                return Flight.WakeTurbulenceCategory.valueOf(categoryString);
-            } catch (IllegalArgumentException e) {
-                // Fallback if category string isn't a valid enum value
-                System.err.println("Invalid turbulence category in database: " + categoryString);
-            }
+    // Determine wake turbulence category based on the resolved aircraft type
+    private Flight.WakeTurbulenceCategory determineTurbulenceCategory(AircraftType aircraft) {
+        if (aircraft != null && aircraft.turbulenceCategory() != null) {
+            return aircraft.turbulenceCategory();
         }
 
         // If not found in database, assign based on aircraft naming patterns
@@ -428,7 +575,7 @@ public class OpenSkyDataImport {
 //        }
 
         // Random assignment
-        int rand = random.nextInt(100);
+        int rand = ThreadLocalRandom.current().nextInt(100);
 
         if (rand < 10) {
             return Flight.WakeTurbulenceCategory.LIGHT;
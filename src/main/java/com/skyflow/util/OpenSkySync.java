@@ -0,0 +1,128 @@
+package com.skyflow.util;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Continuous feed synchronisation: polls a FeedSource on an interval, diffs each snapshot against
+// the previous one and publishes only new, changed and disappeared aircraft.
+public class OpenSkySync {
+    private final FeedSource feedSource;
+    private final Consumer<FeedDelta> listener;
+    private final int maxAircraft;
+    private final AirspaceFilter airspaceFilter;
+
+    // icao24 -> hash of the last state seen for that aircraft
+    private Map<String, Integer> previousStates = new HashMap<>();
+    private ScheduledExecutorService executor;
+    private long snapshotsPolled;
+    private long unchangedAircraft;
+
+    // Constructor - the listener receives every non-empty delta on the polling thread.
+    // Aircraft outside the airspace filter (null = no filter) are never tracked.
+    public OpenSkySync(FeedSource feedSource, int maxAircraft, AirspaceFilter airspaceFilter,
+                       Consumer<FeedDelta> listener) {
+        this.feedSource = feedSource;
+        this.maxAircraft = maxAircraft;
+        this.airspaceFilter = airspaceFilter;
+        this.listener = listener;
+    }
+
+    // Start polling in the background
+    public synchronized void start(Duration interval) {
+        if (executor != null) {
+            return;
+        }
+
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "opensky-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::pollSafely, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // Stop polling; the last snapshot is kept so a restart only sends what changed meanwhile
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    public synchronized boolean isRunning() {
+        return executor != null;
+    }
+
+    // Poll the feed once and publish the delta; returns null when the source is exhausted
+    public FeedDelta pollOnce() throws Exception {
+        String response = feedSource.fetchSnapshot();
+        if (response == null) {
+            return null;
+        }
+
+        FeedDelta delta = diff(StateVector.parseSnapshot(response, maxAircraft, airspaceFilter));
+        if (!delta.isEmpty()) {
+            listener.accept(delta);
+        }
+        return delta;
+    }
+
+    // Compare a snapshot with the previous one - an unchanged aircraft costs one hash comparison
+    synchronized FeedDelta diff(List<StateVector> vectors) {
+        Map<String, Integer> currentStates = new HashMap<>((int) (vectors.size() / 0.75f) + 1);
+        List<StateVector> added = new ArrayList<>();
+        List<StateVector> changed = new ArrayList<>();
+        List<StateVector> snapshot = new ArrayList<>(vectors.size());
+
+        for (StateVector vector : vectors) {
+            int stateHash = vector.hashCode();
+            if (currentStates.putIfAbsent(vector.icao24(), stateHash) != null) {
+                continue; // Duplicate report within the same snapshot
+            }
+            snapshot.add(vector);
+
+            Integer previousHash = previousStates.remove(vector.icao24());
+            if (previousHash == null) {
+                added.add(vector);
+            } else if (previousHash != stateHash) {
+                changed.add(vector);
+            } else {
+                unchangedAircraft++;
+            }
+        }
+
+        // Whatever was not matched has left the feed
+        List<String> removed = new ArrayList<>(previousStates.keySet());
+        previousStates = currentStates;
+        snapshotsPolled++;
+
+        return new FeedDelta(added, changed, removed, snapshot);
+    }
+
+    public synchronized long getSnapshotsPolled() {
+        return snapshotsPolled;
+    }
+
+    public synchronized long getUnchangedAircraft() {
+        return unchangedAircraft;
+    }
+
+    // Background poll - errors are logged and retried on the next interval
+    private void pollSafely() {
+        try {
+            if (pollOnce() == null) {
+                System.out.println("Feed source exhausted, stopping OpenSky sync");
+                stop();
+            }
+        } catch (Exception e) {
+            System.err.println("Error polling OpenSky feed: " + e.getMessage());
+        }
+    }
+}
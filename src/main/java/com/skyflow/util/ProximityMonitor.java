@@ -0,0 +1,170 @@
+package com.skyflow.util;
+
+import com.skyflow.model.Airport;
+import com.skyflow.model.ProximityAlert;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Finds every pair of airborne aircraft closer than a horizontal and a vertical threshold.
+// Positions are projected onto a local plane and hashed into a uniform grid whose cells are as wide
+// as the horizontal threshold, so only aircraft in the same or adjacent cells are ever compared.
+public class ProximityMonitor {
+    // Standard radar separation minima
+    public static final double DEFAULT_HORIZONTAL_NM = 3.0;
+    public static final double DEFAULT_VERTICAL_FEET = 1000.0;
+
+    private static final double FEET_PER_METER = 3.28084;
+    private static final int CELL_BIAS = 1 << 15; // Keeps cell coordinates non-negative for packing
+
+    private final double airportLatitude;
+    private final double airportLongitude;
+    private final double nmPerDegreeLongitude;
+    private final double horizontalNm;
+    private final double verticalFeet;
+
+    // Constructor
+    public ProximityMonitor(Airport airport, double horizontalNm, double verticalFeet) {
+        this.airportLatitude = airport.latitude();
+        this.airportLongitude = airport.longitude();
+        this.nmPerDegreeLongitude = 60.0 * Math.cos(Math.toRadians(airport.latitude()));
+        this.horizontalNm = horizontalNm;
+        this.verticalFeet = verticalFeet;
+    }
+
+    public ProximityMonitor(Airport airport) {
+        this(airport, DEFAULT_HORIZONTAL_NM, DEFAULT_VERTICAL_FEET);
+    }
+
+    // Check a snapshot; aircraft on the ground or without position or altitude are ignored
+    public List<ProximityAlert> detect(List<StateVector> vectors) {
+        int count = 0;
+        double[] xNm = new double[vectors.size()];
+        double[] yNm = new double[vectors.size()];
+        double[] altitudeFeet = new double[vectors.size()];
+        int[] source = new int[vectors.size()];
+
+        for (int i = 0; i < vectors.size(); i++) {
+            StateVector vector = vectors.get(i);
+            if (vector.onGround() || !vector.hasPosition() || Double.isNaN(vector.baroAltitude())) {
+                continue;
+            }
+            xNm[count] = (vector.longitude() - airportLongitude) * nmPerDegreeLongitude;
+            yNm[count] = (vector.latitude() - airportLatitude) * 60.0;
+            altitudeFeet[count] = vector.baroAltitude() * FEET_PER_METER;
+            source[count] = i;
+            count++;
+        }
+
+        int[] pairs = detect(xNm, yNm, altitudeFeet, count);
+
+        List<ProximityAlert> alerts = new ArrayList<>(pairs.length / 2);
+        for (int p = 0; p < pairs.length; p += 2) {
+            int a = pairs[p];
+            int b = pairs[p + 1];
+            double dx = xNm[a] - xNm[b];
+            double dy = yNm[a] - yNm[b];
+            alerts.add(new ProximityAlert(
+                    vectors.get(source[a]).icao24(),
+                    vectors.get(source[b]).icao24(),
+                    Math.sqrt(dx * dx + dy * dy),
+                    Math.abs(altitudeFeet[a] - altitudeFeet[b])));
+        }
+        return alerts;
+    }
+
+    // Grid kernel over planar positions (NM) and altitudes (ft); returns conflicting index pairs flattened
+    // as [a0, b0, a1, b1, ...]. Each pair is reported once.
+    public int[] detect(double[] xNm, double[] yNm, double[] altitudeFeet, int count) {
+        // Sort aircraft by cell: the packed value is (cell key << 32 | index), so one primitive sort groups them
+        long[] byCell = new long[count];
+        for (int i = 0; i < count; i++) {
+            byCell[i] = ((long) cellKey(cellOf(xNm[i]), cellOf(yNm[i])) << 32) | i;
+        }
+        Arrays.sort(byCell);
+
+        int[] sortedKeys = new int[count];
+        for (int i = 0; i < count; i++) {
+            sortedKeys[i] = (int) (byCell[i] >>> 32);
+        }
+
+        double horizontalSquared = horizontalNm * horizontalNm;
+        int[] pairs = new int[16];
+        int pairCount = 0;
+
+        // Walk one run of same-cell aircraft at a time
+        int runStart = 0;
+        while (runStart < count) {
+            int key = sortedKeys[runStart];
+            int runEnd = runStart;
+            while (runEnd < count && sortedKeys[runEnd] == key) {
+                runEnd++;
+            }
+
+            int cx = (key >>> 16) - CELL_BIAS;
+            int cy = (key & 0xFFFF) - CELL_BIAS;
+
+            // Own cell plus the four "forward" neighbours, so every adjacent pair of cells is visited once
+            for (int neighbour = 0; neighbour < 5; neighbour++) {
+                int otherStart;
+                int otherEnd;
+                if (neighbour == 0) {
+                    otherStart = runStart;
+                    otherEnd = runEnd;
+                } else {
+                    int nx = cx + (neighbour == 4 ? 0 : 1);
+                    int ny = cy + (neighbour == 1 ? -1 : neighbour == 2 ? 0 : 1);
+                    int otherKey = cellKey(nx, ny);
+                    otherStart = lowerBound(sortedKeys, count, otherKey);
+                    otherEnd = lowerBound(sortedKeys, count, otherKey + 1);
+                }
+
+                for (int i = runStart; i < runEnd; i++) {
+                    int a = (int) byCell[i];
+                    for (int j = (neighbour == 0 ? i + 1 : otherStart); j < otherEnd; j++) {
+                        int b = (int) byCell[j];
+                        double dx = xNm[a] - xNm[b];
+                        double dy = yNm[a] - yNm[b];
+                        if (dx * dx + dy * dy < horizontalSquared
+                                && Math.abs(altitudeFeet[a] - altitudeFeet[b]) < verticalFeet) {
+                            if (pairCount + 2 > pairs.length) {
+                                pairs = Arrays.copyOf(pairs, pairs.length * 2);
+                            }
+                            pairs[pairCount++] = a;
+                            pairs[pairCount++] = b;
+                        }
+                    }
+                }
+            }
+
+            runStart = runEnd;
+        }
+
+        return Arrays.copyOf(pairs, pairCount);
+    }
+
+    private int cellOf(double coordinateNm) {
+        int cell = (int) Math.floor(coordinateNm / horizontalNm);
+        return Math.max(1 - CELL_BIAS, Math.min(CELL_BIAS - 2, cell));
+    }
+
+    private static int cellKey(int cx, int cy) {
+        return ((cx + CELL_BIAS) << 16) | ((cy + CELL_BIAS) & 0xFFFF);
+    }
+
+    // First index in the sorted keys whose value is >= key
+    private static int lowerBound(int[] sortedKeys, int count, int key) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedKeys[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
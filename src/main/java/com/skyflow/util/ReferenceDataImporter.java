@@ -0,0 +1,263 @@
+package com.skyflow.util;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.skyflow.controller.ReferenceRepository;
+import com.skyflow.controller.Repository;
+import com.skyflow.controller.RowMappers;
+import com.skyflow.model.AircraftType;
+import com.skyflow.model.Airline;
+import com.skyflow.model.Flight;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+// Bulk loader for airline and aircraft registries in CSV (with a header row) or JSON (an array of objects).
+// All rows of a file are upserted in one transaction with batched prepared statements, so a registry with
+// tens of thousands of rows loads in seconds. Column names follow the database (icao_code, airline_name,
+// fuel_capacity, ...); the camelCase spellings and a few common aliases are accepted too.
+public class ReferenceDataImporter {
+    private final ReferenceRepository referenceRepository;
+    private ProgressListener progressListener = ReferenceDataImporter::printProgress;
+
+    // Called after every written batch
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(String dataset, int rowsWritten, int totalRows);
+    }
+
+    public record ImportResult(String dataset, int rowsRead, int rowsWritten, int rowsSkipped, long elapsedMillis) {
+    }
+
+    // Uniform access to a CSV line or a JSON object by column name
+    private interface Row {
+        String get(String... names);
+    }
+
+    // Constructor
+    public ReferenceDataImporter(ReferenceRepository referenceRepository) {
+        this.referenceRepository = referenceRepository;
+    }
+
+    public void setProgressListener(ProgressListener progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    // Import an airline registry; existing ICAO codes get their name updated
+    public ImportResult importAirlines(Path file) throws IOException, SQLException {
+        long start = System.nanoTime();
+        List<Row> rows = readRows(file);
+        List<Airline> airlines = convert(rows, ReferenceDataImporter::toAirline);
+
+        int written = referenceRepository.upsertAirlines(airlines,
+                count -> progressListener.onProgress("airlines", count, airlines.size()));
+        return new ImportResult("airlines", rows.size(), written, rows.size() - airlines.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Import an aircraft registry; existing names get their details updated
+    public ImportResult importAircraft(Path file) throws IOException, SQLException {
+        long start = System.nanoTime();
+        List<Row> rows = readRows(file);
+        List<AircraftType> aircraftTypes = convert(rows, ReferenceDataImporter::toAircraftType);
+
+        int written = referenceRepository.upsertAircraft(aircraftTypes,
+                count -> progressListener.onProgress("aircraft", count, aircraftTypes.size()));
+        // Rows the repository could not store count as skipped too
+        return new ImportResult("aircraft", rows.size(), written, rows.size() - written,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Convert rows to records, dropping (and counting) the ones with missing or invalid values
+    private static <T> List<T> convert(List<Row> rows, Function<Row, T> converter) {
+        List<T> records = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            T record = converter.apply(row);
+            if (record != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    private static Airline toAirline(Row row) {
+        String code = row.get("icao_code", "icaoCode", "icao", "code");
+        String name = row.get("airline_name", "airlineName", "name");
+        if (isBlank(code) || isBlank(name)) {
+            return null;
+        }
+        return new Airline(code.trim().toUpperCase(Locale.ROOT), name.trim());
+    }
+
+    private static AircraftType toAircraftType(Row row) {
+        String name = row.get("name");
+        String aircraftType = row.get("aircraft_type", "aircraftType", "type");
+        String category = row.get("turbulence_category", "turbulenceCategory", "category");
+        String fuelCapacity = row.get("fuel_capacity", "fuelCapacity");
+        String weight = row.get("weight");
+        if (isBlank(name) || isBlank(aircraftType) || isBlank(category) || isBlank(fuelCapacity) || isBlank(weight)) {
+            return null;
+        }
+
+        Flight.WakeTurbulenceCategory turbulenceCategory =
+                RowMappers.turbulenceCategory(category.trim().toUpperCase(Locale.ROOT));
+        if (turbulenceCategory == null) {
+            return null;
+        }
+
+        try {
+            return new AircraftType(0, name.trim(), Integer.parseInt(fuelCapacity.trim()), Integer.parseInt(weight.trim()),
+                    aircraftType.trim(), turbulenceCategory);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static List<Row> readRows(Path file) throws IOException {
+        String fileName = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (fileName.endsWith(".json")) {
+            return readJson(file);
+        }
+        if (fileName.endsWith(".csv")) {
+            return readCsv(file);
+        }
+        throw new IOException("Unsupported reference data format (expected .csv or .json): " + file);
+    }
+
+    private static List<Row> readJson(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            JsonArray array = JsonParser.parseReader(reader).getAsJsonArray();
+            List<Row> rows = new ArrayList<>(array.size());
+
+            for (JsonElement element : array) {
+                if (!element.isJsonObject()) {
+                    continue;
+                }
+                JsonObject object = element.getAsJsonObject();
+                rows.add(names -> {
+                    for (String name : names) {
+                        JsonElement value = object.get(name);
+                        if (value != null && !value.isJsonNull()) {
+                            return value.getAsString();
+                        }
+                    }
+                    return null;
+                });
+            }
+            return rows;
+        } catch (RuntimeException e) {
+            throw new IOException("Invalid JSON in " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static List<Row> readCsv(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String headerLine = reader.readLine();
+            if (headerLine == null) {
+                return new ArrayList<>();
+            }
+
+            // Column name -> index, matched case-insensitively
+            Map<String, Integer> header = new HashMap<>();
+            List<String> columns = parseCsvLine(stripBom(headerLine));
+            for (int i = 0; i < columns.size(); i++) {
+                header.put(columns.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+
+            List<Row> rows = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                List<String> fields = parseCsvLine(line);
+                rows.add(names -> {
+                    for (String name : names) {
+                        Integer index = header.get(name.toLowerCase(Locale.ROOT));
+                        if (index != null && index < fields.size()) {
+                            return fields.get(index);
+                        }
+                    }
+                    return null;
+                });
+            }
+            return rows;
+        }
+    }
+
+    // Split one CSV line, honouring double-quoted fields ("" is an escaped quote)
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String stripBom(String line) {
+        return line.startsWith("\uFEFF") ? line.substring(1) : line;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static void printProgress(String dataset, int rowsWritten, int totalRows) {
+        System.out.printf("Importing %s: %d/%d rows (%.0f%%)%n", dataset, rowsWritten, totalRows,
+                totalRows == 0 ? 100.0 : rowsWritten * 100.0 / totalRows);
+    }
+
+    // Command line: ReferenceDataImporter airlines|aircraft <file.csv|file.json>
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2 || !(args[0].equals("airlines") || args[0].equals("aircraft"))) {
+            System.err.println("Usage: ReferenceDataImporter airlines|aircraft <file.csv|file.json>");
+            return;
+        }
+
+        Repository repository = Repository.fromSystemProperties();
+        try {
+            ReferenceDataImporter importer = new ReferenceDataImporter(repository);
+            Path file = Paths.get(args[1]);
+            ImportResult result = args[0].equals("airlines") ? importer.importAirlines(file) : importer.importAircraft(file);
+
+            System.out.println("Imported " + result.rowsWritten() + " " + result.dataset() + " in "
+                    + result.elapsedMillis() + " ms (" + result.rowsSkipped() + " invalid rows skipped)");
+        } finally {
+            repository.shutdown();
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.skyflow.util;
+
+import com.skyflow.controller.FlightController;
+import com.skyflow.controller.RunwayController;
+import com.skyflow.controller.SchedulingController;
+import com.skyflow.controller.WeatherController;
+import com.skyflow.model.Flight;
+import com.skyflow.model.Runway;
+import com.skyflow.model.ScheduleClock;
+import com.skyflow.model.Weather;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Full copy of the scheduling state at one journal sequence number: weather, runways (with their next
+// available times), every flight with its exact priority and assignment, and the queue in heap order.
+// Restoring it and replaying the journal records after that sequence rebuilds the live state exactly.
+public final class ScheduleSnapshot {
+    // File layout: MAGIC, FORMAT_VERSION, sequence, taken-at time, weather, runway table, flight table,
+    // then index lists for the scheduler's runways, the runway controller, the flight controller, queue and schedule
+    static final int MAGIC = 0x534B5953; // "SKYS"
+    static final int FORMAT_VERSION = 1;
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    // The controllers whose state a snapshot captures and restores
+    public record Controllers(FlightController flights, RunwayController runways,
+                              WeatherController weather, SchedulingController scheduling) {
+    }
+
+    private ScheduleSnapshot() {
+    }
+
+    // Write the current state next to the target and move it into place, so readers never see a partial file
+    public static void write(Path file, Controllers controllers, long sequence) throws IOException {
+        SchedulingController scheduling = controllers.scheduling();
+        List<Flight> controllerFlights = controllers.flights().getAllFlights();
+        List<Flight> queued = scheduling.getQueuedFlights();
+        List<Flight> scheduled = scheduling.getScheduledFlights();
+        List<Runway> schedulerRunways = scheduling.getRunways();
+        List<Runway> controllerRunways = controllers.runways().getAllRunways();
+
+        // Tables of every distinct runway and flight; the lists below refer to them by index
+        Map<Runway, Integer> runwayIndex = new IdentityHashMap<>();
+        List<Runway> runways = new ArrayList<>();
+        Map<Flight, Integer> flightIndex = new IdentityHashMap<>();
+        List<Flight> flights = new ArrayList<>();
+        for (Runway runway : schedulerRunways) {
+            index(runway, runwayIndex, runways);
+        }
+        for (Runway runway : controllerRunways) {
+            index(runway, runwayIndex, runways);
+        }
+        for (List<Flight> list : List.of(controllerFlights, queued, scheduled)) {
+            for (Flight flight : list) {
+                index(flight, flightIndex, flights);
+                if (flight.getAssignedRunway() != null) {
+                    index(flight.getAssignedRunway(), runwayIndex, runways);
+                }
+            }
+        }
+
+        Path absolute = file.toAbsolutePath();
+        Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(sequence);
+            writeTime(out, ScheduleClock.now());
+            writeWeather(out, scheduling.getCurrentWeather());
+
+            out.writeInt(runways.size());
+            for (Runway runway : runways) {
+                writeString(out, runway.getId());
+                out.writeInt(runway.getHeading());
+                out.writeInt(runway.getLength());
+                writeTime(out, runway.getNextAvailableTime());
+                out.writeBoolean(runway.isActive());
+            }
+
+            out.writeInt(flights.size());
+            for (Flight flight : flights) {
+                writeFlight(out, flight);
+                out.writeInt(flight.getPriority());
+                writeTime(out, flight.getActualTime());
+                Runway assigned = flight.getAssignedRunway();
+                out.writeInt(assigned != null ? runwayIndex.get(assigned) : -1);
+            }
+
+            writeIndexes(out, schedulerRunways, runwayIndex);
+            writeIndexes(out, controllerRunways, runwayIndex);
+            writeIndexes(out, controllerFlights, flightIndex);
+            writeIndexes(out, queued, flightIndex);
+            writeIndexes(out, scheduled, flightIndex);
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Replace the controllers' state with the snapshot; returns the journal sequence it was taken at
+    public static long restore(Path file, Controllers controllers) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                throw new IOException("Not a SkyFlow schedule snapshot: " + file);
+            }
+            long sequence = buffer.getLong();
+            LocalDateTime takenAt = readTime(buffer);
+
+            // Rebuilding flights recalculates their priorities, so pin the snapshot time while reading
+            ScheduleClock.duringAt(takenAt, () -> restoreState(buffer, controllers));
+            return sequence;
+        } catch (RuntimeException e) {
+            throw new IOException("Damaged schedule snapshot " + file + ": " + e, e);
+        }
+    }
+
+    // Everything after the header, read with the snapshot time pinned
+    private static void restoreState(ByteBuffer buffer, Controllers controllers) {
+        Weather weather = readWeather(buffer);
+
+        int runwayCount = buffer.getInt();
+        List<Runway> runways = new ArrayList<>(runwayCount);
+        for (int i = 0; i < runwayCount; i++) {
+            Runway runway = new Runway(readString(buffer), buffer.getInt(), buffer.getInt());
+            runway.setNextAvailableTime(readTime(buffer));
+            runway.setActive(buffer.get() != 0);
+            runways.add(runway);
+        }
+
+        int flightCount = buffer.getInt();
+        List<Flight> flights = new ArrayList<>(flightCount);
+        for (int i = 0; i < flightCount; i++) {
+            Flight flight = readFlight(buffer);
+            flight.restorePriority(buffer.getInt());
+            flight.setActualTime(readTime(buffer));
+            int assigned = buffer.getInt();
+            flight.setAssignedRunway(assigned >= 0 ? runways.get(assigned) : null);
+            flights.add(flight);
+        }
+
+        List<Runway> schedulerRunways = readIndexes(buffer, runways);
+        List<Runway> controllerRunways = readIndexes(buffer, runways);
+        List<Flight> controllerFlights = readIndexes(buffer, flights);
+        List<Flight> queued = readIndexes(buffer, flights);
+        List<Flight> scheduled = readIndexes(buffer, flights);
+
+        controllers.scheduling().restoreState(schedulerRunways, queued, scheduled, weather);
+        controllers.runways().restoreRunways(controllerRunways);
+        controllers.weather().restoreWeather(weather);
+        controllers.flights().resetFlights(controllerFlights);
+    }
+
+    private static <T> void index(T item, Map<T, Integer> index, List<T> table) {
+        if (!index.containsKey(item)) {
+            index.put(item, table.size());
+            table.add(item);
+        }
+    }
+
+    private static <T> void writeIndexes(DataOutputStream out, List<T> items, Map<T, Integer> index) throws IOException {
+        out.writeInt(items.size());
+        for (T item : items) {
+            out.writeInt(index.get(item));
+        }
+    }
+
+    private static <T> List<T> readIndexes(ByteBuffer buffer, List<T> table) {
+        int count = buffer.getInt();
+        List<T> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(table.get(buffer.getInt()));
+        }
+        return items;
+    }
+
+    // Encoding shared with the journal records
+
+    // The fields a flight is created with; the constructor recalculates its priority at the current tick
+    static void writeFlight(DataOutputStream out, Flight flight) throws IOException {
+        writeString(out, flight.getId());
+        writeString(out, flight.getFlightNumber());
+        writeString(out, flight.getAirline());
+        writeString(out, flight.getAircraft());
+        out.writeByte(flight.getCategory().ordinal());
+        out.writeByte(flight.getType().ordinal());
+        writeTime(out, flight.getScheduledTime());
+        out.writeByte(flight.getEmergencyStatus().ordinal());
+        out.writeInt(flight.getFuelLevel());
+        writeString(out, flight.getIcao24());
+    }
+
+    static Flight readFlight(ByteBuffer buffer) {
+        Flight flight = new Flight(readString(buffer), readString(buffer), readString(buffer), readString(buffer),
+                Flight.WakeTurbulenceCategory.values()[buffer.get()],
+                Flight.FlightType.values()[buffer.get()],
+                readTime(buffer),
+                Flight.EmergencyStatus.values()[buffer.get()]);
+        flight.setFuelLevel(buffer.getInt());
+        flight.setIcao24(readString(buffer));
+        return flight;
+    }
+
+    static void writeWeather(DataOutputStream out, Weather weather) throws IOException {
+        out.writeDouble(weather.getWindSpeed());
+        out.writeInt(weather.getWindDirection());
+        out.writeDouble(weather.getVisibility());
+        out.writeByte(weather.getCondition().ordinal());
+    }
+
+    static Weather readWeather(ByteBuffer buffer) {
+        return new Weather(buffer.getDouble(), buffer.getInt(), buffer.getDouble(),
+                Weather.WeatherCondition.values()[buffer.get()]);
+    }
+
+    // Times are stored as UTC-based epoch second plus nanos of the local date-time, so no zone rules apply
+    static void writeTime(DataOutputStream out, LocalDateTime time) throws IOException {
+        if (time == null) {
+            out.writeLong(NO_TIME);
+            out.writeInt(0);
+        } else {
+            out.writeLong(time.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(time.getNano());
+        }
+    }
+
+    static LocalDateTime readTime(ByteBuffer buffer) {
+        long seconds = buffer.getLong();
+        int nanos = buffer.getInt();
+        return seconds == NO_TIME ? null : LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+
+    // Length-prefixed UTF-8, with -1 for null
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
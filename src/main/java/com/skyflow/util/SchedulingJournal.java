@@ -0,0 +1,667 @@
+package com.skyflow.util;
+
+import com.skyflow.controller.CommandLog;
+import com.skyflow.model.Flight;
+import com.skyflow.model.FlightStore;
+import com.skyflow.model.Runway;
+import com.skyflow.model.ScheduleClock;
+import com.skyflow.model.Weather;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// Append-only binary journal of every state-changing command, written through memory-mapped segment files.
+// Appending is a copy into the mapped page cache (no write syscall), so a crash of the process loses nothing
+// already appended. Periodic ScheduleSnapshots bound how much has to be replayed on recovery, and segments
+// that are fully covered by a snapshot are deleted.
+public class SchedulingJournal implements CommandLog, Closeable {
+    // Segment layout: MAGIC, FORMAT_VERSION, first sequence, then records of
+    // [length:int][crc32:int][sequence:long][epoch second:long][nanos:int][type:byte][payload]
+    // where length covers the whole record and crc32 everything after it; a zero length marks the end
+    static final int MAGIC = 0x534B594A; // "SKYJ"
+    static final int FORMAT_VERSION = 1;
+    static final int SEGMENT_HEADER_BYTES = 16;
+    static final int RECORD_HEADER_BYTES = 29;
+
+    public static final long DEFAULT_SEGMENT_BYTES = 64L * 1024 * 1024;
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 50_000;
+
+    // Snapshots kept on disk; segments are only compacted up to the oldest one, so a damaged newest
+    // snapshot can still fall back to the previous one
+    private static final int SNAPSHOTS_KEPT = 2;
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".snapshot";
+    private static final String LOCK_FILE = "primary.lock";
+
+    // Record types; the codes are part of the file format
+    public enum RecordType {
+        FLIGHT_CREATED(1),
+        FLIGHTS_CREATED(2),
+        FLIGHTS_REMOVED(3),
+        FLIGHT_DELETED(4),
+        EMERGENCY_SET(5),
+        FUEL_UPDATED(6),
+        RUNWAY_CREATED(7),
+        RUNWAY_DELETED(8),
+        RUNWAY_ACTIVE_SET(9),
+        WEATHER_CHANGED(10),
+        SCHEDULE_RESET(11),
+        SCHEDULE_PASS(12),
+        FLIGHTS_COMPLETED(13);
+
+        private final byte code;
+
+        RecordType(int code) {
+            this.code = (byte) code;
+        }
+
+        static RecordType fromCode(byte code) {
+            for (RecordType type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Unknown journal record type " + code);
+        }
+    }
+
+    // One decoded record; the payload is positioned at its first byte
+    public record Entry(long sequence, LocalDateTime time, RecordType type, ByteBuffer payload) {
+    }
+
+    // The mapped segment currently being appended to
+    private static final class Segment {
+        final Path file;
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+        int position;
+
+        Segment(Path file, FileChannel channel, MappedByteBuffer buffer, int position) {
+            this.file = file;
+            this.channel = channel;
+            this.buffer = buffer;
+            this.position = position;
+        }
+    }
+
+    // Byte buffer for encoding payloads that exposes its array, so a record is copied into the segment only once
+    private static final class PayloadBuffer extends ByteArrayOutputStream {
+        PayloadBuffer() {
+            super(1024);
+        }
+
+        byte[] array() {
+            return buf;
+        }
+    }
+
+    private final Path directory;
+    private final FileLock primaryLock;
+    private final ScheduleSnapshot.Controllers controllers;
+    private final long segmentBytes;
+    private final int snapshotInterval;
+    private final PayloadBuffer payload = new PayloadBuffer();
+    private final DataOutputStream out = new DataOutputStream(payload);
+    private final CRC32 crc = new CRC32();
+
+    private Segment segment;
+    private long nextSequence;
+    private int recordsSinceSnapshot;
+    private boolean failed;
+
+    private SchedulingJournal(Path directory, FileLock primaryLock, ScheduleSnapshot.Controllers controllers,
+                              long segmentBytes, int snapshotInterval) {
+        this.directory = directory;
+        this.primaryLock = primaryLock;
+        this.controllers = controllers;
+        this.segmentBytes = segmentBytes;
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    // Open the journal for appending after the last complete record. Call this after recovery, so that
+    // a fresh journal starts from a snapshot of the state it will be replayed onto.
+    public static SchedulingJournal open(Path directory, ScheduleSnapshot.Controllers controllers,
+                                         long segmentBytes, int snapshotInterval) throws IOException {
+        FileLock lock = tryLockPrimary(directory);
+        if (lock == null) {
+            throw new IOException("Scheduling journal " + directory + " is in use by another primary");
+        }
+        try {
+            return open(directory, controllers, segmentBytes, snapshotInterval, lock);
+        } catch (IOException | RuntimeException e) {
+            lock.channel().close();
+            throw e;
+        }
+    }
+
+    // Claim the journal for writing; null while another process holds it. The OS releases the lock the
+    // moment the holding process dies, which is how a standby notices that the primary has gone.
+    public static FileLock tryLockPrimary(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        FileChannel channel = FileChannel.open(directory.resolve(LOCK_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            FileLock lock = channel.tryLock();
+            if (lock != null) {
+                return lock;
+            }
+        } catch (OverlappingFileLockException e) {
+            // Already held inside this JVM
+        }
+        channel.close();
+        return null;
+    }
+
+    // Open with the primary lock already held (e.g. by a standby that has just caught up)
+    public static SchedulingJournal open(Path directory, ScheduleSnapshot.Controllers controllers,
+                                         long segmentBytes, int snapshotInterval, FileLock lock) throws IOException {
+        SchedulingJournal journal = new SchedulingJournal(directory, lock, controllers, segmentBytes, snapshotInterval);
+
+        List<Path> segments = listFiles(directory, SEGMENT_PREFIX, SEGMENT_SUFFIX);
+        List<Path> snapshots = listFiles(directory, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        long snapshotSequence = snapshots.isEmpty() ? -1 : sequenceOf(snapshots.get(snapshots.size() - 1));
+
+        long lastSequence = -1;
+        if (!segments.isEmpty()) {
+            Path last = segments.get(segments.size() - 1);
+            FileChannel channel = FileChannel.open(last, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            long[] end = scan(buffer, null);
+            lastSequence = end[0];
+
+            if (end[0] >= snapshotSequence && end[1] > 0 && end[1] + Integer.BYTES <= buffer.capacity()) {
+                // Keep appending to the last segment; overwrite whatever torn record follows the last good one
+                buffer.putInt((int) end[1], 0);
+                journal.segment = new Segment(last, channel, buffer, (int) end[1]);
+            } else {
+                channel.close();
+            }
+        }
+        // Sequence 0 is the empty journal, so the first snapshot of a fresh directory is snapshot 0
+        journal.nextSequence = Math.max(0, Math.max(lastSequence, snapshotSequence)) + 1;
+
+        if (snapshots.isEmpty()) {
+            journal.snapshot();
+        }
+        return journal;
+    }
+
+    // Read every complete record after the given sequence, across segments, in order; returns the last sequence read
+    public static long read(Path directory, long afterSequence, Consumer<Entry> consumer) throws IOException {
+        long lastSequence = afterSequence;
+        for (Path file : listFiles(directory, SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                long segmentLast = scan(buffer, entry -> {
+                    if (entry.sequence() > afterSequence) {
+                        consumer.accept(entry);
+                    }
+                })[0];
+                lastSequence = Math.max(lastSequence, segmentLast);
+            }
+        }
+        return lastSequence;
+    }
+
+    // Snapshot files, oldest first
+    public static List<Path> listSnapshots(Path directory) throws IOException {
+        return listFiles(directory, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+    }
+
+    // Checksum of a schedule (flight, runway and slot, in order), recorded with each pass to verify replays.
+    // Reads the id key and slot columns, so a pass allocates nothing; legacy ids get fresh keys in each
+    // process, so those flights are hashed by their id string instead.
+    public static long scheduleChecksum(List<Flight> schedule) {
+        long hash = 0xCBF29CE484222325L;
+        for (Flight flight : schedule) {
+            FlightStore store = flight.store();
+            int slot = flight.slot();
+            hash = mix(hash, flight.hasLegacyId() ? flight.getId().hashCode() : store.key(slot));
+            Runway runway = store.runwayAt(store.runwayIndexAt(slot));
+            hash = mix(hash, runway != null ? runway.getId().hashCode() : 0);
+            long actual = store.actualTime(slot);
+            hash = mix(hash, actual != FlightStore.NO_TIME ? Math.floorDiv(actual, 1_000_000_000L) : 0);
+            hash = mix(hash, actual != FlightStore.NO_TIME ? Math.floorMod(actual, 1_000_000_000L) : 0);
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, long value) {
+        return (hash ^ value) * 0x100000001B3L;
+    }
+
+    // Follows the journal while another process writes it, by mapping the same segment files read-only.
+    // Records become visible as soon as the writer has copied them in; nothing is sent over a socket.
+    public static final class Tail implements Closeable {
+        private final Path directory;
+        private final CRC32 crc = new CRC32();
+        private FileChannel channel;
+        private MappedByteBuffer buffer;
+        private int position;
+        private long nextSequence;
+        private boolean lost;
+
+        // Start after the given sequence (normally the snapshot the follower restored)
+        public Tail(Path directory, long afterSequence) {
+            this.directory = directory;
+            this.nextSequence = afterSequence + 1;
+        }
+
+        // Hand every record completed since the last call to the consumer; returns how many there were
+        public int poll(Consumer<Entry> consumer) throws IOException {
+            int count = 0;
+            while (true) {
+                Entry entry = buffer != null ? readRecord(buffer, position, nextSequence, crc) : null;
+                if (entry == null) {
+                    // Either the writer has not got further, or it has rolled over to a segment starting here
+                    if (!moveTo(nextSequence)) {
+                        return count;
+                    }
+                    continue;
+                }
+
+                position += RECORD_HEADER_BYTES + entry.payload().remaining();
+                nextSequence++;
+                count++;
+                consumer.accept(entry);
+            }
+        }
+
+        // True once the records this tail needs were compacted away; the follower has to restart from a snapshot
+        public boolean isLost() {
+            return lost;
+        }
+
+        public long getLastSequence() {
+            return nextSequence - 1;
+        }
+
+        // Map the segment holding the given sequence, positioned at it; false if it is not written yet
+        private boolean moveTo(long sequence) throws IOException {
+            List<Path> segments = listFiles(directory, SEGMENT_PREFIX, SEGMENT_SUFFIX);
+            Path start = null;
+            boolean later = false;
+            for (Path file : segments) {
+                long first = sequenceOf(file);
+                if (first <= sequence && (buffer == null || first == sequence)) {
+                    start = file;
+                }
+                later |= first > sequence;
+            }
+
+            // Once a segment past the wanted record exists, the record can only have been compacted away
+            lost = start == null && later;
+            if (start == null || (buffer != null && buffer.getLong(8) == sequenceOf(start))) {
+                return false;
+            }
+
+            FileChannel newChannel = FileChannel.open(start, StandardOpenOption.READ);
+            MappedByteBuffer newBuffer = newChannel.map(FileChannel.MapMode.READ_ONLY, 0, newChannel.size());
+            if (!hasHeader(newBuffer)) {
+                // The writer has created the file but not written its header yet
+                newChannel.close();
+                return false;
+            }
+
+            // Skip the records before the wanted one
+            long expected = newBuffer.getLong(8);
+            int offset = SEGMENT_HEADER_BYTES;
+            Entry entry;
+            while (expected < sequence && (entry = readRecord(newBuffer, offset, expected, crc)) != null) {
+                offset += RECORD_HEADER_BYTES + entry.payload().remaining();
+                expected++;
+            }
+            if (expected < sequence) {
+                // This segment ends early; the wanted record starts a segment of its own
+                newChannel.close();
+                lost = later;
+                return false;
+            }
+
+            close();
+            channel = newChannel;
+            buffer = newBuffer;
+            position = offset;
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (channel != null) {
+                channel.close();
+                channel = null;
+                buffer = null;
+            }
+        }
+    }
+
+    // Walk the records of one segment; returns {last sequence, end offset}, or {-1, -1} for a foreign file
+    private static long[] scan(ByteBuffer buffer, Consumer<Entry> consumer) {
+        if (!hasHeader(buffer)) {
+            return new long[]{-1, -1};
+        }
+
+        long expected = buffer.getLong(8);
+        int position = SEGMENT_HEADER_BYTES;
+        CRC32 crc = new CRC32();
+
+        // Stop at the end marker, a torn record or a gap in the sequence
+        Entry entry;
+        while ((entry = readRecord(buffer, position, expected, crc)) != null) {
+            position += RECORD_HEADER_BYTES + entry.payload().remaining();
+            expected++;
+            if (consumer != null) {
+                consumer.accept(entry);
+            }
+        }
+        return new long[]{expected - 1, position};
+    }
+
+    private static boolean hasHeader(ByteBuffer buffer) {
+        return buffer.limit() >= SEGMENT_HEADER_BYTES && buffer.getInt(0) == MAGIC && buffer.getInt(4) == FORMAT_VERSION;
+    }
+
+    // Decode the record at the given offset if it is complete and carries the expected sequence;
+    // null at the end marker, on a torn record, or while the writer is still copying it in
+    private static Entry readRecord(ByteBuffer buffer, int position, long expected, CRC32 crc) {
+        if (position + RECORD_HEADER_BYTES > buffer.limit()) {
+            return null;
+        }
+        int length = buffer.getInt(position);
+        if (length < RECORD_HEADER_BYTES || position + length > buffer.limit()) {
+            return null;
+        }
+        crc.reset();
+        crc.update(buffer.slice(position + 8, length - 8));
+        if ((int) crc.getValue() != buffer.getInt(position + 4) || buffer.getLong(position + 8) != expected) {
+            return null;
+        }
+
+        LocalDateTime time = LocalDateTime.ofEpochSecond(
+                buffer.getLong(position + 16), buffer.getInt(position + 24), ZoneOffset.UTC);
+        RecordType type = RecordType.fromCode(buffer.get(position + 28));
+        return new Entry(expected, time, type, buffer.slice(position + RECORD_HEADER_BYTES, length - RECORD_HEADER_BYTES));
+    }
+
+    private static List<Path> listFiles(Path directory, String prefix, String suffix) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            // Sequence numbers are zero-padded, so name order is sequence order
+            return files.filter(file -> {
+                String name = file.getFileName().toString();
+                return name.startsWith(prefix) && name.endsWith(suffix);
+            }).sorted().collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+        }
+    }
+
+    private static long sequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        int start = name.indexOf('-') + 1;
+        return Long.parseLong(name.substring(start, name.indexOf('.', start)));
+    }
+
+    private Path fileFor(String prefix, long sequence, String suffix) {
+        return directory.resolve(String.format("%s%020d%s", prefix, sequence, suffix));
+    }
+
+    // Commands
+
+    @Override
+    public void flightCreated(Flight flight) {
+        record(RecordType.FLIGHT_CREATED, out -> ScheduleSnapshot.writeFlight(out, flight));
+    }
+
+    @Override
+    public void flightsCreated(List<Flight> created, List<Flight> updated) {
+        record(RecordType.FLIGHTS_CREATED, out -> {
+            out.writeInt(created.size());
+            for (Flight flight : created) {
+                ScheduleSnapshot.writeFlight(out, flight);
+            }
+            out.writeInt(updated.size());
+            for (Flight flight : updated) {
+                ScheduleSnapshot.writeString(out, flight.getId());
+                ScheduleSnapshot.writeTime(out, flight.getScheduledTime());
+            }
+        });
+    }
+
+    @Override
+    public void flightsRemoved(Collection<String> icao24s) {
+        record(RecordType.FLIGHTS_REMOVED, out -> {
+            out.writeInt(icao24s.size());
+            for (String icao24 : icao24s) {
+                ScheduleSnapshot.writeString(out, icao24);
+            }
+        });
+    }
+
+    @Override
+    public void flightDeleted(Flight flight) {
+        record(RecordType.FLIGHT_DELETED, out -> ScheduleSnapshot.writeString(out, flight.getId()));
+    }
+
+    @Override
+    public void emergencyStatusChanged(Flight flight, Flight.EmergencyStatus status) {
+        record(RecordType.EMERGENCY_SET, out -> {
+            ScheduleSnapshot.writeString(out, flight.getId());
+            out.writeByte(status.ordinal());
+        });
+    }
+
+    @Override
+    public void fuelLevelChanged(Flight flight, int fuelLevel) {
+        record(RecordType.FUEL_UPDATED, out -> {
+            ScheduleSnapshot.writeString(out, flight.getId());
+            out.writeInt(fuelLevel);
+        });
+    }
+
+    @Override
+    public void runwayCreated(Runway runway) {
+        record(RecordType.RUNWAY_CREATED, out -> {
+            ScheduleSnapshot.writeString(out, runway.getId());
+            out.writeInt(runway.getHeading());
+            out.writeInt(runway.getLength());
+        });
+    }
+
+    @Override
+    public void runwayDeleted(Runway runway) {
+        record(RecordType.RUNWAY_DELETED, out -> ScheduleSnapshot.writeString(out, runway.getId()));
+    }
+
+    @Override
+    public void runwayActiveChanged(Runway runway, boolean active) {
+        record(RecordType.RUNWAY_ACTIVE_SET, out -> {
+            ScheduleSnapshot.writeString(out, runway.getId());
+            out.writeBoolean(active);
+        });
+    }
+
+    @Override
+    public void weatherChanged(Weather weather) {
+        record(RecordType.WEATHER_CHANGED, out -> ScheduleSnapshot.writeWeather(out, weather));
+    }
+
+    @Override
+    public void scheduleReset() {
+        record(RecordType.SCHEDULE_RESET, out -> {
+        });
+    }
+
+    @Override
+    public void flightsCompleted(List<Flight> flights) {
+        record(RecordType.FLIGHTS_COMPLETED, out -> {
+            out.writeInt(flights.size());
+            for (Flight flight : flights) {
+                ScheduleSnapshot.writeString(out, flight.getId());
+            }
+        });
+    }
+
+    // Scheduling decisions are recorded as their outcome; replay recomputes them and compares
+    @Override
+    public void schedulePassed(List<Flight> schedule, boolean nested) {
+        record(RecordType.SCHEDULE_PASS, out -> {
+            out.writeBoolean(nested);
+            out.writeInt(schedule.size());
+            out.writeLong(scheduleChecksum(schedule));
+        });
+    }
+
+    // Encodes one record's payload
+    private interface PayloadWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    // Encode the payload and copy it into the mapped segment as one record
+    private synchronized void record(RecordType type, PayloadWriter writer) {
+        try {
+            writer.write(out);
+            int length = RECORD_HEADER_BYTES + payload.size();
+            ensureRoom(length + Integer.BYTES);
+
+            LocalDateTime time = ScheduleClock.now();
+            MappedByteBuffer buffer = segment.buffer;
+            int start = segment.position;
+            buffer.position(start + 8);
+            buffer.putLong(nextSequence)
+                    .putLong(time.toEpochSecond(ZoneOffset.UTC))
+                    .putInt(time.getNano())
+                    .put(type.code)
+                    .put(payload.array(), 0, payload.size());
+
+            crc.reset();
+            crc.update(buffer.slice(start + 8, length - 8));
+            buffer.putInt(start + 4, (int) crc.getValue());
+            buffer.putInt(start + length, 0);
+            // The length goes in last, so a reader never sees a record whose body is still being copied
+            buffer.putInt(start, length);
+
+            segment.position = start + length;
+            nextSequence++;
+            recordsSinceSnapshot++;
+        } catch (IOException e) {
+            if (!failed) {
+                System.err.println("Error writing scheduling journal: " + e.getMessage());
+            }
+            failed = true;
+        } finally {
+            payload.reset();
+        }
+    }
+
+    // Roll over to a new segment when the record (plus end marker) does not fit in the current one
+    private void ensureRoom(int bytes) throws IOException {
+        if (segment != null && segment.position + bytes <= segment.buffer.capacity()) {
+            return;
+        }
+        if (segment != null) {
+            segment.buffer.force();
+            segment.channel.close();
+        }
+
+        Path file = fileFor(SEGMENT_PREFIX, nextSequence, SEGMENT_SUFFIX);
+        long size = Math.max(segmentBytes, SEGMENT_HEADER_BYTES + (long) bytes);
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        buffer.putInt(0, MAGIC).putInt(4, FORMAT_VERSION).putLong(8, nextSequence);
+        segment = new Segment(file, channel, buffer, SEGMENT_HEADER_BYTES);
+    }
+
+    // Snapshots and compaction
+
+    // Take a snapshot once enough records have been appended since the last one; call between commands
+    public synchronized void snapshotIfDue() {
+        if (recordsSinceSnapshot >= snapshotInterval) {
+            try {
+                snapshot();
+            } catch (IOException e) {
+                System.err.println("Error writing schedule snapshot: " + e.getMessage());
+            }
+        }
+    }
+
+    // Snapshot the state as of the last appended record, then drop files the snapshot makes redundant
+    public synchronized void snapshot() throws IOException {
+        long sequence = nextSequence - 1;
+        long startTime = System.nanoTime();
+        ScheduleSnapshot.write(fileFor(SNAPSHOT_PREFIX, sequence, SNAPSHOT_SUFFIX), controllers, sequence);
+        if (segment != null) {
+            segment.buffer.force();
+        }
+        recordsSinceSnapshot = 0;
+
+        System.out.printf("Wrote schedule snapshot at journal sequence %d in %.1f ms%n",
+                sequence, (System.nanoTime() - startTime) / 1_000_000.0);
+        compact();
+    }
+
+    private void compact() throws IOException {
+        List<Path> snapshots = listFiles(directory, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        int firstKept = Math.max(0, snapshots.size() - SNAPSHOTS_KEPT);
+        for (Path old : snapshots.subList(0, firstKept)) {
+            Files.deleteIfExists(old);
+        }
+        long oldestKept = sequenceOf(snapshots.get(firstKept));
+
+        // A segment is redundant when the next one starts at or before the oldest kept snapshot
+        List<Path> segments = listFiles(directory, SEGMENT_PREFIX, SEGMENT_SUFFIX);
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            Path file = segments.get(i);
+            boolean current = segment != null && segment.file.equals(file);
+            if (!current && sequenceOf(segments.get(i + 1)) <= oldestKept + 1) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    public synchronized long getLastSequence() {
+        return nextSequence - 1;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    // Snapshot so the next start has nothing to replay, then release the segment
+    @Override
+    public synchronized void close() throws IOException {
+        if (recordsSinceSnapshot > 0) {
+            snapshot();
+        }
+        if (segment != null) {
+            segment.buffer.force();
+            segment.channel.close();
+            segment = null;
+        }
+        if (primaryLock.channel().isOpen()) {
+            primaryLock.channel().close();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.skyflow.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+
+// Hot standby for a primary running on the same host. It restores the primary's latest snapshot once, then
+// keeps its own controllers current by applying the primary's journal records as they are written (the segment
+// files are shared memory mappings, so there is no copy over a socket). Every applied scheduling pass is checked
+// against the primary's, so the standby's schedule is known to be identical.
+// The primary holds the journal's file lock for as long as its JVM lives; when the lock comes free the standby
+// applies the few records it has not seen yet and opens the journal for writing. Failover cost is the lag, not the
+// size of the day plan.
+public class StandbyScheduler implements Closeable {
+    private final Path directory;
+    private final ScheduleSnapshot.Controllers controllers;
+    private JournalReplayer replayer;
+    private SchedulingJournal.Tail tail;
+    private boolean promoted;
+
+    // Constructor
+    public StandbyScheduler(Path directory, ScheduleSnapshot.Controllers controllers) {
+        this.directory = directory;
+        this.controllers = controllers;
+    }
+
+    // Restore the newest snapshot and apply everything after it; false if the primary has not written one yet
+    public boolean start() throws IOException {
+        return resync();
+    }
+
+    // Apply every record the primary has written since the last call; returns how many were applied
+    public int catchUp() throws IOException {
+        if (tail == null && !resync()) {
+            return 0;
+        }
+
+        int applied = tail.poll(replayer::apply);
+        if (tail.isLost()) {
+            // Fell behind compaction: the records we need are gone, but a newer snapshot covers them
+            System.err.println("Standby fell behind the journal at sequence " + tail.getLastSequence() + "; resyncing");
+            resync();
+            applied += tail.poll(replayer::apply);
+        }
+        return applied;
+    }
+
+    // Take over if the primary has gone: returns the journal, now open for writing, or null while the primary lives.
+    // The caller attaches the journal as the controllers' command log and starts scheduling.
+    public SchedulingJournal tryPromote(long segmentBytes, int snapshotInterval) throws IOException {
+        FileLock lock = SchedulingJournal.tryLockPrimary(directory);
+        if (lock == null) {
+            return null;
+        }
+
+        try {
+            // The primary can no longer write, so this drains the journal completely
+            long startTime = System.nanoTime();
+            int applied = catchUp();
+            replayer.detach();
+            tail.close();
+
+            SchedulingJournal journal = SchedulingJournal.open(directory, controllers, segmentBytes, snapshotInterval, lock);
+            promoted = true;
+            System.out.printf("Standby promoted at journal sequence %d after applying %d records in %.1f ms (%d divergences)%n",
+                    journal.getLastSequence(), applied, (System.nanoTime() - startTime) / 1_000_000.0,
+                    replayer.getDivergences());
+            return journal;
+        } catch (IOException | RuntimeException e) {
+            lock.channel().close();
+            throw e;
+        }
+    }
+
+    public boolean isPromoted() {
+        return promoted;
+    }
+
+    // Last primary journal sequence applied here
+    public long getAppliedSequence() {
+        return replayer != null ? replayer.getLastSequence() : -1;
+    }
+
+    public int getDivergences() {
+        return replayer != null ? replayer.getDivergences() : 0;
+    }
+
+    private boolean resync() throws IOException {
+        if (tail != null) {
+            tail.close();
+            tail = null;
+        }
+
+        replayer = JournalReplayer.attach(controllers);
+        long snapshotSequence = replayer.restoreSnapshot(directory);
+        if (snapshotSequence < 0) {
+            return false;
+        }
+
+        tail = new SchedulingJournal.Tail(directory, snapshotSequence);
+        int applied = tail.poll(replayer::apply);
+        System.out.println("Standby following journal from snapshot " + snapshotSequence + " (+" + applied + " records)");
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (tail != null) {
+            tail.close();
+        }
+        if (replayer != null && !promoted) {
+            replayer.detach();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.skyflow.util;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// One aircraft state from an OpenSky /states/all response. Missing numeric fields are NaN.
+public record StateVector(String icao24,
+                          String callsign,
+                          String originCountry,
+                          long timePosition,
+                          double longitude,
+                          double latitude,
+                          double baroAltitude,
+                          boolean onGround,
+                          double velocity,
+                          double trueTrack,
+                          double verticalRate) {
+
+    // Parse up to limit usable state vectors from a /states/all response
+    public static List<StateVector> parseSnapshot(String response, int limit) {
+        return parseSnapshot(response, limit, null);
+    }
+
+    // Parse up to limit usable state vectors that pass the airspace filter (null = keep everything).
+    // The filter runs on the raw position fields, so rejected aircraft are never turned into records.
+    public static List<StateVector> parseSnapshot(String response, int limit, AirspaceFilter filter) {
+        List<StateVector> vectors = new ArrayList<>();
+
+        JsonObject jsonObject = JsonParser.parseString(response).getAsJsonObject();
+        JsonArray states = jsonObject.has("states") && jsonObject.get("states").isJsonArray()
+                ? jsonObject.getAsJsonArray("states") : null;
+        if (states == null) {
+            return vectors;
+        }
+
+        // Iterate through states array until we reach the requested count
+        int i = 0;
+        while (i < states.size() && vectors.size() < limit) {
+            JsonElement stateElement = states.get(i);
+            if (stateElement.isJsonArray() && (filter == null || isInside(stateElement.getAsJsonArray(), filter))) {
+                StateVector vector = parse(stateElement.getAsJsonArray());
+                if (vector != null) {
+                    vectors.add(vector);
+                }
+            }
+            i++;
+        }
+
+        return vectors;
+    }
+
+    // Parse a state array, returning null when it lacks the fields an import needs
+    public static StateVector parse(JsonArray state) {
+        if (state == null || state.size() < 8) {
+            return null;
+        }
+
+        String callsign = isNull(state, 1) ? "" : state.get(1).getAsString().trim();
+        long timePosition = isNull(state, 3) ? 0 : state.get(3).getAsLong();
+        if (isNull(state, 0) || callsign.isEmpty() || timePosition == 0) {
+            return null;
+        }
+
+        return new StateVector(
+                state.get(0).getAsString(),
+                callsign,
+                isNull(state, 2) ? "" : state.get(2).getAsString(),
+                timePosition,
+                getDouble(state, 5),
+                getDouble(state, 6),
+                getDouble(state, 7),
+                !isNull(state, 8) && state.get(8).getAsBoolean(),
+                getDouble(state, 9),
+                getDouble(state, 10),
+                getDouble(state, 11)
+        );
+    }
+
+    // Whether the feed reported a position for this aircraft
+    public boolean hasPosition() {
+        return !Double.isNaN(latitude) && !Double.isNaN(longitude);
+    }
+
+    private static boolean isInside(JsonArray state, AirspaceFilter filter) {
+        return filter.accepts(getDouble(state, 6), getDouble(state, 5), getDouble(state, 7),
+                !isNull(state, 8) && state.get(8).getAsBoolean());
+    }
+
+    private static boolean isNull(JsonArray state, int index) {
+        if (index >= state.size()) {
+            return true;
+        }
+        JsonElement element = state.get(index);
+        return element == null || element.isJsonNull();
+    }
+
+    private static double getDouble(JsonArray state, int index) {
+        return isNull(state, index) ? Double.NaN : state.get(index).getAsDouble();
+    }
+}
@@ -0,0 +1,112 @@
+package com.skyflow.util;
+
+import com.skyflow.model.AircraftType;
+import com.skyflow.model.Airline;
+import com.skyflow.model.Flight;
+import com.skyflow.model.FlightSpec;
+import com.skyflow.service.AircraftPool;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+// Generates synthetic traffic from in-memory reference data only (aircraft pool + airline list),
+// so even a million-flight day never touches SQLite. The same seed always produces the same traffic.
+public class SyntheticTrafficGenerator {
+    // Used when the database has no reference data at all
+    private static final Airline[] DEFAULT_AIRLINES = {
+            new Airline("ELY", "El Al Israel Airlines"),
+            new Airline("BAW", "British Airways"),
+            new Airline("AAL", "American Airlines"),
+            new Airline("DAL", "Delta Air Lines"),
+            new Airline("DLH", "Lufthansa")
+    };
+    private static final String[] DEFAULT_AIRCRAFT = {
+            "Boeing 737-800", "Airbus A320", "Boeing 777-300ER", "Boeing 787-9", "Airbus A350-900"
+    };
+
+    private final AircraftPool aircraftPool;
+    private final Airline[] airlines;
+    private final SplittableRandom random;
+
+    // Constructor
+    public SyntheticTrafficGenerator(AircraftPool aircraftPool, List<Airline> airlines, long seed) {
+        this.aircraftPool = aircraftPool;
+        this.airlines = airlines.isEmpty() ? DEFAULT_AIRLINES : airlines.toArray(new Airline[0]);
+        this.random = new SplittableRandom(seed);
+    }
+
+    // Flights scheduled uniformly over [start, start + window)
+    public List<FlightSpec> generate(int count, LocalDateTime start, Duration window) {
+        List<FlightSpec> flights = new ArrayList<>(count);
+        long windowSeconds = Math.max(1, window.getSeconds());
+
+        for (int i = 0; i < count; i++) {
+            Airline airline = airlines[random.nextInt(airlines.length)];
+            String flightNumber = airline.icaoCode() + (random.nextInt(9900) + 100);
+
+            // Pick the category first so the traffic mix does not depend on how many types each category has
+            Flight.WakeTurbulenceCategory category = randomCategory(random);
+            String aircraftName;
+            if (aircraftPool.hasCategory(category)) {
+                aircraftName = aircraftPool.pick(category, random).name();
+            } else if (!aircraftPool.isEmpty()) {
+                AircraftType aircraft = aircraftPool.pickAny(random);
+                aircraftName = aircraft.name();
+                category = aircraft.turbulenceCategory();
+            } else {
+                aircraftName = DEFAULT_AIRCRAFT[random.nextInt(DEFAULT_AIRCRAFT.length)];
+            }
+
+            Flight.FlightType flightType = random.nextBoolean() ? Flight.FlightType.ARRIVAL : Flight.FlightType.DEPARTURE;
+            LocalDateTime scheduledTime = start.plusSeconds(random.nextLong(windowSeconds));
+
+            Flight.EmergencyStatus emergencyStatus = randomEmergencyStatus(random);
+            int fuelLevel = emergencyStatus == Flight.EmergencyStatus.LOW_FUEL
+                    ? random.nextInt(10) + 5   // 5% to 15%
+                    : random.nextInt(90) + 10; // 10% to 100%
+
+            flights.add(new FlightSpec(flightNumber, airline.name(), aircraftName, category, flightType,
+                    scheduledTime, emergencyStatus, fuelLevel, null));
+        }
+
+        return flights;
+    }
+
+    // Traffic mix: 10% light, 60% medium, 25% heavy, 5% super
+    public static Flight.WakeTurbulenceCategory randomCategory(RandomGenerator random) {
+        int rand = random.nextInt(100);
+
+        if (rand < 10) {
+            return Flight.WakeTurbulenceCategory.LIGHT;
+        } else if (rand < 70) {
+            return Flight.WakeTurbulenceCategory.MEDIUM;
+        } else if (rand < 95) {
+            return Flight.WakeTurbulenceCategory.HEAVY;
+        } else {
+            return Flight.WakeTurbulenceCategory.SUPER;
+        }
+    }
+
+    // 90% of flights have no emergency, the rest are spread over the emergency levels
+    public static Flight.EmergencyStatus randomEmergencyStatus(RandomGenerator random) {
+        int rand = random.nextInt(100);
+
+        if (rand < 90) {
+            return Flight.EmergencyStatus.NONE;
+        } else if (rand < 92) {
+            return Flight.EmergencyStatus.MINOR_MECHANICAL;
+        } else if (rand < 94) {
+            return Flight.EmergencyStatus.LOW_FUEL;
+        } else if (rand < 96) {
+            return Flight.EmergencyStatus.MEDICAL;
+        } else if (rand < 98) {
+            return Flight.EmergencyStatus.MAJOR_MECHANICAL;
+        } else {
+            return Flight.EmergencyStatus.CRITICAL;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.skyflow.view;
 import com.skyflow.controller.*;
 import com.skyflow.model.*;
 import com.skyflow.service.DatabaseService;
+import com.skyflow.service.FlightPersistence;
 import com.skyflow.util.*;
 
 import javafx.animation.Animation;
@@ -17,7 +18,9 @@ import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.util.Duration;
 
+import java.io.IOException;
 import java.net.URL;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
@@ -25,6 +28,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.stream.Collectors;
 
 public class ATCViewController implements Initializable {
     // Singleton instance
@@ -35,13 +39,26 @@ public class ATCViewController implements Initializable {
     private FlightController flightController;
     private RunwayController runwayController;
     private WeatherController weatherController;
-    private DatabaseController databaseController;
+    private Repository repository;
     private DatabaseService databaseService;
+    private FlightPersistence flightPersistence;
+    private SchedulingJournal schedulingJournal;
+    private StandbyScheduler standbyScheduler;
+    private String journalPath;
+    private ScheduleSnapshot.Controllers journaledControllers;
+    private FlightArchive flightArchive;
 
     // Timeline for simulation updates
     private Timeline updateTimeline;
 
     private OpenSkyDataImport openSkyImporter;
+    private FeedRecorder feedRecorder;
+    private FeedReplayer feedReplayer;
+    private OpenSkySync openSkySync;
+
+    // Live sync polls at most every 10 seconds (OpenSky's anonymous rate limit) and tracks this many aircraft
+    private static final int LIVE_SYNC_INTERVAL_SECONDS = 10;
+    private static final int LIVE_SYNC_MAX_AIRCRAFT = 100;
 
     private boolean isCustomWeatherMode = true;
 
@@ -94,6 +111,8 @@ public class ATCViewController implements Initializable {
     @FXML private Label lblStatus;
     @FXML private Label lblCurrentTime;
     @FXML private Label lblWeatherStatus;
+    @FXML private Label lblProximityAlerts;
+    @FXML private Button btnLiveSync;
 
     // Observable lists for the tables
     private ObservableList<Flight> flightsData = FXCollections.observableArrayList();
@@ -104,9 +123,9 @@ public class ATCViewController implements Initializable {
         // Set singleton instance
         instance = this;
 
-        // Initialize database controller and service
-        databaseController = new DatabaseController();
-        databaseService = new DatabaseService(databaseController);
+        // Open the repository (SQLite unless -Dskyflow.repository=memory) and the service on top of it
+        repository = Repository.fromSystemProperties();
+        databaseService = new DatabaseService(repository);
 
         // Set up controllers
         schedulingController = new SchedulingController();
@@ -118,6 +137,39 @@ public class ATCViewController implements Initializable {
         runwayController = new RunwayController(schedulingController);
         weatherController = new WeatherController(schedulingController, databaseService); // Pass databaseService here
 
+        // With -Dskyflow.journal.dir set, recover the exact schedule from the latest snapshot plus journal tail.
+        // With -Dskyflow.standby=true as well, follow another process's journal instead and take over when it exits.
+        journalPath = System.getProperty("skyflow.journal.dir");
+        journaledControllers = new ScheduleSnapshot.Controllers(
+                flightController, runwayController, weatherController, schedulingController);
+        if (journalPath != null && Boolean.getBoolean("skyflow.standby")) {
+            standbyScheduler = new StandbyScheduler(Paths.get(journalPath), journaledControllers);
+            try {
+                standbyScheduler.start();
+            } catch (IOException e) {
+                System.err.println("Could not follow scheduling journal " + journalPath + ": " + e.getMessage());
+            }
+        } else {
+            boolean recovered = false;
+            if (journalPath != null) {
+                try {
+                    recovered = JournalReplayer.recover(Paths.get(journalPath), journaledControllers).restored();
+                } catch (IOException e) {
+                    System.err.println("Could not recover from scheduling journal " + journalPath + ": " + e.getMessage());
+                }
+            }
+            startPersistence(recovered);
+
+            if (journalPath != null) {
+                try {
+                    attachJournal(SchedulingJournal.open(Paths.get(journalPath), journaledControllers,
+                            journalSegmentBytes(), journalSnapshotInterval()));
+                } catch (IOException e) {
+                    System.err.println("Could not open scheduling journal " + journalPath + ": " + e.getMessage());
+                }
+            }
+        }
+
         // Create update timeline for simulation
         updateTimeline = new Timeline(
                 new KeyFrame(Duration.seconds(1), event -> updateSimulation())
@@ -127,6 +179,17 @@ public class ATCViewController implements Initializable {
         // Initialize OpenSky importer
         openSkyImporter = new OpenSkyDataImport(flightController, weatherController);
 
+        // Record live OpenSky snapshots for offline replay when -Dskyflow.feed.record=<file> is set
+        String recordingPath = System.getProperty("skyflow.feed.record");
+        if (recordingPath != null) {
+            try {
+                feedRecorder = new FeedRecorder(Paths.get(recordingPath));
+                openSkyImporter.setFeedRecorder(feedRecorder);
+            } catch (IOException e) {
+                System.err.println("Could not open feed recording " + recordingPath + ": " + e.getMessage());
+            }
+        }
+
         // Create update timeline for simulation
         updateTimeline = new Timeline(
                 new KeyFrame(Duration.seconds(1), event -> updateSimulation())
@@ -135,6 +198,58 @@ public class ATCViewController implements Initializable {
     }
 
 
+    // Restore the last operational picture, then persist changes in the background
+    // (flush interval in ms via -Dskyflow.persistence.flushMillis)
+    private void startPersistence(boolean recovered) {
+        flightPersistence = new FlightPersistence(repository, java.time.Duration.ofMillis(
+                Long.getLong("skyflow.persistence.flushMillis", FlightPersistence.DEFAULT_FLUSH_INTERVAL.toMillis())),
+                Platform::runLater);
+        if (recovered) {
+            // The journal is the more recent source; bring the database up to date with it
+            flightController.getAllFlights().forEach(flightPersistence::flightChanged);
+        } else {
+            flightController.restoreFlights(flightPersistence.loadAll(schedulingController.getRunways()));
+        }
+        flightController.setChangeListener(flightPersistence);
+        schedulingController.setChangeListener(flightPersistence);
+        flightPersistence.start();
+        startArchive();
+    }
+
+    // Archive completed flights by day under -Dskyflow.archive.dir (default skyflow-archive, or off with an
+    // in-memory repository). Attached only once the schedule is restored: completions replayed from the journal
+    // were archived by the run that recorded them.
+    private void startArchive() {
+        String archivePath = System.getProperty("skyflow.archive.dir");
+        if (archivePath == null && !repository.isPersistent()) {
+            return;
+        }
+        try {
+            flightArchive = new FlightArchive(Paths.get(archivePath != null ? archivePath : "skyflow-archive"));
+            flightController.setCompletedFlightSink(flightArchive);
+        } catch (IOException e) {
+            System.err.println("Could not open flight archive: " + e.getMessage());
+        }
+    }
+
+    // Journal every command from here on
+    private void attachJournal(SchedulingJournal journal) {
+        schedulingJournal = journal;
+        flightController.setCommandLog(journal);
+        runwayController.setCommandLog(journal);
+        weatherController.setCommandLog(journal);
+        schedulingController.setCommandLog(journal);
+    }
+
+    // Segment size and snapshot interval are tunable
+    private static long journalSegmentBytes() {
+        return Long.getLong("skyflow.journal.segmentBytes", SchedulingJournal.DEFAULT_SEGMENT_BYTES);
+    }
+
+    private static int journalSnapshotInterval() {
+        return Integer.getInteger("skyflow.journal.snapshotInterval", SchedulingJournal.DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
     // Initialize method called after FXML is loaded
     @Override
     public void initialize(URL location, ResourceBundle resources) {
@@ -310,6 +425,15 @@ public class ATCViewController implements Initializable {
             txtVisibility.setText(String.valueOf(weather.getVisibility()));
             cboWeatherCondition.setValue(weather.getCondition());
         }
+
+        // Airborne proximity alerts from the last feed snapshot
+        List<ProximityAlert> alerts = schedulingController.getProximityAlerts();
+        if (alerts.isEmpty()) {
+            lblProximityAlerts.setText("");
+        } else {
+            lblProximityAlerts.setText("Proximity alerts (" + alerts.size() + "): "
+                    + alerts.stream().limit(3).map(ProximityAlert::toString).collect(Collectors.joining(", ")));
+        }
     }
 
     // Update simulation
@@ -318,12 +442,48 @@ public class ATCViewController implements Initializable {
         DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm");
         lblCurrentTime.setText("Current Time: " + LocalDateTime.now().format(timeFormatter));
 
+        // A standby only mirrors the primary's schedule until it can take over
+        if (standbyScheduler != null && !followPrimary()) {
+            Platform.runLater(this::refreshData);
+            return;
+        }
+
+        // Move flights that have left the runway out of the live schedule
+        flightController.archiveCompletedFlights();
+
         List<Flight> scheduled = schedulingController.scheduleFlights();
 
+        // Compact the journal between commands once enough has been recorded
+        if (schedulingJournal != null) {
+            schedulingJournal.snapshotIfDue();
+        }
+
         // Refresh data
         Platform.runLater(this::refreshData);
     }
 
+    // Apply the primary's latest journal records, or promote this process if the primary has exited.
+    // Returns true once this process is the primary.
+    private boolean followPrimary() {
+        try {
+            SchedulingJournal journal = standbyScheduler.tryPromote(journalSegmentBytes(), journalSnapshotInterval());
+            if (journal != null) {
+                attachJournal(journal);
+                startPersistence(true);
+                standbyScheduler = null;
+                Platform.runLater(() -> lblStatus.setText("Primary scheduler exited; this instance has taken over."));
+                return true;
+            }
+
+            standbyScheduler.catchUp();
+            long sequence = standbyScheduler.getAppliedSequence();
+            Platform.runLater(() -> lblStatus.setText("Standby: following primary at journal sequence " + sequence));
+        } catch (IOException e) {
+            System.err.println("Standby could not follow scheduling journal " + journalPath + ": " + e.getMessage());
+        }
+        return false;
+    }
+
     @FXML
     private void handleImportRealTimeFlights() {
         try {
@@ -346,14 +506,16 @@ public class ATCViewController implements Initializable {
                     // Generate random weather as well
                     openSkyImporter.generateRandomWeather();
 
-                    // Import flights
-                    List<Flight> importedFlights = openSkyImporter.importRealTimeFlights(numFlights);
+                    // Import flights in the background; the UI stays responsive while the feed and database are read
+                    lblStatus.setText("Importing flights from OpenSky API...");
+                    openSkyImporter.importRealTimeFlightsAsync(numFlights, Platform::runLater)
+                            .thenAccept(importedFlights -> {
+                                // Refresh the UI
+                                refreshData();
 
-                    // Refresh the UI
-                    refreshData();
-
-                    // Update status
-                    lblStatus.setText("Imported " + importedFlights.size() + " flights from OpenSky API");
+                                // Update status
+                                lblStatus.setText("Imported " + importedFlights.size() + " flights from OpenSky API");
+                            });
 
                 } catch (NumberFormatException e) {
                     showAlert("Invalid Input", "Please enter a valid number.");
@@ -365,6 +527,49 @@ public class ATCViewController implements Initializable {
         }
     }
 
+    // Start or stop continuous OpenSky synchronisation
+    @FXML
+    private void handleToggleLiveSync() {
+        try {
+            if (openSkySync == null) {
+                openSkySync = createOpenSkySync();
+            }
+
+            if (openSkySync.isRunning()) {
+                openSkySync.stop();
+                btnLiveSync.setText("Start Live Sync");
+                lblStatus.setText("Live sync stopped.");
+            } else {
+                openSkySync.start(java.time.Duration.ofSeconds(LIVE_SYNC_INTERVAL_SECONDS));
+                btnLiveSync.setText("Stop Live Sync");
+                lblStatus.setText("Live sync started.");
+            }
+        } catch (Exception e) {
+            showAlert("Sync Error", "Failed to start live sync: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    // Build the sync against the live API, or against a recording when -Dskyflow.feed.replay=<file> is set
+    private OpenSkySync createOpenSkySync() throws IOException {
+        FeedSource feedSource = openSkyImporter::fetchLiveSnapshot;
+
+        String replayPath = System.getProperty("skyflow.feed.replay");
+        if (replayPath != null) {
+            feedReplayer = new FeedReplayer(Paths.get(replayPath));
+            feedSource = feedReplayer.asFeedSource();
+        }
+
+        // Deltas arrive on the polling thread and are applied on the FX thread, without waiting there for lookups
+        return new OpenSkySync(feedSource, LIVE_SYNC_MAX_AIRCRAFT, openSkyImporter.getAirspaceFilter(),
+                delta -> openSkyImporter.applyDeltaAsync(delta, Platform::runLater)
+                        .thenAccept(flights -> {
+                            refreshData();
+                            lblStatus.setText("Live sync: " + delta.added().size() + " new, " + delta.changed().size()
+                                    + " changed, " + delta.removed().size() + " gone.");
+                        }));
+    }
+
     // Add a new flight to the system
     @FXML
     private void handleAddFlight() {
@@ -405,11 +610,8 @@ public class ATCViewController implements Initializable {
                     cboEmergencyStatus.getValue()
             );
 
-            // Set fuel level
-            flight.setFuelLevel((int) sldFuelLevel.getValue());
-
-            // Update flight
-            flightController.updateFlight(flight);
+            // Set fuel level (through the controller, so it is persisted and journaled)
+            flightController.updateFuelLevel(flight, (int) sldFuelLevel.getValue());
 
             // Clear form
             clearFlightForm();
@@ -428,21 +630,26 @@ public class ATCViewController implements Initializable {
 
     // Initialize weather presets combo box in the initialize method
     private void initializeWeatherPresets() {
-        // Get weather presets from database
-        List<Map<String, Object>> presets = weatherController.getAllWeatherPresets();
-        List<String> presetNames = new ArrayList<>();
+        // Start with the custom option; the presets are added when the database has answered
+        cboWeatherPreset.setItems(FXCollections.observableArrayList("Custom"));
+        cboWeatherPreset.setValue("Custom"); // Default to custom
 
-        // Add preset names to the list
-        for (Map<String, Object> preset : presets) {
-            presetNames.add((String) preset.get("name"));
-        }
+        weatherController.getAllWeatherPresetsAsync().thenAcceptAsync(presets -> {
+            List<String> presetNames = new ArrayList<>();
 
-        // Add custom option
-        presetNames.add("Custom");
+            // Add preset names to the list
+            for (WeatherPreset preset : presets) {
+                presetNames.add(preset.name());
+            }
 
-        // Set items in the combo box
-        cboWeatherPreset.setItems(FXCollections.observableArrayList(presetNames));
-        cboWeatherPreset.setValue("Custom"); // Default to custom
+            // Add custom option
+            presetNames.add("Custom");
+
+            // Set items in the combo box, keeping the current choice
+            String selected = cboWeatherPreset.getValue();
+            cboWeatherPreset.setItems(FXCollections.observableArrayList(presetNames));
+            cboWeatherPreset.setValue(selected);
+        }, Platform::runLater);
 
         // Add listener for selection changes
         cboWeatherPreset.valueProperty().addListener((obs, oldVal, newVal) -> {
@@ -454,15 +661,14 @@ public class ATCViewController implements Initializable {
                     isCustomWeatherMode = true;
                     // Don't clear fields - allow user to keep editing
                 } else {
-                    // Load preset from database
-                    weatherController.loadWeatherPreset(newVal);
-
-                    // Update UI fields
-                    Weather weather = weatherController.getCurrentWeather();
-                    txtWindSpeed.setText(String.valueOf(weather.getWindSpeed()));
-                    txtWindDirection.setText(String.valueOf(weather.getWindDirection()));
-                    txtVisibility.setText(String.valueOf(weather.getVisibility()));
-                    cboWeatherCondition.setValue(weather.getCondition());
+                    // Load preset from database, then update UI fields on the FX thread
+                    weatherController.loadWeatherPresetAsync(newVal, Platform::runLater).thenAccept(loaded -> {
+                        Weather weather = weatherController.getCurrentWeather();
+                        txtWindSpeed.setText(String.valueOf(weather.getWindSpeed()));
+                        txtWindDirection.setText(String.valueOf(weather.getWindDirection()));
+                        txtVisibility.setText(String.valueOf(weather.getVisibility()));
+                        cboWeatherCondition.setValue(weather.getCondition());
+                    });
 
                     // Make fields read-only when using a preset
                     enableWeatherInputFields(false);
@@ -536,11 +742,8 @@ public class ATCViewController implements Initializable {
                     runwayId, heading, length
             );
 
-            // Set active status
-            runway.setActive(chkActive.isSelected());
-
-            // Update runway
-            runwayController.updateRunway(runway);
+            // Set active status and update runway
+            runwayController.setRunwayActive(runway, chkActive.isSelected());
 
             // Clear form
             clearRunwayForm();
@@ -770,9 +973,65 @@ public class ATCViewController implements Initializable {
             updateTimeline.stop();
         }
 
-        // Close database connection
-        if (databaseController != null) {
-            databaseController.shutdown();
+        // Stop live sync
+        if (openSkySync != null) {
+            openSkySync.stop();
+        }
+
+        // Close the feed recording and replay
+        if (feedReplayer != null) {
+            try {
+                feedReplayer.close();
+            } catch (IOException e) {
+                System.err.println("Error closing feed replay: " + e.getMessage());
+            }
+        }
+        if (feedRecorder != null) {
+            try {
+                feedRecorder.close();
+            } catch (IOException e) {
+                System.err.println("Error closing feed recording: " + e.getMessage());
+            }
+        }
+
+        // Stop following the primary
+        if (standbyScheduler != null) {
+            try {
+                standbyScheduler.close();
+            } catch (IOException e) {
+                System.err.println("Error closing standby scheduler: " + e.getMessage());
+            }
+        }
+
+        // Final snapshot, so the next start has no journal tail to replay
+        if (schedulingJournal != null) {
+            try {
+                schedulingJournal.close();
+            } catch (IOException e) {
+                System.err.println("Error closing scheduling journal: " + e.getMessage());
+            }
+        }
+
+        // Flush the archive of completed flights
+        if (flightArchive != null) {
+            try {
+                flightArchive.close();
+            } catch (IOException e) {
+                System.err.println("Error closing flight archive: " + e.getMessage());
+            }
+        }
+
+        // Write pending flight changes before the database closes
+        if (flightPersistence != null) {
+            flightPersistence.close();
+        }
+
+        // Stop the async database executor, then close the repository
+        if (databaseService != null) {
+            databaseService.close();
+        }
+        if (repository != null) {
+            repository.shutdown();
         }
     }
 
@@ -0,0 +1,62 @@
+package com.skyflow.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FlightIdTest {
+
+    @Test
+    void encodeAndParseRoundTrip() {
+        for (int i = 0; i < 1_000; i++) {
+            long id = FlightId.next();
+            String encoded = FlightId.encode(id);
+            assertEquals(FlightId.ENCODED_LENGTH, encoded.length());
+            assertEquals(id, FlightId.parse(encoded));
+        }
+    }
+
+    @Test
+    void roundTripsEveryBitPattern() {
+        SplittableRandom random = new SplittableRandom(3);
+        for (int i = 0; i < 10_000; i++) {
+            long id = random.nextLong();
+            assertEquals(id, FlightId.parse(FlightId.encode(id)));
+        }
+        assertEquals(-1L, FlightId.parse(FlightId.encode(-1L)));
+    }
+
+    @Test
+    void idsIncreaseAndTheirEncodingsSortTheSameWay() {
+        long previous = FlightId.next();
+        for (int i = 0; i < 10_000; i++) { // Several bursts of more than 4096 ids in a millisecond
+            long id = FlightId.next();
+            assertTrue(id > previous);
+            assertTrue(FlightId.encode(id).compareTo(FlightId.encode(previous)) > 0);
+            previous = id;
+        }
+    }
+
+    @Test
+    void notAnEncodedId() {
+        assertEquals(FlightId.NONE, FlightId.parse(null));
+        assertEquals(FlightId.NONE, FlightId.parse("3f2b8c1e-9d4a-4c6b-8e7f-0a1b2c3d4e5f"));
+        assertEquals(FlightId.NONE, FlightId.parse("0A8X1W1HVA00")); // One character short
+        assertEquals(FlightId.NONE, FlightId.parse("GA8X1W1HVA000")); // More than 64 bits
+        assertEquals(FlightId.NONE, FlightId.parse("0A8X1W1HVA00U")); // U is not in the alphabet
+        assertEquals(FlightId.NONE, FlightId.parse("0a8x1w1hva000"));
+    }
+
+    @Test
+    void observedIdsAreNeverHandedOutAgain() {
+        long future = FlightId.next() + (1L << 40); // Same node bits, well ahead of the clock
+        FlightId.observe(future);
+        long next = FlightId.next();
+        assertTrue(next > future);
+        assertNotEquals(FlightId.NONE, next);
+    }
+}
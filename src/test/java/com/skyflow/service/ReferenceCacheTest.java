@@ -0,0 +1,133 @@
+package com.skyflow.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReferenceCacheTest {
+    private static final Duration HOUR = Duration.ofHours(1);
+
+    @Test
+    void loadsOnceThenHits() {
+        ReferenceCache<String, String> cache = new ReferenceCache<>(100, HOUR, HOUR);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("El Al", cache.get("ELY", key -> {
+            loads.incrementAndGet();
+            return "El Al";
+        }));
+        assertEquals("El Al", cache.get("ELY", key -> {
+            loads.incrementAndGet();
+            return "other";
+        }));
+
+        assertEquals(1, loads.get());
+        CacheStats stats = cache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(1, stats.loads());
+    }
+
+    @Test
+    void cachesNotFound() {
+        ReferenceCache<String, String> cache = new ReferenceCache<>(100, HOUR, HOUR);
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            assertNull(cache.get("XYZ", key -> {
+                loads.incrementAndGet();
+                return null;
+            }));
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(2, cache.stats().negativeHits());
+    }
+
+    @Test
+    void expiredEntriesAreLoadedAgain() {
+        ReferenceCache<String, String> cache = new ReferenceCache<>(100, Duration.ZERO, Duration.ZERO);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("ELY", key -> "El Al " + loads.incrementAndGet());
+        assertEquals("El Al 2", cache.get("ELY", key -> "El Al " + loads.incrementAndGet()));
+        assertEquals(0, cache.stats().hits());
+    }
+
+    @Test
+    void getAllLoadsOnlyTheMisses() {
+        ReferenceCache<String, String> cache = new ReferenceCache<>(100, HOUR, HOUR);
+        cache.put("ELY", "El Al");
+        AtomicReference<Set<String>> requested = new AtomicReference<>();
+
+        Map<String, String> result = cache.getAll(List.of("ELY", "BAW", "XYZ"), missing -> {
+            requested.set(Set.copyOf(missing));
+            Map<String, String> found = new HashMap<>();
+            found.put("BAW", "British Airways");
+            return found;
+        });
+
+        assertEquals(Set.of("BAW", "XYZ"), requested.get());
+        assertEquals(Map.of("ELY", "El Al", "BAW", "British Airways"), result);
+
+        // XYZ was not found, and that is cached too
+        Map<String, String> again = cache.getAll(List.of("ELY", "BAW", "XYZ"), missing -> {
+            throw new AssertionError("Nothing should be loaded: " + missing);
+        });
+        assertEquals(result, again);
+    }
+
+    @Test
+    void failedLoadsAreNotCached() {
+        ReferenceCache<String, String> cache = new ReferenceCache<>(100, HOUR, HOUR);
+
+        assertThrows(IllegalStateException.class, () -> cache.get("ELY", key -> {
+            throw new IllegalStateException("database is locked");
+        }));
+        assertThrows(IllegalStateException.class, () -> cache.getAll(List.of("BAW"), missing -> {
+            throw new IllegalStateException("database is locked");
+        }));
+
+        assertEquals(0, cache.size());
+        assertEquals("El Al", cache.get("ELY", key -> "El Al"));
+        assertEquals(Map.of("BAW", "British Airways"), cache.getAll(List.of("BAW"), missing -> Map.of("BAW", "British Airways")));
+    }
+
+    @Test
+    void evictsDownToItsMaximumSize() {
+        ReferenceCache<Integer, String> cache = new ReferenceCache<>(10, HOUR, HOUR);
+        for (int i = 0; i < 50; i++) {
+            cache.put(i, "v" + i);
+        }
+
+        assertTrue(cache.size() <= 10);
+        assertTrue(cache.stats().evictions() >= 40);
+    }
+
+    @Test
+    void invalidate() {
+        ReferenceCache<String, String> cache = new ReferenceCache<>(100, HOUR, HOUR);
+        cache.put("ELY", "El Al");
+        cache.put("BAW", "British Airways");
+        cache.invalidate("ELY");
+        assertEquals(1, cache.size());
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void rejectsNonPositiveSize() {
+        assertThrows(IllegalArgumentException.class, () -> new ReferenceCache<String, String>(0, HOUR, HOUR));
+    }
+}
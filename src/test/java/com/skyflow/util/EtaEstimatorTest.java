@@ -0,0 +1,66 @@
+package com.skyflow.util;
+
+import com.skyflow.model.Airport;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EtaEstimatorTest {
+    private static final Airport AIRPORT = Airport.BEN_GURION;
+    private static final double FIELD_ELEVATION_METERS = AIRPORT.elevationFeet() * 0.3048;
+
+    private static StateVector inbound(double northNm, double velocity, double altitude, double verticalRate) {
+        return new StateVector("738abc", "ELY001", "Israel", 0, AIRPORT.longitude(),
+                AIRPORT.latitude() + northNm / 60.0, altitude, false, velocity, 180.0, verticalRate);
+    }
+
+    @Test
+    void levelAtFieldElevationIsDistanceOverSpeed() {
+        double[] eta = new EtaEstimator(AIRPORT).estimate(List.of(inbound(10, 100, FIELD_ELEVATION_METERS, 0)));
+        assertEquals(10 * 1852.0 / 100, eta[0], 1e-6);
+    }
+
+    @Test
+    void highAircraftIsLimitedByItsDescent() {
+        EtaEstimator estimator = new EtaEstimator(AIRPORT);
+
+        // 3000 m above the field with no descent yet: the standard 7.62 m/s descent takes longer than the distance
+        double[] level = estimator.estimate(List.of(inbound(10, 100, FIELD_ELEVATION_METERS + 3000, 0)));
+        assertEquals(3000 / 7.62, level[0], 1e-6);
+
+        // Descending faster than standard shortens it, but never below the along-track time
+        double[] steep = estimator.estimate(List.of(inbound(10, 100, FIELD_ELEVATION_METERS + 3000, -15)));
+        assertEquals(Math.max(185.2, 3000 / 15.0), steep[0], 1e-6);
+    }
+
+    @Test
+    void unknownSpeedGivesNaNAndUnknownAltitudeCountsAsOnTheField() {
+        double[] eta = new EtaEstimator(AIRPORT).estimate(List.of(
+                inbound(10, 0, FIELD_ELEVATION_METERS, 0),
+                inbound(10, 100, Double.NaN, Double.NaN)));
+        assertTrue(Double.isNaN(eta[0]));
+        assertEquals(185.2, eta[1], 1e-6);
+    }
+
+    @Test
+    void kernelMatchesTheListForm() {
+        EtaEstimator estimator = new EtaEstimator(AIRPORT);
+        double[] latitude = {AIRPORT.latitude() + 0.1, AIRPORT.latitude() - 0.2};
+        double[] longitude = {AIRPORT.longitude(), AIRPORT.longitude() + 0.3};
+        double[] groundSpeed = {120, 80};
+        double[] verticalRate = {-5, -10};
+        double[] altitude = {1500, 2500};
+        double[] eta = new double[2];
+        estimator.estimate(latitude, longitude, groundSpeed, verticalRate, altitude, 2, eta);
+
+        for (int i = 0; i < 2; i++) {
+            StateVector vector = new StateVector("a" + i, "T" + i, "Israel", 0, longitude[i], latitude[i],
+                    altitude[i], false, groundSpeed[i], 0, verticalRate[i]);
+            assertEquals(eta[i], estimator.estimate(List.of(vector))[0], 1e-9);
+        }
+    }
+}
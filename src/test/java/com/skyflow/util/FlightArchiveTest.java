@@ -0,0 +1,169 @@
+package com.skyflow.util;
+
+import com.skyflow.model.Flight;
+import com.skyflow.model.FlightId;
+import com.skyflow.model.Runway;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FlightArchiveTest {
+    private static final LocalDate DAY = LocalDate.of(2026, 10, 18);
+
+    @TempDir
+    Path directory;
+
+    private static Flight completed(int number, Runway runway, LocalDateTime scheduled, int delaySeconds) {
+        Flight flight = new Flight(FlightId.next(), "LY" + number, "El Al Israel Airlines", "Boeing 787-9",
+                Flight.WakeTurbulenceCategory.values()[number % 4], Flight.FlightType.values()[number % 2], scheduled,
+                Flight.EmergencyStatus.NONE);
+        flight.setAssignedRunway(runway);
+        flight.setActualTime(scheduled.plusSeconds(delaySeconds));
+        return flight;
+    }
+
+    private static List<Runway> runways() {
+        List<Runway> runways = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            runways.add(new Runway("R" + i, 90 * i, 3000));
+        }
+        return runways;
+    }
+
+    @Test
+    void appendsAndScansRows() throws IOException {
+        List<Runway> runways = runways();
+        List<Flight> flights = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            flights.add(completed(i, runways.get(i % 3), DAY.atTime(6, 0).plusMinutes(i), i % 10));
+        }
+
+        try (FlightArchive archive = new FlightArchive(directory)) {
+            archive.flightsCompleted(flights);
+        }
+
+        List<FlightArchive.Day> days = new ArrayList<>();
+        int[] mismatches = {0};
+        FlightArchive.scan(directory, DAY, DAY, day -> {
+            days.add(day);
+            for (int row = 0; row < day.size(); row++) {
+                Flight flight = flights.get(row);
+                if (day.delaySeconds(row) != row % 10
+                        || !day.runway(row).equals(flight.getAssignedRunway().getId())
+                        || !day.slotTime(row).equals(flight.getActualTime())
+                        || day.category(row) != flight.getCategory()
+                        || day.type(row) != flight.getType()) {
+                    mismatches[0]++;
+                }
+            }
+        });
+
+        assertEquals(1, days.size());
+        assertEquals(100, days.get(0).size());
+        assertEquals(0, mismatches[0]);
+    }
+
+    @Test
+    void growsPastTheInitialCapacityAcrossBatches() throws IOException {
+        List<Runway> runways = runways();
+        int total = FlightArchive.INITIAL_CAPACITY * 2 + 100;
+        long delaySum = 0;
+
+        try (FlightArchive archive = new FlightArchive(directory)) {
+            List<Flight> batch = new ArrayList<>();
+            for (int i = 0; i < total; i++) {
+                batch.add(completed(i, runways.get(i % 3), DAY.atStartOfDay().plusSeconds(i * 8L), i % 100));
+                delaySum += i % 100;
+                if (batch.size() == 1000) {
+                    archive.flightsCompleted(batch);
+                    batch = new ArrayList<>();
+                }
+            }
+            archive.flightsCompleted(batch);
+        }
+
+        int[] rows = {0};
+        int[] mismatches = {0};
+        FlightArchive.scan(directory, DAY, DAY, day -> {
+            rows[0] += day.size();
+            for (int row = 0; row < day.size(); row++) {
+                if (day.delaySeconds(row) != row % 100 || day.slotSecondOfDay(row) != row * 8 + row % 100) {
+                    mismatches[0]++;
+                }
+            }
+        });
+        assertEquals(total, rows[0]);
+        assertEquals(0, mismatches[0]);
+
+        FlightArchive.Summary summary = FlightArchive.summarize(directory, DAY, DAY);
+        assertEquals(total, summary.flights());
+        assertEquals((double) delaySum / total, summary.averageDelaySeconds(), 1e-9);
+        assertEquals(99, summary.maxDelaySeconds());
+        assertEquals(3, summary.flightsByRunway().size());
+    }
+
+    @Test
+    void reopenedArchiveKeepsAppending() throws IOException {
+        Runway runway = new Runway("09", 90, 3000);
+        try (FlightArchive archive = new FlightArchive(directory)) {
+            archive.flightsCompleted(List.of(completed(1, runway, DAY.atTime(9, 0), 30)));
+        }
+        try (FlightArchive archive = new FlightArchive(directory)) {
+            archive.flightsCompleted(List.of(completed(2, runway, DAY.atTime(9, 5), 60)));
+        }
+
+        FlightArchive.Summary summary = FlightArchive.summarize(directory, DAY, DAY);
+        assertEquals(2, summary.flights());
+        assertEquals(45.0, summary.averageDelaySeconds(), 1e-9);
+    }
+
+    // One batch spanning more days than the archive keeps open, with a runway id longer than the stored form
+    @Test
+    void batchAcrossManyDaysWithLongRunwayIds() throws IOException {
+        Runway runway = new Runway("RUNWAY-VERY-LONG-IDENTIFIER-09L", 90, 3000);
+        List<Flight> batch = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            batch.add(completed(i, runway, DAY.plusDays(i % 4).atTime(10, 0).plusSeconds(i), 0));
+        }
+
+        try (FlightArchive archive = new FlightArchive(directory)) {
+            archive.flightsCompleted(batch);
+            archive.flightsCompleted(batch.subList(0, 8));
+        }
+
+        int[] rows = {0};
+        List<String> runwayIds = new ArrayList<>();
+        FlightArchive.scan(directory, DAY, DAY.plusDays(3), day -> {
+            rows[0] += day.size();
+            runwayIds.add(day.runway(0));
+        });
+        assertEquals(308, rows[0]);
+        assertEquals(4, runwayIds.size());
+        assertTrue(runwayIds.stream().allMatch("RUNWAY-VERY-LON"::equals));
+    }
+
+    @Test
+    void skipsFlightsWithoutASlotAndDaysWithoutAFile() throws IOException {
+        Flight unassigned = new Flight(FlightId.next(), "LY9", "El Al Israel Airlines", "Boeing 787-9",
+                Flight.WakeTurbulenceCategory.HEAVY, Flight.FlightType.ARRIVAL, DAY.atTime(12, 0),
+                Flight.EmergencyStatus.NONE);
+        try (FlightArchive archive = new FlightArchive(directory)) {
+            archive.flightsCompleted(List.of(unassigned));
+        }
+
+        assertFalse(Files.exists(FlightArchive.fileFor(directory, DAY)));
+        assertEquals(0, FlightArchive.summarize(directory, DAY.minusDays(1), DAY.plusDays(1)).flights());
+    }
+}
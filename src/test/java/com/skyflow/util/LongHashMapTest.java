@@ -0,0 +1,125 @@
+package com.skyflow.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongHashMapTest {
+
+    @Test
+    void putGetAndReplace() {
+        LongHashMap<String> map = new LongHashMap<>();
+        assertNull(map.put(7, "seven"));
+        assertEquals("seven", map.put(7, "SEVEN"));
+        assertEquals("SEVEN", map.get(7));
+        assertEquals(1, map.size());
+        assertNull(map.get(8));
+        assertFalse(map.containsKey(8));
+    }
+
+    @Test
+    void zeroKeyIsStoredOutsideTheTable() {
+        LongHashMap<String> map = new LongHashMap<>();
+        assertFalse(map.containsKey(0));
+        map.put(0, "zero");
+        map.put(1, "one");
+        assertTrue(map.containsKey(0));
+        assertEquals("zero", map.get(0));
+        assertEquals(2, map.size());
+
+        assertEquals("zero", map.remove(0));
+        assertFalse(map.containsKey(0));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void zeroKeyCanMapToNull() {
+        LongHashMap<String> map = new LongHashMap<>();
+        map.put(0, null);
+        assertTrue(map.containsKey(0));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void removeOnlyMatchingValue() {
+        LongHashMap<String> map = new LongHashMap<>();
+        String value = "v";
+        map.put(3, value);
+        assertFalse(map.remove(3, "other"));
+        assertTrue(map.remove(3, value));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    void rehashKeepsEveryEntry() {
+        LongHashMap<Long> map = new LongHashMap<>(4);
+        for (long key = 1; key <= 10_000; key++) {
+            map.put(key * 1024, key);
+        }
+        assertEquals(10_000, map.size());
+        for (long key = 1; key <= 10_000; key++) {
+            assertEquals(Long.valueOf(key), map.get(key * 1024));
+        }
+
+        List<Long> values = map.values();
+        assertEquals(10_000, values.size());
+        long[] sum = {0};
+        map.forEachValue(value -> sum[0] += value);
+        assertEquals(10_000L * 10_001 / 2, sum[0]);
+    }
+
+    // Random puts and removes against HashMap; removals shift later entries back, so lookups through
+    // a cluster must still find everything after deletes in the middle of it
+    @Test
+    void matchesHashMapUnderRandomOperations() {
+        SplittableRandom random = new SplittableRandom(42);
+        LongHashMap<Long> map = new LongHashMap<>();
+        Map<Long, Long> expected = new HashMap<>();
+
+        for (int i = 0; i < 200_000; i++) {
+            long key = random.nextInt(2_000) - 1_000; // Small range so keys collide and repeat, including 0
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                long value = random.nextLong();
+                assertEquals(expected.put(key, value), map.put(key, value));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (long key = -1_000; key < 1_000; key++) {
+            assertEquals(expected.containsKey(key), map.containsKey(key));
+            assertEquals(expected.get(key), map.get(key));
+        }
+    }
+
+    @Test
+    void clearAndEnsureCapacity() {
+        LongHashMap<String> map = new LongHashMap<>();
+        map.put(0, "zero");
+        map.put(5, "five");
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(0));
+        assertNull(map.get(5));
+
+        map.ensureCapacity(1_000);
+        List<Long> keys = new ArrayList<>();
+        for (long key = 1; key <= 1_000; key++) {
+            map.put(key, "v" + key);
+            keys.add(key);
+        }
+        for (long key : keys) {
+            assertEquals("v" + key, map.get(key));
+        }
+    }
+}
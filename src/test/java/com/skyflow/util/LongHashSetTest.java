@@ -0,0 +1,56 @@
+package com.skyflow.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongHashSetTest {
+
+    @Test
+    void addReportsNewValuesOnly() {
+        LongHashSet set = new LongHashSet();
+        assertTrue(set.add(9));
+        assertFalse(set.add(9));
+        assertTrue(set.contains(9));
+        assertFalse(set.contains(10));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    void zeroIsAValue() {
+        LongHashSet set = new LongHashSet();
+        assertFalse(set.contains(0));
+        assertTrue(set.add(0));
+        assertFalse(set.add(0));
+        assertTrue(set.contains(0));
+        assertEquals(1, set.size());
+
+        set.clear();
+        assertFalse(set.contains(0));
+        assertTrue(set.isEmpty());
+    }
+
+    @Test
+    void matchesHashSetAcrossRehashes() {
+        SplittableRandom random = new SplittableRandom(7);
+        LongHashSet set = new LongHashSet(2);
+        Set<Long> expected = new HashSet<>();
+
+        for (int i = 0; i < 100_000; i++) {
+            long value = random.nextLong(50_000) << 10; // Low bits all zero, as FlightIds from one node are
+            assertEquals(expected.add(value), set.add(value));
+        }
+
+        assertEquals(expected.size(), set.size());
+        for (long value : expected) {
+            assertTrue(set.contains(value));
+        }
+        assertFalse(set.contains(1));
+    }
+}
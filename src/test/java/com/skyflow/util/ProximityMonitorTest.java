@@ -0,0 +1,106 @@
+package com.skyflow.util;
+
+import com.skyflow.model.Airport;
+import com.skyflow.model.ProximityAlert;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProximityMonitorTest {
+    private static final Airport AIRPORT = Airport.BEN_GURION;
+
+    private static StateVector aircraft(String icao24, double eastNm, double northNm, double altitudeFeet,
+                                        boolean onGround) {
+        double longitude = AIRPORT.longitude() + eastNm / (60.0 * Math.cos(Math.toRadians(AIRPORT.latitude())));
+        return new StateVector(icao24, icao24.toUpperCase(), "Israel", 0, longitude, AIRPORT.latitude() + northNm / 60.0,
+                altitudeFeet / 3.28084, onGround, 120, 0, 0);
+    }
+
+    @Test
+    void reportsOnlyPairsInsideBothMinima() {
+        List<ProximityAlert> alerts = new ProximityMonitor(AIRPORT).detect(List.of(
+                aircraft("a", 0, 0, 5000, false),
+                aircraft("b", 1, 0, 5500, false), // 1 NM and 500 ft from a
+                aircraft("c", 0, 2, 7000, false), // Close to a horizontally, 2000 ft above
+                aircraft("d", 20, 20, 5000, false)));
+
+        assertEquals(1, alerts.size());
+        ProximityAlert alert = alerts.get(0);
+        assertEquals(Set.of("a", "b"), Set.of(alert.firstAircraft(), alert.secondAircraft()));
+        assertEquals(1.0, alert.horizontalDistanceNm(), 1e-3);
+        assertEquals(500.0, alert.verticalDistanceFeet(), 1e-3);
+    }
+
+    @Test
+    void ignoresAircraftOnTheGroundOrWithoutAltitude() {
+        List<ProximityAlert> alerts = new ProximityMonitor(AIRPORT).detect(List.of(
+                aircraft("a", 0, 0, 0, true),
+                aircraft("b", 0.1, 0, 0, true),
+                new StateVector("c", "C", "Israel", 0, AIRPORT.longitude(), AIRPORT.latitude(), Double.NaN, false,
+                        120, 0, 0)));
+        assertEquals(0, alerts.size());
+    }
+
+    @Test
+    void findsPairsAcrossCellBoundaries() {
+        ProximityMonitor monitor = new ProximityMonitor(AIRPORT, 3.0, 1000.0);
+        int[] pairs = monitor.detect(new double[]{2.9, 3.1, -0.1, 0.1}, new double[]{0, 0, -2.9, -3.1},
+                new double[]{5000, 5000, 9000, 9000}, 4);
+        assertEquals(4, pairs.length);
+        assertEquals(Set.of(Set.of(0, 1), Set.of(2, 3)), pairSet(pairs));
+    }
+
+    // The grid must find exactly what comparing every pair finds
+    @Test
+    void matchesBruteForceOnRandomTraffic() {
+        ProximityMonitor monitor = new ProximityMonitor(AIRPORT, 3.0, 1000.0);
+        SplittableRandom random = new SplittableRandom(11);
+        for (int round = 0; round < 20; round++) {
+            int count = 300;
+            double[] x = new double[count];
+            double[] y = new double[count];
+            double[] altitude = new double[count];
+            for (int i = 0; i < count; i++) {
+                x[i] = random.nextDouble(-40, 40);
+                y[i] = random.nextDouble(-40, 40);
+                altitude[i] = random.nextDouble(2000, 12000);
+            }
+
+            Set<Set<Integer>> expected = new HashSet<>();
+            for (int a = 0; a < count; a++) {
+                for (int b = a + 1; b < count; b++) {
+                    double dx = x[a] - x[b];
+                    double dy = y[a] - y[b];
+                    if (dx * dx + dy * dy < 9.0 && Math.abs(altitude[a] - altitude[b]) < 1000.0) {
+                        expected.add(Set.of(a, b));
+                    }
+                }
+            }
+
+            int[] pairs = monitor.detect(x, y, altitude, count);
+            assertEquals(expected.size() * 2, pairs.length); // Each pair once
+            assertEquals(expected, pairSet(pairs));
+        }
+    }
+
+    @Test
+    void noAircraftNoPairs() {
+        assertArrayEquals(new int[0], new ProximityMonitor(AIRPORT).detect(new double[0], new double[0],
+                new double[0], 0));
+    }
+
+    private static Set<Set<Integer>> pairSet(int[] pairs) {
+        Set<Set<Integer>> set = new HashSet<>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            set.add(Set.of(pairs[i], pairs[i + 1]));
+        }
+        return set;
+    }
+}
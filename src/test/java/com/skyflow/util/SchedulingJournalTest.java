@@ -0,0 +1,227 @@
+package com.skyflow.util;
+
+import com.skyflow.controller.FlightController;
+import com.skyflow.controller.RunwayController;
+import com.skyflow.controller.SchedulingController;
+import com.skyflow.controller.WeatherController;
+import com.skyflow.model.Flight;
+import com.skyflow.model.FlightSpec;
+import com.skyflow.model.Runway;
+import com.skyflow.model.ScheduleClock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SchedulingJournalTest {
+    private static final LocalDateTime DAY_START = LocalDateTime.of(2026, 10, 18, 8, 30);
+
+    @TempDir
+    Path directory;
+
+    // Every reading moves the clock on by a few seconds, so recorded command times differ from replay time
+    private static final class SteppingClock extends Clock {
+        private long millis = Instant.parse("2026-10-18T08:00:00Z").toEpochMilli();
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            millis += 7919;
+            return Instant.ofEpochMilli(millis).plusNanos(123_457);
+        }
+    }
+
+    @BeforeEach
+    void fixClock() {
+        ScheduleClock.setClock(new SteppingClock());
+    }
+
+    @AfterEach
+    void restoreClock() {
+        ScheduleClock.setClock(Clock.systemDefaultZone());
+    }
+
+    private static ScheduleSnapshot.Controllers controllers() {
+        SchedulingController scheduling = new SchedulingController();
+        return new ScheduleSnapshot.Controllers(new FlightController(scheduling, null), new RunwayController(scheduling),
+                new WeatherController(scheduling, null), scheduling);
+    }
+
+    private static void attach(ScheduleSnapshot.Controllers controllers, SchedulingJournal journal) {
+        controllers.flights().setCommandLog(journal);
+        controllers.runways().setCommandLog(journal);
+        controllers.weather().setCommandLog(journal);
+        controllers.scheduling().setCommandLog(journal);
+    }
+
+    // Everything a restore has to reproduce, as one comparable string
+    private static String state(ScheduleSnapshot.Controllers controllers) {
+        StringBuilder state = new StringBuilder();
+        for (Flight flight : controllers.scheduling().getScheduledFlights()) {
+            state.append(flight.getId()).append(' ').append(flight.getAssignedRunway().getId()).append(' ')
+                    .append(flight.getActualTime()).append(' ').append(flight.getPriority()).append('\n');
+        }
+        state.append("queued:");
+        for (Flight flight : controllers.scheduling().getQueuedFlights()) {
+            state.append(' ').append(flight.getId()).append('/').append(flight.getPriority());
+        }
+        state.append("\nrunways:");
+        for (Runway runway : controllers.scheduling().getRunways()) {
+            state.append(' ').append(runway.getId()).append('/').append(runway.getNextAvailableTime())
+                    .append('/').append(runway.isActive());
+        }
+        state.append("\nflights:");
+        for (Flight flight : controllers.flights().getAllFlights()) {
+            state.append(' ').append(flight.getId()).append('/').append(flight.getEmergencyStatus())
+                    .append('/').append(flight.getFuelLevel()).append('/').append(flight.getIcao24());
+        }
+        state.append("\nwind: ").append(controllers.scheduling().getCurrentWeather().getWindDirection());
+        return state.toString();
+    }
+
+    // A seeded run of the commands the UI and the feed issue, compacting the journal (if any) as the app does
+    private static void runCommands(ScheduleSnapshot.Controllers controllers, SchedulingJournal journal, int steps,
+                                    long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int step = 0; step < steps; step++) {
+            List<Flight> live = controllers.flights().getAllFlights();
+            int command = random.nextInt(10);
+            if (command < 3) {
+                controllers.flights().createFlight("F" + seed + "-" + step, "El Al Israel Airlines", "Boeing 737-800",
+                        Flight.WakeTurbulenceCategory.values()[random.nextInt(4)],
+                        Flight.FlightType.values()[random.nextInt(2)], DAY_START.plusMinutes(random.nextInt(240)),
+                        Flight.EmergencyStatus.NONE);
+            } else if (command == 3) {
+                List<FlightSpec> specs = new ArrayList<>();
+                for (int i = 0; i < 10; i++) {
+                    specs.add(new FlightSpec("B" + step + "-" + i, "El Al Israel Airlines", "Airbus A320",
+                            Flight.WakeTurbulenceCategory.MEDIUM, Flight.FlightType.ARRIVAL,
+                            DAY_START.plusMinutes(random.nextInt(240)), Flight.EmergencyStatus.NONE, 50,
+                            "icao" + random.nextInt(40)));
+                }
+                controllers.flights().createFlights(specs);
+            } else if (command == 4 && !live.isEmpty()) {
+                controllers.flights().setEmergencyStatus(live.get(random.nextInt(live.size())),
+                        Flight.EmergencyStatus.values()[random.nextInt(Flight.EmergencyStatus.values().length)]);
+            } else if (command == 5 && !live.isEmpty()) {
+                controllers.flights().updateFuelLevel(live.get(random.nextInt(live.size())), random.nextInt(100));
+            } else if (command == 6) {
+                List<Runway> runways = controllers.runways().getAllRunways();
+                Runway runway = runways.get(random.nextInt(runways.size()));
+                controllers.runways().setRunwayActive(runway, !runway.isActive());
+            } else if (command == 7) {
+                controllers.weather().updateWindDirection(random.nextInt(360));
+            } else if (command == 8) {
+                controllers.flights().removeFlightsByIcao24(List.of("icao" + random.nextInt(40)));
+            } else {
+                controllers.scheduling().scheduleFlights();
+            }
+            if (journal != null) {
+                journal.snapshotIfDue();
+            }
+        }
+    }
+
+    // Recovery runs while the journal is still open, as after a crash: closing it would write a final snapshot
+    // and leave nothing to replay
+    @Test
+    void replayRestoresTheScheduleFromTheJournalAlone() throws IOException {
+        ScheduleSnapshot.Controllers live = controllers();
+        try (SchedulingJournal journal = SchedulingJournal.open(directory, live, 1 << 16, Integer.MAX_VALUE)) {
+            attach(live, journal);
+            runCommands(live, journal, 300, 1);
+            live.scheduling().scheduleFlights();
+
+            ScheduleSnapshot.Controllers recovered = controllers();
+            JournalReplayer.RecoveryResult result = JournalReplayer.recover(directory, recovered);
+
+            assertEquals(0, result.snapshotSequence());
+            assertEquals(journal.getLastSequence(), result.lastSequence());
+            assertEquals(journal.getLastSequence(), result.recordsReplayed());
+            assertEquals(0, result.divergences());
+            assertFalse(recovered.scheduling().getScheduledFlights().isEmpty());
+            assertEquals(state(live), state(recovered));
+        }
+    }
+
+    @Test
+    void replayStartsFromTheNewestSnapshot() throws IOException {
+        ScheduleSnapshot.Controllers live = controllers();
+        try (SchedulingJournal journal = SchedulingJournal.open(directory, live, 1 << 16, 25)) {
+            attach(live, journal);
+            runCommands(live, journal, 300, 2);
+            live.flights().createFlight("LY2000", "El Al Israel Airlines", "Boeing 787-9",
+                    Flight.WakeTurbulenceCategory.HEAVY, Flight.FlightType.ARRIVAL, DAY_START,
+                    Flight.EmergencyStatus.CRITICAL);
+            live.scheduling().scheduleFlights();
+
+            assertTrue(SchedulingJournal.listSnapshots(directory).size() > 1);
+
+            ScheduleSnapshot.Controllers recovered = controllers();
+            JournalReplayer.RecoveryResult result = JournalReplayer.recover(directory, recovered);
+
+            assertTrue(result.snapshotSequence() > 0);
+            assertTrue(result.recordsReplayed() > 0);
+            assertEquals(0, result.divergences());
+            assertEquals(state(live), state(recovered));
+        }
+    }
+
+    // After a clean close everything is in the last snapshot
+    @Test
+    void closeLeavesNothingToReplay() throws IOException {
+        ScheduleSnapshot.Controllers live = controllers();
+        SchedulingJournal journal = SchedulingJournal.open(directory, live, 1 << 16, Integer.MAX_VALUE);
+        attach(live, journal);
+        runCommands(live, journal, 100, 4);
+        long lastSequence = journal.getLastSequence();
+        journal.close();
+
+        ScheduleSnapshot.Controllers recovered = controllers();
+        JournalReplayer.RecoveryResult result = JournalReplayer.recover(directory, recovered);
+
+        assertEquals(lastSequence, result.snapshotSequence());
+        assertEquals(0, result.recordsReplayed());
+        assertEquals(state(live), state(recovered));
+    }
+
+    @Test
+    void snapshotRestoresControllersAndSequence() throws IOException {
+        ScheduleSnapshot.Controllers live = controllers();
+        runCommands(live, null, 200, 3);
+        live.scheduling().scheduleFlights();
+        String expected = state(live);
+
+        Path file = directory.resolve("schedule.snapshot");
+        ScheduleSnapshot.write(file, live, 42);
+
+        ScheduleSnapshot.Controllers restored = controllers();
+        assertEquals(42, ScheduleSnapshot.restore(file, restored));
+        assertEquals(expected, state(restored));
+    }
+}